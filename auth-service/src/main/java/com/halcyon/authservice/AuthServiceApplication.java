@@ -2,10 +2,12 @@ package com.halcyon.authservice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.clients.config.LoadBalancedClientsConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication(
         scanBasePackages = {
@@ -17,6 +19,7 @@ import org.springframework.context.annotation.Bean;
 @EnableFeignClients(
         basePackages = "com.halcyon.clients"
 )
+@Import(LoadBalancedClientsConfig.class)
 public class AuthServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(AuthServiceApplication.class, args);
@@ -1,6 +1,7 @@
 package com.halcyon.authservice.security;
 
 import com.halcyon.rediscache.CacheManager;
+import com.halcyon.rediscache.ReactiveCacheManager;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +11,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 @RequiredArgsConstructor
@@ -18,19 +20,36 @@ public class RefreshTokenGenerator {
     private int refreshTokenValidity;
 
     private final CacheManager cacheManager;
+    private final ReactiveCacheManager reactiveCacheManager;
 
     private static final String ALGORITHM = "SHA256";
 
-    @SneakyThrows
     public String generate(String email) {
+        String refreshToken = newRefreshToken();
+        saveRefreshTokenInCache(refreshToken, email);
+
+        return refreshToken;
+    }
+
+    /**
+     * Same as {@link #generate(String)}, but stores the token without blocking, so the caller can sign the access
+     * token while the write is in flight and join the result afterwards.
+     */
+    public CompletableFuture<String> generateAsync(String email) {
+        String refreshToken = newRefreshToken();
+
+        return reactiveCacheManager.saveAsync(refreshToken, email, Duration.ofMinutes(refreshTokenValidity))
+                .thenApply(ignored -> refreshToken)
+                .toCompletableFuture();
+    }
+
+    @SneakyThrows
+    private String newRefreshToken() {
         String randomIdentifier = String.valueOf(UUID.randomUUID());
         MessageDigest messageDigest = MessageDigest.getInstance(ALGORITHM);
         byte[] hash = messageDigest.digest(randomIdentifier.getBytes(StandardCharsets.UTF_8));
 
-        String refreshToken = convertBytesToString(hash);
-        saveRefreshTokenInCache(refreshToken, email);
-
-        return refreshToken;
+        return convertBytesToString(hash);
     }
 
     private String convertBytesToString(byte[] bytes) {
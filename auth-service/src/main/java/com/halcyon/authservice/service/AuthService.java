@@ -20,6 +20,7 @@ import com.halcyon.authservice.security.RefreshTokenGenerator;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import static com.halcyon.clients.util.UserUtil.isUserBanned;
 import static com.halcyon.clients.util.UserUtil.isUserVerified;
@@ -99,10 +100,10 @@ public class AuthService {
      * @return an {@link AuthResponse} containing the generated jwt access and refresh tokens
      */
     private AuthResponse getAuthResponse(String email) {
+        CompletableFuture<String> refreshToken = refreshTokenGenerator.generateAsync(email);
         String accessToken = jwtProvider.generateAccessToken(email);
-        String refreshToken = refreshTokenGenerator.generate(email);
 
-        return new AuthResponse(accessToken, refreshToken);
+        return new AuthResponse(accessToken, refreshToken.join());
     }
 
     /**
@@ -177,10 +178,12 @@ public class AuthService {
         String subject = cacheManager.fetch(refreshToken, String.class)
                 .orElseThrow(TokenVerificationException::new);
 
+        CompletableFuture<String> newRefreshToken = isRefresh
+                ? refreshTokenGenerator.generateAsync(subject)
+                : CompletableFuture.completedFuture(null);
         String accessToken = jwtProvider.generateAccessToken(subject);
-        String newRefreshToken = isRefresh ? refreshTokenGenerator.generate(subject) : null;
 
-        return new AuthResponse(accessToken, newRefreshToken);
+        return new AuthResponse(accessToken, newRefreshToken.join());
     }
 
     /**
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Service;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 import static com.halcyon.clients.util.UserUtil.isUserBanned;
 import static com.halcyon.clients.util.UserUtil.isUserVerified;
@@ -155,11 +156,11 @@ public class TwoFactorAuthService {
 
         verifyOtp(user, dto.getOtp());
 
+        CompletableFuture<String> refreshToken = refreshTokenGenerator.generateAsync(user.getEmail());
         String accessToken = jwtProvider.generateAccessToken(user.getEmail());
-        String refreshToken = refreshTokenGenerator.generate(user.getEmail());
 
         cacheManager.delete("2fa:" + user.getEmail());
 
-        return new AuthResponse(accessToken, refreshToken);
+        return new AuthResponse(accessToken, refreshToken.join());
     }
 }
@@ -28,6 +28,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -101,7 +102,7 @@ class AuthServiceTests {
         doNothing().when(userActionsProducer).executeCreatingUser(dto);
 
         when(jwtProvider.generateAccessToken(dto.getEmail())).thenReturn(TOKEN);
-        when(refreshTokenGenerator.generate(dto.getEmail())).thenReturn(TOKEN);
+        when(refreshTokenGenerator.generateAsync(dto.getEmail())).thenReturn(CompletableFuture.completedFuture(TOKEN));
 
         VerificationMessage verificationMessage = new VerificationMessage(user.getUsername(), user.getEmail(), TOKEN);
         doNothing().when(mailActionsProducer).executeSendVerificationMessage(verificationMessage);
@@ -143,7 +144,7 @@ class AuthServiceTests {
         when(userClient.getByEmail(request.getEmail(), privateSecret)).thenReturn(user);
         when(passwordEncoder.matches(request.getPassword(), user.getPassword())).thenReturn(true);
         when(jwtProvider.generateAccessToken(request.getEmail())).thenReturn(TOKEN);
-        when(refreshTokenGenerator.generate(request.getEmail())).thenReturn(TOKEN);
+        when(refreshTokenGenerator.generateAsync(request.getEmail())).thenReturn(CompletableFuture.completedFuture(TOKEN));
 
         AuthResponse response = authService.login(request);
         isValidAuthResponse(response);
@@ -201,7 +202,7 @@ class AuthServiceTests {
 
         when(cacheManager.fetch(TOKEN, String.class)).thenReturn(Optional.ofNullable(user.getEmail()));
         when(jwtProvider.generateAccessToken(user.getEmail())).thenReturn(newAccessToken);
-        when(refreshTokenGenerator.generate(user.getEmail())).thenReturn(newRefreshToken);
+        when(refreshTokenGenerator.generateAsync(user.getEmail())).thenReturn(CompletableFuture.completedFuture(newRefreshToken));
 
         AuthResponse response = authService.getTokensByRefresh(TOKEN, true);
 
@@ -321,7 +322,7 @@ class AuthServiceTests {
         doNothing().when(cacheManager).delete(request.getNewEmail());
 
         when(jwtProvider.generateAccessToken(request.getNewEmail())).thenReturn(TOKEN);
-        when(refreshTokenGenerator.generate(request.getNewEmail())).thenReturn(TOKEN);
+        when(refreshTokenGenerator.generateAsync(request.getNewEmail())).thenReturn(CompletableFuture.completedFuture(TOKEN));
 
         AuthResponse response = authService.confirmEmailChange(request);
         isValidAuthResponse(response);
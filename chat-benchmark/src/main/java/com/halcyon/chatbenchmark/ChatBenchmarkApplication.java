@@ -0,0 +1,11 @@
+package com.halcyon.chatbenchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ChatBenchmarkApplication {
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(SpringApplication.run(ChatBenchmarkApplication.class, args)));
+    }
+}
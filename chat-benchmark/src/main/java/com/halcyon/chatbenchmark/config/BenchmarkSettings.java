@@ -0,0 +1,79 @@
+package com.halcyon.chatbenchmark.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Getter
+@Component
+public class BenchmarkSettings {
+    private final URI url;
+    private final Transport transport;
+    private final int sessions;
+    private final long firstUserId;
+    private final int connectRate;
+    private final Duration connectTimeout;
+    private final double sendRate;
+    private final int messageSize;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration drain;
+    private final Duration heartbeat;
+    private final boolean serverMetrics;
+
+    public BenchmarkSettings(
+            @Value("${benchmark.url}") URI url,
+            @Value("${benchmark.transport}") Transport transport,
+            @Value("${benchmark.sessions}") int sessions,
+            @Value("${benchmark.first-user-id}") long firstUserId,
+            @Value("${benchmark.connect-rate}") int connectRate,
+            @Value("${benchmark.connect-timeout}") Duration connectTimeout,
+            @Value("${benchmark.send-rate}") double sendRate,
+            @Value("${benchmark.message-size}") int messageSize,
+            @Value("${benchmark.warmup}") Duration warmup,
+            @Value("${benchmark.duration}") Duration duration,
+            @Value("${benchmark.drain}") Duration drain,
+            @Value("${benchmark.heartbeat}") Duration heartbeat,
+            @Value("${benchmark.server-metrics}") boolean serverMetrics
+    ) {
+        if (sessions < 2 || sessions % 2 != 0) {
+            throw new IllegalArgumentException("benchmark.sessions must be an even number of at least 2");
+        }
+        if (messageSize < 2 || messageSize > 1000) {
+            throw new IllegalArgumentException("benchmark.message-size must be between 2 and 1000 characters");
+        }
+
+        this.url = url;
+        this.transport = transport;
+        this.sessions = sessions;
+        this.firstUserId = firstUserId;
+        this.connectRate = connectRate;
+        this.connectTimeout = connectTimeout;
+        this.sendRate = sendRate;
+        this.messageSize = messageSize;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.drain = drain;
+        this.heartbeat = heartbeat;
+        this.serverMetrics = serverMetrics;
+    }
+
+    /**
+     * SockJS starts over HTTP, while a native session needs a {@code ws} or {@code wss} URL.
+     */
+    public URI endpoint() {
+        if (transport == Transport.SOCKJS) {
+            return url.resolve("/ws");
+        }
+
+        String scheme = "https".equals(url.getScheme()) ? "wss" : "ws";
+        return URI.create(scheme + "://" + url.getRawAuthority() + "/ws-native");
+    }
+
+    public enum Transport {
+        NATIVE, SOCKJS
+    }
+}
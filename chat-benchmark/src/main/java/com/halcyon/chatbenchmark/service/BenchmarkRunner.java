@@ -0,0 +1,244 @@
+package com.halcyon.chatbenchmark.service;
+
+import com.halcyon.chatbenchmark.config.BenchmarkSettings;
+import com.halcyon.chatbenchmark.support.LatencyRecorder;
+import com.halcyon.chatbenchmark.support.ServerMetrics;
+import com.halcyon.chatbenchmark.support.TokenIssuer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opens {@code benchmark.sessions} STOMP sessions for consecutive seeded users, pairs every even user
+ * with the next one and has each pair exchange messages through {@code /app/chat} at a total rate of
+ * {@code benchmark.send-rate} messages per second. Messages sent during warmup are delivered but not
+ * measured; after the measured window the runner waits {@code benchmark.drain} for late notifications
+ * and counts the rest as lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BenchmarkRunner implements CommandLineRunner {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final BenchmarkSettings settings;
+    private final TokenIssuer tokenIssuer;
+    private final RestClient.Builder restClientBuilder;
+
+    @Override
+    public void run(String... args) throws Exception {
+        LatencyRecorder latencyRecorder = new LatencyRecorder(new SimpleMeterRegistry());
+        AtomicLong errors = new AtomicLong();
+        ServerMetrics serverMetrics = settings.isServerMetrics()
+                ? new ServerMetrics(restClientBuilder, settings.getUrl(), tokenIssuer.issue(TokenIssuer.emailOf(settings.getFirstUserId())))
+                : null;
+
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(2);
+        heartbeatScheduler.setThreadNamePrefix("benchmark-heartbeat-");
+        heartbeatScheduler.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(heartbeatScheduler);
+        // Only the server sends heartbeats, so nothing but the sender thread ever writes to a session
+        stompClient.setDefaultHeartbeat(new long[]{0, settings.getHeartbeat().toMillis()});
+
+        List<BenchmarkSession> sessions = new ArrayList<>(settings.getSessions());
+        try {
+            long clientHeapBefore = usedHeap();
+            OptionalDouble serverHeapBefore = serverMetrics == null ? OptionalDouble.empty() : serverMetrics.heapUsed();
+
+            connect(stompClient, sessions, latencyRecorder, errors);
+            List<BenchmarkSession> senders = sessions.stream()
+                    .filter(session -> session.isConnected() && session.isPartnerConnected())
+                    .toList();
+            int connected = (int) sessions.stream().filter(BenchmarkSession::isConnected).count();
+
+            log.info("Connected {} of {} sessions over {}, {} of them have a connected partner",
+                    connected, sessions.size(), settings.getTransport(), senders.size());
+            if (connected > 0) {
+                long clientHeapAfter = usedHeap();
+                log.info("Client heap per connection: {} KB", (clientHeapAfter - clientHeapBefore) / 1024 / connected);
+
+                OptionalDouble serverHeapAfter = serverMetrics == null ? OptionalDouble.empty() : serverMetrics.heapUsed();
+                if (serverHeapBefore.isPresent() && serverHeapAfter.isPresent()) {
+                    log.info("Server heap per connection: {} KB (not collected, so only an upper bound)",
+                            (long) (serverHeapAfter.getAsDouble() - serverHeapBefore.getAsDouble()) / 1024 / connected);
+                }
+            }
+            if (senders.isEmpty()) {
+                log.warn("No pair of sessions is connected, nothing to measure");
+                return;
+            }
+
+            log.info("Warming up for {} s at {} messages/s", settings.getWarmup().toSeconds(), settings.getSendRate());
+            send(senders, settings.getWarmup());
+
+            latencyRecorder.startRecording();
+            ConcurrentLinkedQueue<Double> serverCpu = new ConcurrentLinkedQueue<>();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            if (serverMetrics != null) {
+                sampler.scheduleAtFixedRate(() -> serverMetrics.cpuUsage().ifPresent(serverCpu::add), 1, 1, TimeUnit.SECONDS);
+            }
+
+            log.info("Measuring for {} s", settings.getDuration().toSeconds());
+            long cpuBefore = processCpuTime();
+            long startedAt = System.nanoTime();
+            send(senders, settings.getDuration());
+            long elapsed = System.nanoTime() - startedAt;
+            long cpuUsed = processCpuTime() - cpuBefore;
+            sampler.shutdownNow();
+
+            Thread.sleep(settings.getDrain().toMillis());
+            report(latencyRecorder, errors.get(), elapsed, cpuUsed, serverCpu);
+        } finally {
+            sessions.forEach(BenchmarkSession::disconnect);
+            stompClient.stop();
+            heartbeatScheduler.shutdown();
+        }
+    }
+
+    private WebSocketClient webSocketClient() {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+
+        if (settings.getTransport() == BenchmarkSettings.Transport.SOCKJS) {
+            return new SockJsClient(List.of(new WebSocketTransport(webSocketClient)));
+        }
+        return webSocketClient;
+    }
+
+    private void connect(WebSocketStompClient stompClient, List<BenchmarkSession> sessions,
+                         LatencyRecorder latencyRecorder, AtomicLong errors) {
+        log.info("Opening {} sessions against {} at {} per second", settings.getSessions(), settings.endpoint(), settings.getConnectRate());
+
+        List<CompletableFuture<?>> connections = new ArrayList<>(settings.getSessions());
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.getConnectRate();
+        long next = System.nanoTime();
+
+        for (int i = 0; i < settings.getSessions(); i++) {
+            long userId = settings.getFirstUserId() + i;
+            long partnerId = settings.getFirstUserId() + (i ^ 1);
+            BenchmarkSession session = new BenchmarkSession(userId, partnerId, latencyRecorder, errors);
+            sessions.add(session);
+
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + tokenIssuer.issue(TokenIssuer.emailOf(userId)));
+
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += interval;
+
+            connections.add(stompClient.connectAsync(settings.endpoint().toString(), new WebSocketHttpHeaders(), connectHeaders, session)
+                    .orTimeout(settings.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        errors.incrementAndGet();
+                        log.debug("Failed to connect user {}", userId, e);
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(connections.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < sessions.size(); i += 2) {
+            BenchmarkSession first = sessions.get(i);
+            BenchmarkSession second = sessions.get(i + 1);
+            if (first.isConnected() && second.isConnected()) {
+                first.partnerConnected();
+                second.partnerConnected();
+            }
+        }
+    }
+
+    /**
+     * Paces sends on the calling thread, spreading them round-robin over the senders so every
+     * conversation gets an even share of the rate.
+     */
+    private void send(List<BenchmarkSession> senders, Duration duration) {
+        String content = "x".repeat(settings.getMessageSize());
+        long startedAt = System.nanoTime();
+        long endsAt = startedAt + duration.toNanos();
+        long attempted = 0;
+        int cursor = 0;
+
+        for (long now = startedAt; now < endsAt; now = System.nanoTime()) {
+            long due = (long) (settings.getSendRate() * (now - startedAt) / 1_000_000_000.0);
+
+            for (; attempted < due; attempted++) {
+                senders.get(cursor).send(content);
+                cursor = (cursor + 1) % senders.size();
+            }
+
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+    }
+
+    private void report(LatencyRecorder latencyRecorder, long errors, long elapsedNanos, long cpuNanos, ConcurrentLinkedQueue<Double> serverCpu) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        log.info("Sent {} messages ({} messages/s), received {}, lost {}, unmatched {}, errors {}",
+                latencyRecorder.getSent(), Math.round(latencyRecorder.getSent() / seconds),
+                latencyRecorder.getReceived(), latencyRecorder.getLost(), latencyRecorder.getUnmatched(), errors);
+
+        StringBuilder percentiles = new StringBuilder();
+        for (ValueAtPercentile percentile : latencyRecorder.getPercentiles()) {
+            percentiles.append(String.format(" p%s=%.2f ms", trim(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        log.info("Delivery latency:{} mean={} ms max={} ms", percentiles,
+                String.format("%.2f", latencyRecorder.getMean(TimeUnit.MILLISECONDS)),
+                String.format("%.2f", latencyRecorder.getMax(TimeUnit.MILLISECONDS)));
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        log.info("Client CPU: {}% of {} cores", String.format("%.1f", 100.0 * cpuNanos / elapsedNanos / processors), processors);
+
+        DoubleSummaryStatistics server = serverCpu.stream().mapToDouble(Double::doubleValue).summaryStatistics();
+        if (server.getCount() > 0) {
+            log.info("Server CPU: average {}%, max {}%",
+                    String.format("%.1f", server.getAverage() * 100), String.format("%.1f", server.getMax() * 100));
+        }
+    }
+
+    private static String trim(double value) {
+        String formatted = String.format("%.1f", value);
+        return formatted.endsWith("0") ? formatted.substring(0, formatted.length() - 2) : formatted;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long processCpuTime() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean bean) {
+            return bean.getProcessCpuTime();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.halcyon.chatbenchmark.service;
+
+import com.halcyon.chatbenchmark.support.LatencyRecorder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One simulated user: a STOMP session subscribed to its {@code /user/queue/messages} that sends chat
+ * messages to a fixed partner.
+ */
+@Slf4j
+public class BenchmarkSession extends StompSessionHandlerAdapter {
+    private static final String MESSAGES_DESTINATION = "/user/queue/messages";
+    private static final String CHAT_DESTINATION = "/app/chat";
+
+    @Getter
+    private final long userId;
+    @Getter
+    private final long partnerId;
+    private final LatencyRecorder latencyRecorder;
+    private final AtomicLong errors;
+
+    private volatile StompSession session;
+    @Getter
+    private volatile boolean partnerConnected;
+
+    public BenchmarkSession(long userId, long partnerId, LatencyRecorder latencyRecorder, AtomicLong errors) {
+        this.userId = userId;
+        this.partnerId = partnerId;
+        this.latencyRecorder = latencyRecorder;
+        this.errors = errors;
+    }
+
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    public void partnerConnected() {
+        partnerConnected = true;
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        session.subscribe(MESSAGES_DESTINATION, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                long receivedAt = System.nanoTime();
+                Object senderId = ((Map<?, ?>) payload).get("senderId");
+
+                if (senderId instanceof Number number) {
+                    latencyRecorder.received(number.longValue(), userId, receivedAt);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends one message to the partner. Sessions are driven by a single sender thread and don't send
+     * heartbeats, so a session never writes from two threads at once.
+     */
+    public boolean send(String content) {
+        StompSession current = session;
+        if (current == null || !current.isConnected() || !partnerConnected) {
+            return false;
+        }
+
+        try {
+            long sentAt = System.nanoTime();
+            latencyRecorder.sent(userId, partnerId, sentAt);
+            current.send(CHAT_DESTINATION, Map.of("content", content, "recipientId", partnerId));
+            return true;
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            log.debug("Failed to send message from user {}", userId, e);
+            return false;
+        }
+    }
+
+    public void disconnect() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable exception) {
+        errors.incrementAndGet();
+        log.debug("Failed to handle {} frame of user {}", command, userId, exception);
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        errors.incrementAndGet();
+        log.debug("Transport error of user {}", userId, exception);
+    }
+}
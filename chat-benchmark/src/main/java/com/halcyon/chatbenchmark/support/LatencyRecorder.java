@@ -0,0 +1,108 @@
+package com.halcyon.chatbenchmark.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures end-to-end delivery latency from the SEND frame to the notification on the recipient's
+ * {@code /user/queue/messages}. Notifications carry no timestamp, so the send times of every sender and
+ * recipient pair are queued and a notification is matched with the oldest pending send of its pair; the
+ * server keeps messages of one pair in order, so this matches each notification with its own message.
+ */
+public class LatencyRecorder {
+    public static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<Long, Queue<Pending>> pending = new ConcurrentHashMap<>();
+    private final Timer latency;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+
+    private volatile boolean recording;
+
+    public LatencyRecorder(MeterRegistry meterRegistry) {
+        this.latency = Timer.builder("benchmark.delivery.latency")
+                .publishPercentiles(PERCENTILES)
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts counting messages sent from now on. Messages sent during warmup are still matched, so
+     * their late notifications are not taken for the ones of measured messages.
+     */
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void sent(long senderId, long recipientId, long sentAtNanos) {
+        pending.computeIfAbsent(pair(senderId, recipientId), ignored -> new ConcurrentLinkedQueue<>())
+                .add(new Pending(sentAtNanos, recording));
+
+        if (recording) {
+            sent.incrementAndGet();
+        }
+    }
+
+    public void received(long senderId, long recipientId, long receivedAtNanos) {
+        Queue<Pending> sends = pending.get(pair(senderId, recipientId));
+        Pending send = sends == null ? null : sends.poll();
+
+        if (send == null) {
+            unmatched.incrementAndGet();
+            return;
+        }
+
+        if (send.recorded()) {
+            received.incrementAndGet();
+            latency.record(receivedAtNanos - send.sentAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getUnmatched() {
+        return unmatched.get();
+    }
+
+    public long getLost() {
+        return pending.values().stream()
+                .flatMap(Queue::stream)
+                .filter(Pending::recorded)
+                .count();
+    }
+
+    public double getMax(TimeUnit unit) {
+        return latency.max(unit);
+    }
+
+    public double getMean(TimeUnit unit) {
+        return latency.mean(unit);
+    }
+
+    public ValueAtPercentile[] getPercentiles() {
+        return latency.takeSnapshot().percentileValues();
+    }
+
+    private static long pair(long senderId, long recipientId) {
+        return senderId << 32 ^ recipientId;
+    }
+
+    private record Pending(long sentAtNanos, boolean recorded) {
+    }
+}
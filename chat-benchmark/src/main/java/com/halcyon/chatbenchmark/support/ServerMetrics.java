@@ -0,0 +1,59 @@
+package com.halcyon.chatbenchmark.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.util.OptionalDouble;
+
+/**
+ * Reads heap and CPU usage of the chat-service node under test from its actuator metrics endpoint, which
+ * the node only exposes with the {@code benchmark} profile active.
+ */
+@Slf4j
+public class ServerMetrics {
+    private final RestClient restClient;
+
+    public ServerMetrics(RestClient.Builder builder, URI url, String accessToken) {
+        this.restClient = builder
+                .baseUrl(url.toString())
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .build();
+    }
+
+    public OptionalDouble heapUsed() {
+        return read("jvm.memory.used", "area:heap");
+    }
+
+    public OptionalDouble cpuUsage() {
+        return read("process.cpu.usage", null);
+    }
+
+    private OptionalDouble read(String metric, String tag) {
+        try {
+            JsonNode body = restClient.get()
+                    .uri(builder -> {
+                        builder.path("/actuator/metrics/{metric}");
+                        if (tag != null) {
+                            builder.queryParam("tag", tag);
+                        }
+                        return builder.build(metric);
+                    })
+                    .retrieve()
+                    .body(JsonNode.class);
+
+            for (JsonNode measurement : body.path("measurements")) {
+                if ("VALUE".equals(measurement.path("statistic").asText())) {
+                    return OptionalDouble.of(measurement.path("value").asDouble());
+                }
+            }
+        } catch (RestClientException e) {
+            log.warn("Failed to read server metric {}: {}", metric, e.getMessage());
+        }
+
+        return OptionalDouble.empty();
+    }
+}
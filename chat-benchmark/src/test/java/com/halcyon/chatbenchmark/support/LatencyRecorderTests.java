@@ -0,0 +1,47 @@
+package com.halcyon.chatbenchmark.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecorderTests {
+    @Test
+    void received_MatchesOldestPendingSendOfPair() {
+        LatencyRecorder recorder = new LatencyRecorder(new SimpleMeterRegistry());
+        recorder.startRecording();
+
+        recorder.sent(1, 2, 0);
+        recorder.sent(1, 2, TimeUnit.MILLISECONDS.toNanos(10));
+        recorder.sent(2, 1, TimeUnit.MILLISECONDS.toNanos(20));
+
+        recorder.received(1, 2, TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.received(1, 2, TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertEquals(3, recorder.getSent());
+        assertEquals(2, recorder.getReceived());
+        assertEquals(1, recorder.getLost());
+        assertEquals(30, recorder.getMax(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void received_WarmupSends_AreMatchedButNotRecorded() {
+        LatencyRecorder recorder = new LatencyRecorder(new SimpleMeterRegistry());
+
+        recorder.sent(1, 2, 0);
+        recorder.startRecording();
+        recorder.sent(1, 2, TimeUnit.MILLISECONDS.toNanos(100));
+
+        recorder.received(1, 2, TimeUnit.MILLISECONDS.toNanos(150));
+        recorder.received(1, 2, TimeUnit.MILLISECONDS.toNanos(110));
+        recorder.received(3, 4, TimeUnit.MILLISECONDS.toNanos(120));
+
+        assertEquals(1, recorder.getSent());
+        assertEquals(1, recorder.getReceived());
+        assertEquals(0, recorder.getLost());
+        assertEquals(1, recorder.getUnmatched());
+        assertEquals(10, recorder.getMax(TimeUnit.MILLISECONDS), 0.001);
+    }
+}
@@ -1,8 +1,11 @@
 package com.halcyon.chatservice;
 
+import com.halcyon.clients.config.AsyncClientsConfig;
+import com.halcyon.clients.config.LoadBalancedClientsConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication(
         scanBasePackages = {
@@ -13,6 +16,7 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 @EnableFeignClients(
         basePackages = "com.halcyon.clients"
 )
+@Import({AsyncClientsConfig.class, LoadBalancedClientsConfig.class})
 public class ChatServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(ChatServiceApplication.class, args);
@@ -0,0 +1,56 @@
+package com.halcyon.chatservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+    @Value("${chat.delivery.pool-size}")
+    private int deliveryPoolSize;
+
+    @Value("${chat.delivery.queue-capacity}")
+    private int deliveryQueueCapacity;
+
+    @Value("${chat.presence.pool-size}")
+    private int presencePoolSize;
+
+    @Value("${chat.presence.queue-capacity}")
+    private int presenceQueueCapacity;
+
+    /**
+     * Runs delivery status updates off the request thread. When the queue is full the caller
+     * performs the update itself, so a burst slows reads down instead of losing acknowledgements.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor messageDeliveryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("message-delivery-");
+        executor.setCorePoolSize(deliveryPoolSize);
+        executor.setMaxPoolSize(deliveryPoolSize);
+        executor.setQueueCapacity(deliveryQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Looks up conversation partners and pushes presence changes. Changes are only worth anything
+     * while they are fresh, so when the queue is full the oldest pending push is dropped.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor presenceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("presence-");
+        executor.setCorePoolSize(presencePoolSize);
+        executor.setMaxPoolSize(presencePoolSize);
+        executor.setQueueCapacity(presenceQueueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
+        return executor;
+    }
+}
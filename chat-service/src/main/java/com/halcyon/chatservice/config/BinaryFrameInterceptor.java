@@ -0,0 +1,117 @@
+package com.halcyon.chatservice.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Switches sessions on the native endpoint to Smile-encoded binary frames. A client opts in with the
+ * {@code payload-format:smile} header on CONNECT; from then on every JSON MESSAGE frame for that session
+ * is transcoded to Smile and sent as {@code application/octet-stream}, which is what makes Spring write a
+ * binary WebSocket frame. SockJS sessions can't carry binary frames and always stay on JSON.
+ */
+@Component
+public class BinaryFrameInterceptor implements ChannelInterceptor {
+    public static final String PAYLOAD_FORMAT_HEADER = "payload-format";
+    public static final String SMILE_FORMAT = "smile";
+
+    private static final String NATIVE_TRANSPORT_ATTRIBUTE = "chat.nativeTransport";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper smileMapper = SmileMessageConverter.createSmileMapper();
+    private final Set<String> binarySessions = ConcurrentHashMap.newKeySet();
+
+    public HandshakeInterceptor nativeTransportHandshakeInterceptor() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(NATIVE_TRANSPORT_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor stompAccessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (stompAccessor != null && StompCommand.CONNECT.equals(stompAccessor.getCommand())) {
+            registerIfRequested(stompAccessor);
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || !binarySessions.contains(sessionId)
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] payload) || payload.length == 0) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getContentType() == null || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(accessor.getContentType())) {
+            return message;
+        }
+
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(PAYLOAD_FORMAT_HEADER, SMILE_FORMAT);
+        return MessageBuilder.createMessage(toSmile(payload), accessor.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        binarySessions.remove(event.getSessionId());
+    }
+
+    private void registerIfRequested(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean nativeTransport = attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_TRANSPORT_ATTRIBUTE));
+
+        if (nativeTransport && SMILE_FORMAT.equals(accessor.getFirstNativeHeader(PAYLOAD_FORMAT_HEADER))) {
+            binarySessions.add(accessor.getSessionId());
+        }
+    }
+
+    private byte[] toSmile(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = smileMapper.getFactory().createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new MessagingException("Failed to encode frame as Smile", e);
+        }
+
+        return out.toByteArray();
+    }
+}
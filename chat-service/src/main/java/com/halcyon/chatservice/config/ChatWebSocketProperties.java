@@ -0,0 +1,89 @@
+package com.halcyon.chatservice.config;
+
+import com.halcyon.chatservice.support.BackpressurePolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.websocket")
+public class ChatWebSocketProperties {
+    /**
+     * Whether Tomcat may negotiate permessage-deflate with clients that offer it. Each compressed
+     * connection keeps its own zlib state, so this trades memory per socket for bandwidth.
+     */
+    private boolean permessageDeflate = true;
+
+    /**
+     * Largest inbound STOMP frame, in bytes.
+     */
+    private int messageSizeLimit = 16 * 1024;
+
+    /**
+     * Bytes that may be buffered for one session while a send is in progress before it is closed.
+     */
+    private int sendBufferSizeLimit = 256 * 1024;
+
+    /**
+     * How long a single send to one session may block before the session is closed.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /**
+     * Tomcat's per-session read buffers. Each socket allocates them up front, so they dominate the
+     * footprint of idle connections; they must still fit the largest frame.
+     */
+    private int maxTextMessageBufferSize = 8192;
+    private int maxBinaryMessageBufferSize = 8192;
+
+    /**
+     * STOMP heart-beat the simple broker offers and expects. A client that stays silent for about three
+     * intervals is disconnected, so half-open connections don't keep users online. Zero disables it.
+     */
+    private Duration heartbeat = Duration.ofSeconds(10);
+
+    private Duration maxSessionIdleTimeout = Duration.ofMinutes(10);
+    private Duration asyncSendTimeout = Duration.ofSeconds(10);
+
+    private Channel inbound = new Channel();
+    private Channel outbound = new Channel();
+    private Backpressure backpressure = new Backpressure();
+
+    @Getter
+    @Setter
+    public static class Channel {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private Duration keepAlive = Duration.ofSeconds(60);
+
+        /**
+         * Tasks that may wait for a free thread. When the queue is full the sending thread runs the task
+         * itself, or on the outbound channel waits for room, which slows producers down instead of dropping
+         * frames or growing the heap. The outbound channel sends to each session from one of
+         * {@code maxPoolSize} threads and splits the capacity between them.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Backpressure {
+        private BackpressurePolicy policy = BackpressurePolicy.DISCONNECT;
+
+        /**
+         * MESSAGE frames that may wait in the outbound channel for one session before the policy applies.
+         */
+        private int maxQueuedMessages = 100;
+
+        /**
+         * Destinations whose frames are never skipped by {@code drop-oldest} or {@code coalesce}, also once
+         * resolved to a session's own queue. A client can't tell a chat message it never got from one that
+         * was never sent, so these frames wait and only {@code disconnect} gets rid of them.
+         */
+        private List<String> losslessDestinations = List.of("/queue/messages", "/queue/sent");
+    }
+}
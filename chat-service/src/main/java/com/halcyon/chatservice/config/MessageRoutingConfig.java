@@ -0,0 +1,82 @@
+package com.halcyon.chatservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halcyon.chatservice.service.LocalUserMessageRouter;
+import com.halcyon.chatservice.service.RecentMessageCache;
+import com.halcyon.chatservice.service.RedisUserMessageRouter;
+import com.halcyon.chatservice.service.RedisUserSessionRegistry;
+import com.halcyon.chatservice.service.UserMessageRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+
+/**
+ * Chooses how messages reach users connected to other nodes, see {@code chat.broker.mode}:
+ * {@code simple} keeps everything in this JVM, {@code redis} routes through Redis pub/sub and
+ * {@code relay} leaves fan-out to the external STOMP broker configured in {@link WebSocketConfig}.
+ */
+@Configuration
+@EnableScheduling
+public class MessageRoutingConfig {
+    @Value("${chat.broker.node-id}")
+    private String nodeId;
+
+    @Value("${chat.broker.session-ttl}")
+    private Duration sessionTtl;
+
+    /**
+     * Needed in every mode, presence is tracked through it even when routing stays local.
+     */
+    @Bean
+    public RedisUserSessionRegistry redisUserSessionRegistry(StringRedisTemplate redisTemplate,
+                                                             ApplicationEventPublisher eventPublisher) {
+        return new RedisUserSessionRegistry(redisTemplate, nodeId, sessionTtl, eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+    public RedisUserMessageRouter redisUserMessageRouter(RedisUserSessionRegistry sessionRegistry,
+                                                         StringRedisTemplate redisTemplate,
+                                                         SimpMessagingTemplate messagingTemplate,
+                                                         ObjectMapper objectMapper) {
+        return new RedisUserMessageRouter(sessionRegistry, redisTemplate, messagingTemplate, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+    public RedisMessageListenerContainer userMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      RedisUserMessageRouter router) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(router, new ChannelTopic(RedisUserMessageRouter.channelOf(nodeId)));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${chat.broker.mode}' != 'simple'")
+    public RedisMessageListenerContainer recentMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        RecentMessageCache recentMessageCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(recentMessageCache, new ChannelTopic(RecentMessageCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(UserMessageRouter.class)
+    public UserMessageRouter localUserMessageRouter(SimpMessagingTemplate messagingTemplate) {
+        return new LocalUserMessageRouter(messagingTemplate);
+    }
+}
@@ -0,0 +1,202 @@
+package com.halcyon.chatservice.config;
+
+import com.halcyon.chatservice.support.BackpressurePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many MESSAGE frames may wait in the client outbound channel for one session. Frames are
+ * numbered per session when they are queued; once a session has more than
+ * {@code chat.websocket.backpressure.max-queued-messages} waiting, the configured
+ * {@link BackpressurePolicy} decides which frames are skipped when the executor picks them up, or closes
+ * the session outright. Control frames (CONNECTED, RECEIPT, ERROR) and frames to
+ * {@code chat.websocket.backpressure.lossless-destinations} are never dropped.
+ */
+@Slf4j
+@Component
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+    private static final String SEQUENCE_HEADER = "chat.outboundSequence";
+
+    private final BackpressurePolicy policy;
+    private final int maxQueuedMessages;
+    private final List<String> losslessDestinations;
+
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong queuedMessages = new AtomicLong();
+    private final Counter droppedMessages;
+    private final Counter disconnectedSessions;
+
+    public OutboundBackpressureInterceptor(ChatWebSocketProperties properties, MeterRegistry meterRegistry) {
+        this.policy = properties.getBackpressure().getPolicy();
+        this.maxQueuedMessages = properties.getBackpressure().getMaxQueuedMessages();
+        this.losslessDestinations = List.copyOf(properties.getBackpressure().getLosslessDestinations());
+
+        Gauge.builder("chat.websocket.outbound.queued", queuedMessages, AtomicLong::get)
+                .description("MESSAGE frames waiting in the client outbound channel")
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.sessions", sessions, Map::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+        this.droppedMessages = Counter.builder("chat.websocket.outbound.dropped")
+                .description("MESSAGE frames skipped because their session was too far behind")
+                .tag("policy", policy.name().toLowerCase())
+                .register(meterRegistry);
+        this.disconnectedSessions = Counter.builder("chat.websocket.sessions.disconnected")
+                .description("Sessions closed for falling too far behind")
+                .register(meterRegistry);
+    }
+
+    public WebSocketHandlerDecoratorFactory sessionTrackingDecoratorFactory() {
+        return handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionQueue(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionQueue queue = sessions.remove(session.getId());
+                if (queue != null) {
+                    queuedMessages.addAndGet(-queue.depth.get());
+                }
+
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public int getQueueDepth(String sessionId) {
+        SessionQueue queue = sessions.get(sessionId);
+        return queue != null ? queue.depth.get() : 0;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SessionQueue queue = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+
+        if (queue == null || accessor.getMessageType() != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        long sequence = queue.sequence.incrementAndGet();
+        int depth = queue.depth.incrementAndGet();
+        queuedMessages.incrementAndGet();
+
+        if (depth > maxQueuedMessages) {
+            switch (policy) {
+                case DROP_OLDEST -> queue.dropBelow = sequence - maxQueuedMessages + 1;
+                case DISCONNECT -> {
+                    release(queue);
+                    droppedMessages.increment();
+                    disconnect(queue);
+                    return null;
+                }
+                case COALESCE -> {
+                    // Earlier frames to the same destination are skipped in beforeHandle
+                    if (accessor.getDestination() != null) {
+                        queue.latestByDestination.put(accessor.getDestination(), sequence);
+                    }
+                }
+            }
+        }
+
+        accessor.setHeader(SEQUENCE_HEADER, sequence);
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Long sequence = (Long) message.getHeaders().get(SEQUENCE_HEADER);
+        SessionQueue queue = sequence != null ? sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())) : null;
+
+        if (queue == null || !isSuperseded(queue, sequence, SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+            return message;
+        }
+
+        release(queue);
+        droppedMessages.increment();
+        return null;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        Long sequence = (Long) message.getHeaders().get(SEQUENCE_HEADER);
+        SessionQueue queue = sequence != null ? sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())) : null;
+
+        if (queue != null) {
+            release(queue);
+        }
+    }
+
+    private boolean isSuperseded(SessionQueue queue, long sequence, String destination) {
+        if (isLossless(destination)) {
+            return false;
+        }
+
+        return switch (policy) {
+            case DROP_OLDEST -> sequence < queue.dropBelow;
+            case COALESCE -> destination != null && queue.latestByDestination.getOrDefault(destination, sequence) > sequence;
+            case DISCONNECT -> false;
+        };
+    }
+
+    private boolean isLossless(String destination) {
+        // User destinations reach the broker resolved to "<destination>-user<session id>"
+        return destination != null && losslessDestinations.stream()
+                .anyMatch(lossless -> destination.equals(lossless) || destination.startsWith(lossless + "-user"));
+    }
+
+    private void release(SessionQueue queue) {
+        queue.depth.decrementAndGet();
+        queuedMessages.decrementAndGet();
+    }
+
+    private void disconnect(SessionQueue queue) {
+        if (!queue.session.isOpen()) {
+            return;
+        }
+
+        try {
+            log.warn("Closing slow WebSocket session {}: more than {} frames queued", queue.session.getId(), maxQueuedMessages);
+            queue.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            disconnectedSessions.increment();
+        } catch (IOException e) {
+            log.debug("Failed to close slow WebSocket session {}", queue.session.getId(), e);
+        }
+    }
+
+    private static final class SessionQueue {
+        private final WebSocketSession session;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Map<String, Long> latestByDestination = new ConcurrentHashMap<>();
+        private volatile long dropBelow;
+
+        private SessionQueue(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
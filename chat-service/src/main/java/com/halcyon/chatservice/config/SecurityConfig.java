@@ -30,7 +30,10 @@ public class SecurityConfig {
                         auth -> auth
                                 // Entry points
                                 .requestMatchers(
-                                        "/api/v1/posts/{postId}"
+                                        "/api/v1/posts/{postId}",
+                                        // STOMP sessions authenticate on CONNECT
+                                        "/ws/**",
+                                        "/ws-native"
                                 ).permitAll()
                                 .anyRequest().authenticated()
                 )
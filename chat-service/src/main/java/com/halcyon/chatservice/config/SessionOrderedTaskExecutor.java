@@ -0,0 +1,75 @@
+package com.halcyon.chatservice.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for the client outbound channel that sends the frames of one session in the order they were
+ * handed to the channel. Every session is pinned to one of a fixed number of single-threaded lanes, so
+ * sessions are still sent to in parallel but never by two threads at once. When a lane's queue is full the
+ * sending thread waits for room instead of running the task itself, which would let it overtake frames
+ * already queued for the same session.
+ */
+public class SessionOrderedTaskExecutor implements TaskExecutor, DisposableBean {
+    private final ThreadPoolExecutor[] lanes;
+
+    public SessionOrderedTaskExecutor(String threadNamePrefix, int laneCount, int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        int laneCapacity = Math.max(1, queueCapacity / laneCount);
+
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(laneCapacity),
+                    threadFactory, SessionOrderedTaskExecutor::waitForRoom);
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        String sessionId = task instanceof MessageHandlingRunnable handling
+                ? SimpMessageHeaderAccessor.getSessionId(handling.getMessage().getHeaders())
+                : null;
+
+        // Frames without a session have no order to keep
+        int lane = sessionId != null
+                ? Math.floorMod(sessionId.hashCode(), lanes.length)
+                : ThreadLocalRandom.current().nextInt(lanes.length);
+        lanes[lane].execute(task);
+    }
+
+    public int getQueueSize() {
+        return Arrays.stream(lanes).mapToInt(lane -> lane.getQueue().size()).sum();
+    }
+
+    public int getActiveCount() {
+        return Arrays.stream(lanes).mapToInt(ThreadPoolExecutor::getActiveCount).sum();
+    }
+
+    @Override
+    public void destroy() {
+        Arrays.stream(lanes).forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Outbound channel is shut down");
+        }
+
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the outbound channel", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.halcyon.chatservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.util.MimeType;
+
+/**
+ * Reads and writes STOMP payloads as Smile, Jackson's binary JSON, for frames sent with
+ * {@code content-type:application/x-jackson-smile}.
+ */
+public class SmileMessageConverter extends MappingJackson2MessageConverter {
+    public static final MimeType SMILE = new MimeType("application", "x-jackson-smile");
+
+    public SmileMessageConverter() {
+        super(SMILE);
+        setObjectMapper(createSmileMapper());
+        setStrictContentTypeMatch(true);
+    }
+
+    public static ObjectMapper createSmileMapper() {
+        return SmileMapper.builder().findAndAddModules().build();
+    }
+}
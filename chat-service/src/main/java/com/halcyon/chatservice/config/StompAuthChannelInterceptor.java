@@ -0,0 +1,67 @@
+package com.halcyon.chatservice.config;
+
+import com.halcyon.chatservice.support.StompAuthentication;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.JwtProvider;
+import com.halcyon.jwtlibrary.TokenRevocationService;
+import com.halcyon.jwtlibrary.TokenVerificationException;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import static com.halcyon.clients.util.UserUtil.isUserBanned;
+
+/**
+ * Authenticates STOMP sessions from the {@code Authorization} header of the CONNECT frame. Browsers
+ * can't set headers on the WebSocket handshake, so this is the only place the token is checked.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    @Value("${private.secret}")
+    private String privateSecret;
+
+    private final JwtProvider jwtProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserClient userClient;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String accessToken = getToken(accessor);
+            Claims claims = jwtProvider.parseAccessToken(accessToken)
+                    .orElseThrow(TokenVerificationException::new);
+
+            if (tokenRevocationService.isRevoked(accessToken)) {
+                throw new TokenVerificationException();
+            }
+
+            PrivateUserResponse user = userClient.getByEmail(claims.getSubject(), privateSecret);
+            isUserBanned(user, "You are banned.");
+
+            accessor.setUser(new StompAuthentication(user.getId(), user.getEmail()));
+        }
+
+        return message;
+    }
+
+    private String getToken(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        throw new TokenVerificationException();
+    }
+}
@@ -1,24 +1,181 @@
 package com.halcyon.chatservice.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.messaging.context.SecurityContextChannelInterceptor;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToDoubleFunction;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties(ChatWebSocketProperties.class)
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private static final String RELAY_MODE = "relay";
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final BinaryFrameInterceptor binaryFrameInterceptor;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    private final ChatWebSocketProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.broker.mode}")
+    private String brokerMode;
+
+    @Value("${chat.broker.relay.host}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.login}")
+    private String relayLogin;
+
+    @Value("${chat.broker.relay.passcode}")
+    private String relayPasscode;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Enable build-in message broker
         registry.addEndpoint("/ws").setAllowedOrigins("*").withSockJS();
+
+        // Plain WebSocket without the SockJS fallbacks, for clients that can use binary frames
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins("*")
+                .addInterceptors(binaryFrameInterceptor.nativeTransportHandshakeInterceptor());
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/user");
+        if (RELAY_MODE.equals(brokerMode)) {
+            // User registry and unresolved user destinations are shared through the broker,
+            // so convertAndSendToUser reaches sessions connected to any node
+            registry.enableStompBrokerRelay("/queue", "/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            long heartbeat = properties.getHeartbeat().toMillis();
+            registry.enableSimpleBroker("/queue", "/topic")
+                    .setHeartbeatValue(new long[]{heartbeat, heartbeat})
+                    .setTaskScheduler(createHeartbeatScheduler());
+        }
+
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(createExecutor("inbound", properties.getInbound()));
+        registration.interceptors(stompAuthChannelInterceptor, binaryFrameInterceptor, new SecurityContextChannelInterceptor());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(createOrderedExecutor("outbound", properties.getOutbound()));
+        registration.interceptors(binaryFrameInterceptor, outboundBackpressureInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(properties.getMessageSizeLimit())
+                .setSendBufferSizeLimit(properties.getSendBufferSizeLimit())
+                .setSendTimeLimit((int) properties.getSendTimeLimit().toMillis())
+                .addDecoratorFactory(outboundBackpressureInterceptor.sessionTrackingDecoratorFactory());
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new SmileMessageConverter());
+        // Keep the default String, byte[] and JSON converters as well
+        return true;
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean servletServerContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(properties.getMaxTextMessageBufferSize());
+        container.setMaxBinaryMessageBufferSize(properties.getMaxBinaryMessageBufferSize());
+        container.setMaxSessionIdleTimeout(properties.getMaxSessionIdleTimeout().toMillis());
+        container.setAsyncSendTimeout(properties.getAsyncSendTimeout().toMillis());
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.websocket.permessage-deflate", havingValue = "false")
+    public FilterRegistrationBean<PermessageDeflateFilter> permessageDeflateFilter() {
+        FilterRegistrationBean<PermessageDeflateFilter> registration = new FilterRegistrationBean<>(new PermessageDeflateFilter());
+        registration.addUrlPatterns("/ws/*", "/ws-native");
+        return registration;
+    }
+
+    private ThreadPoolTaskScheduler createHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("stomp-heartbeat-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(String name, ChatWebSocketProperties.Channel channel) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("client" + StringUtils.capitalize(name) + "Channel-");
+        executor.setCorePoolSize(channel.getCorePoolSize());
+        executor.setMaxPoolSize(channel.getMaxPoolSize());
+        executor.setKeepAliveSeconds((int) channel.getKeepAlive().toSeconds());
+        executor.setQueueCapacity(channel.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+
+        registerGauges(name, executor, ThreadPoolTaskExecutor::getQueueSize, ThreadPoolTaskExecutor::getActiveCount);
+        return executor;
+    }
+
+    /**
+     * Frames of one session have to leave in the order they were numbered by the backpressure interceptor,
+     * so the outbound channel sends to each session from a single thread.
+     */
+    private SessionOrderedTaskExecutor createOrderedExecutor(String name, ChatWebSocketProperties.Channel channel) {
+        SessionOrderedTaskExecutor executor = new SessionOrderedTaskExecutor(
+                "client" + StringUtils.capitalize(name) + "Channel-", channel.getMaxPoolSize(), channel.getQueueCapacity());
+
+        registerGauges(name, executor, SessionOrderedTaskExecutor::getQueueSize, SessionOrderedTaskExecutor::getActiveCount);
+        return executor;
+    }
+
+    private <T> void registerGauges(String name, T executor, ToDoubleFunction<T> queued, ToDoubleFunction<T> active) {
+        Gauge.builder("chat.websocket.executor.queued", executor, queued)
+                .description("Tasks waiting in a client channel executor")
+                .tag("channel", name)
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.executor.active", executor, active)
+                .description("Busy threads of a client channel executor")
+                .tag("channel", name)
+                .register(meterRegistry);
+    }
 }
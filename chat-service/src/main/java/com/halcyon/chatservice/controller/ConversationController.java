@@ -0,0 +1,24 @@
+package com.halcyon.chatservice.controller;
+
+import com.halcyon.chatservice.dto.ConversationResponse;
+import com.halcyon.chatservice.service.ConversationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/conversations")
+@RequiredArgsConstructor
+public class ConversationController {
+    private final ConversationService conversationService;
+
+    @GetMapping
+    public ResponseEntity<Page<ConversationResponse>> getMyConversations(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        Page<ConversationResponse> conversations = conversationService.findMyConversations(offset, limit);
+        return ResponseEntity.ok(conversations);
+    }
+}
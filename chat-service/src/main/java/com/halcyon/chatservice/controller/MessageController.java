@@ -1,9 +1,13 @@
 package com.halcyon.chatservice.controller;
 
 import com.halcyon.chatservice.dto.CreateMessageDto;
+import com.halcyon.chatservice.dto.MessageSearchHit;
 import com.halcyon.chatservice.dto.UpdateMessageDto;
 import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.service.MessageSearchService;
 import com.halcyon.chatservice.service.MessageService;
+import com.halcyon.chatservice.support.AcceptedMessage;
+import com.halcyon.chatservice.support.DeliveryCursor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -20,15 +24,19 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class MessageController {
     private final MessageService messageService;
+    private final MessageSearchService messageSearchService;
 
     @MessageMapping("/chat")
-    public ResponseEntity<Message> create(@RequestBody @Valid CreateMessageDto dto, BindingResult bindingResult) {
+    public ResponseEntity<?> create(@RequestBody @Valid CreateMessageDto dto, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, bindingResult.getAllErrors().get(0).getDefaultMessage());
         }
 
-        Message message = messageService.create(dto);
-        return ResponseEntity.ok(message);
+        // Still being committed: answer with the pending id, a retry would save the message twice
+        AcceptedMessage accepted = messageService.create(dto);
+        return accepted.getMessage() != null
+                ? ResponseEntity.ok(accepted.getMessage())
+                : ResponseEntity.accepted().body(accepted);
     }
 
     @PatchMapping("/update-content")
@@ -47,12 +55,29 @@ public class MessageController {
         return ResponseEntity.ok(message);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Page<MessageSearchHit>> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "partnerId", required = false) Long partnerId,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        Page<MessageSearchHit> hits = messageSearchService.search(query, partnerId, offset, limit);
+        return ResponseEntity.ok(hits);
+    }
+
     @GetMapping("/count/{recipientId}")
     public ResponseEntity<Long> countNewMessages(@PathVariable long recipientId) {
         long newMessagesCount = messageService.countNewMessages(recipientId);
         return ResponseEntity.ok(newMessagesCount);
     }
 
+    @GetMapping("/delivered/{recipientId}")
+    public ResponseEntity<DeliveryCursor> getDeliveryCursor(@PathVariable long recipientId) {
+        DeliveryCursor cursor = messageService.getDeliveryCursor(recipientId);
+        return ResponseEntity.ok(cursor);
+    }
+
     @GetMapping("/me/{recipientId}")
     public ResponseEntity<Page<Message>> getSentMeMessages(
             @PathVariable long recipientId,
@@ -0,0 +1,32 @@
+package com.halcyon.chatservice.controller;
+
+import com.halcyon.chatservice.service.ConversationService;
+import com.halcyon.chatservice.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/presence")
+@RequiredArgsConstructor
+public class PresenceController {
+    private static final int MAX_USER_IDS = 200;
+
+    private final PresenceService presenceService;
+    private final ConversationService conversationService;
+
+    @GetMapping
+    public ResponseEntity<Map<Long, Boolean>> getOnline(@RequestParam("userIds") List<Long> userIds) {
+        if (userIds.size() > MAX_USER_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You can't ask for more than " + MAX_USER_IDS + " users at once.");
+        }
+
+        // Only conversation partners are answered, anyone else is left out of the result
+        return ResponseEntity.ok(presenceService.findOnline(conversationService.findMyPartnersAmong(userIds)));
+    }
+}
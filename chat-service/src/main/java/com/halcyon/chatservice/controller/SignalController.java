@@ -0,0 +1,33 @@
+package com.halcyon.chatservice.controller;
+
+import com.halcyon.chatservice.dto.ReadReceiptDto;
+import com.halcyon.chatservice.dto.TypingDto;
+import com.halcyon.chatservice.service.ReadReceiptService;
+import com.halcyon.chatservice.service.TypingIndicatorService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/**
+ * Ephemeral STOMP frames that never create rows of their own: typing indicators and read receipts.
+ */
+@Controller
+@RequiredArgsConstructor
+public class SignalController {
+    private final TypingIndicatorService typingIndicatorService;
+    private final ReadReceiptService readReceiptService;
+
+    @MessageMapping("/typing")
+    public void typing(@Payload @Valid TypingDto dto, Principal principal) {
+        typingIndicatorService.send(Long.parseLong(principal.getName()), dto.getRecipientId(), dto.isTyping());
+    }
+
+    @MessageMapping("/read")
+    public void read(@Payload @Valid ReadReceiptDto dto, Principal principal) {
+        readReceiptService.markRead(Long.parseLong(principal.getName()), dto.getSenderId(), dto.getMessageId());
+    }
+}
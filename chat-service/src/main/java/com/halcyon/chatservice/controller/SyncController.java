@@ -0,0 +1,46 @@
+package com.halcyon.chatservice.controller;
+
+import com.halcyon.chatservice.dto.SyncAckDto;
+import com.halcyon.chatservice.service.SyncService;
+import com.halcyon.chatservice.support.SyncMode;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@RequiredArgsConstructor
+public class SyncController {
+    private final SyncService syncService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> sync(
+            @RequestParam("deviceId") String deviceId,
+            @RequestParam(value = "mode", defaultValue = "DELTA") SyncMode mode
+    ) {
+        if (deviceId.isBlank() || deviceId.length() > 64) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Device id must be between 1 and 64 characters.");
+        }
+
+        StreamingResponseBody body = syncService.sync(deviceId, mode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping("/ack")
+    public ResponseEntity<Void> acknowledge(@RequestBody @Valid SyncAckDto dto, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, bindingResult.getAllErrors().get(0).getDefaultMessage());
+        }
+
+        syncService.acknowledge(dto.getDeviceId(), dto.getCursor());
+        return ResponseEntity.noContent().build();
+    }
+}
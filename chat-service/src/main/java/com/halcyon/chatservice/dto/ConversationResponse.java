@@ -0,0 +1,23 @@
+package com.halcyon.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationResponse {
+    private long partnerId;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastMessagePreview;
+    private Instant lastActivityAt;
+    private long unreadCount;
+    private Long partnerReadMessageId;
+    private Instant partnerReadUpTo;
+}
@@ -0,0 +1,24 @@
+package com.halcyon.chatservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchHit {
+    private long messageId;
+    private long senderId;
+    private long recipientId;
+    private Instant createdAt;
+
+    /**
+     * HTML-escaped fragments of the message with matches wrapped in {@code <mark>}.
+     */
+    private String highlight;
+}
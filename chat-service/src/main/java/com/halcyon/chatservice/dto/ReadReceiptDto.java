@@ -0,0 +1,19 @@
+package com.halcyon.chatservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadReceiptDto {
+    @NotNull(message = "Sender id is required.")
+    private Long senderId;
+
+    @NotNull(message = "Message id is required.")
+    private Long messageId;
+}
@@ -0,0 +1,22 @@
+package com.halcyon.chatservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncAckDto {
+    @NotBlank(message = "Device id is required.")
+    @Size(max = 64, message = "Device id must be less than 64 characters.")
+    private String deviceId;
+
+    @NotNull(message = "Cursor is required.")
+    private Long cursor;
+}
@@ -0,0 +1,18 @@
+package com.halcyon.chatservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingDto {
+    @NotNull(message = "Recipient id is required.")
+    private Long recipientId;
+
+    private boolean typing = true;
+}
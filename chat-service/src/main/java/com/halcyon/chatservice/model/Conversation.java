@@ -0,0 +1,70 @@
+package com.halcyon.chatservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "conversations")
+@IdClass(ConversationId.class)
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Conversation {
+    @Id
+    @Column(name = "user_low_id")
+    private Long userLowId;
+
+    @Id
+    @Column(name = "user_high_id")
+    private Long userHighId;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview")
+    private String lastMessagePreview;
+
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt;
+
+    @Column(name = "low_unread_count")
+    private long lowUnreadCount;
+
+    @Column(name = "high_unread_count")
+    private long highUnreadCount;
+
+    @Column(name = "low_read_message_id")
+    private Long lowReadMessageId;
+
+    @Column(name = "low_read_up_to")
+    private Instant lowReadUpTo;
+
+    @Column(name = "high_read_message_id")
+    private Long highReadMessageId;
+
+    @Column(name = "high_read_up_to")
+    private Instant highReadUpTo;
+
+    public long getPartnerId(long userId) {
+        return userId == userLowId ? userHighId : userLowId;
+    }
+
+    public long getUnreadCountFor(long userId) {
+        return userId == userLowId ? lowUnreadCount : highUnreadCount;
+    }
+
+    public Long getReadMessageIdOf(long userId) {
+        return userId == userLowId ? lowReadMessageId : highReadMessageId;
+    }
+
+    public Instant getReadUpToOf(long userId) {
+        return userId == userLowId ? lowReadUpTo : highReadUpTo;
+    }
+}
@@ -0,0 +1,23 @@
+package com.halcyon.chatservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ConversationId implements Serializable {
+    private Long userLowId;
+    private Long userHighId;
+
+    public static ConversationId of(long firstUserId, long secondUserId) {
+        return new ConversationId(Math.min(firstUserId, secondUserId), Math.max(firstUserId, secondUserId));
+    }
+}
@@ -0,0 +1,84 @@
+package com.halcyon.chatservice.repository;
+
+import com.halcyon.chatservice.model.Conversation;
+import com.halcyon.chatservice.model.ConversationId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, ConversationId> {
+    @Query("""
+            SELECT c FROM Conversation c
+            WHERE c.userLowId = :userId OR c.userHighId = :userId
+            ORDER BY c.lastActivityAt DESC
+            """)
+    Page<Conversation> findAllByParticipant(@Param("userId") long userId, Pageable pageable);
+
+    @Query("""
+            SELECT CASE WHEN c.userLowId = :userId THEN c.userHighId ELSE c.userLowId END
+            FROM Conversation c
+            WHERE c.userLowId = :userId OR c.userHighId = :userId
+            ORDER BY c.lastActivityAt DESC
+            """)
+    List<Long> findPartnerIds(@Param("userId") long userId, Pageable pageable);
+
+    @Query("""
+            SELECT CASE WHEN c.userLowId = :userId THEN c.userHighId ELSE c.userLowId END
+            FROM Conversation c
+            WHERE (c.userLowId = :userId AND c.userHighId IN :candidateIds)
+               OR (c.userHighId = :userId AND c.userLowId IN :candidateIds)
+            """)
+    List<Long> findPartnerIdsAmong(@Param("userId") long userId, @Param("candidateIds") Collection<Long> candidateIds);
+
+    /**
+     * Creates the conversation on its first message, otherwise moves the last message forward and
+     * adds the unread increments. Runs as one statement so concurrent senders can't lose updates.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO conversations AS c (user_low_id, user_high_id, last_message_id, last_sender_id,
+                                            last_message_preview, last_activity_at, low_unread_count, high_unread_count)
+            VALUES (:userLowId, :userHighId, :messageId, :senderId, :preview, :activityAt, :lowUnread, :highUnread)
+            ON CONFLICT (user_low_id, user_high_id) DO UPDATE SET
+                last_message_id = CASE WHEN EXCLUDED.last_activity_at >= c.last_activity_at
+                    THEN EXCLUDED.last_message_id ELSE c.last_message_id END,
+                last_sender_id = CASE WHEN EXCLUDED.last_activity_at >= c.last_activity_at
+                    THEN EXCLUDED.last_sender_id ELSE c.last_sender_id END,
+                last_message_preview = CASE WHEN EXCLUDED.last_activity_at >= c.last_activity_at
+                    THEN EXCLUDED.last_message_preview ELSE c.last_message_preview END,
+                last_activity_at = GREATEST(c.last_activity_at, EXCLUDED.last_activity_at),
+                low_unread_count = c.low_unread_count + EXCLUDED.low_unread_count,
+                high_unread_count = c.high_unread_count + EXCLUDED.high_unread_count
+            """, nativeQuery = true)
+    void upsert(@Param("userLowId") long userLowId, @Param("userHighId") long userHighId,
+                @Param("messageId") long messageId, @Param("senderId") long senderId,
+                @Param("preview") String preview, @Param("activityAt") Instant activityAt,
+                @Param("lowUnread") long lowUnread, @Param("highUnread") long highUnread);
+
+    @Modifying
+    @Query(value = """
+            UPDATE conversations
+            SET low_unread_count = GREATEST(low_unread_count - :lowRead, 0),
+                high_unread_count = GREATEST(high_unread_count - :highRead, 0)
+            WHERE user_low_id = :userLowId AND user_high_id = :userHighId
+            """, nativeQuery = true)
+    void decrementUnread(@Param("userLowId") long userLowId, @Param("userHighId") long userHighId,
+                         @Param("lowRead") long lowRead, @Param("highRead") long highRead);
+
+    @Modifying
+    @Query(value = """
+            UPDATE conversations SET last_message_preview = :preview
+            WHERE user_low_id = :userLowId AND user_high_id = :userHighId AND last_message_id = :messageId
+            """, nativeQuery = true)
+    void updatePreview(@Param("userLowId") long userLowId, @Param("userHighId") long userHighId,
+                       @Param("messageId") long messageId, @Param("preview") String preview);
+}
@@ -5,11 +5,44 @@ import com.halcyon.chatservice.support.MessageStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    long countBySenderIdAndRecipientIdAndStatus(Long senderId, Long recipientId, MessageStatus status);
-
     Page<Message> findAllBySenderIdAndRecipientId(long senderId, long recipientId, Pageable pageable);
+
+    Optional<Message> findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtDescIdDesc(
+            long senderId, long recipientId, MessageStatus status
+    );
+
+    Optional<Message> findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtAscIdAsc(
+            long senderId, long recipientId, MessageStatus status
+    );
+
+    @Query("""
+            SELECT m FROM Message m
+            WHERE m.senderId = :senderId AND m.recipientId = :recipientId AND m.status = :status
+            AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id))
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<Message> findByStatusBefore(@Param("senderId") long senderId, @Param("recipientId") long recipientId,
+                                     @Param("status") MessageStatus status, @Param("createdAt") Instant createdAt,
+                                     @Param("id") long id, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE Message m SET m.status = :status
+            WHERE m.senderId = :senderId AND m.recipientId = :recipientId
+            AND m.status <> :status AND m.id IN :ids
+            """)
+    int updateStatus(@Param("senderId") long senderId, @Param("recipientId") long recipientId,
+                     @Param("ids") Collection<Long> ids, @Param("status") MessageStatus status);
 }
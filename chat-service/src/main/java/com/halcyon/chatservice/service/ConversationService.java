@@ -0,0 +1,136 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.dto.ConversationResponse;
+import com.halcyon.chatservice.model.Conversation;
+import com.halcyon.chatservice.model.ConversationId;
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.repository.ConversationRepository;
+import com.halcyon.chatservice.repository.MessageRepository;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.halcyon.clients.util.UserUtil.isUserBanned;
+
+@Service
+@RequiredArgsConstructor
+public class ConversationService {
+    private static final int PREVIEW_LENGTH = 100;
+
+    @Value("${private.secret}")
+    private String privateSecret;
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final AuthProvider authProvider;
+    private final UserClient userClient;
+
+    public Page<ConversationResponse> findMyConversations(int offset, int limit) {
+        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        isUserBanned(user, "You are banned.");
+
+        return conversationRepository.findAllByParticipant(user.getId(), PageRequest.of(offset, limit))
+                .map(conversation -> toResponse(conversation, user.getId()));
+    }
+
+    /**
+     * Returns the users among {@code userIds} the caller has a conversation with, in the order asked for.
+     */
+    public List<Long> findMyPartnersAmong(Collection<Long> userIds) {
+        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        isUserBanned(user, "You are banned.");
+
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> partnerIds = new HashSet<>(conversationRepository.findPartnerIdsAmong(user.getId(), userIds));
+        return userIds.stream().distinct().filter(partnerIds::contains).toList();
+    }
+
+    public long getUnreadCount(long userId, long partnerId) {
+        return conversationRepository.findById(ConversationId.of(userId, partnerId))
+                .map(conversation -> conversation.getUnreadCountFor(userId))
+                .orElse(0L);
+    }
+
+    /**
+     * Inserts new messages and bumps their conversations in the same transaction, so a summary never
+     * points at a message that was rolled back. Messages of one conversation collapse into a single
+     * upsert carrying the newest message and the summed unread increments.
+     */
+    @Transactional
+    public List<Message> appendMessages(List<Message> messages) {
+        List<Message> saved = messageRepository.saveAll(messages);
+
+        Map<ConversationId, List<Message>> byConversation = saved.stream()
+                .collect(Collectors.groupingBy(message -> ConversationId.of(message.getSenderId(), message.getRecipientId())));
+
+        byConversation.forEach((id, conversationMessages) -> {
+            Message latest = conversationMessages.stream()
+                    .max(Comparator.comparing(Message::getCreatedAt).thenComparing(Message::getId))
+                    .orElseThrow();
+            long lowUnread = conversationMessages.stream()
+                    .filter(message -> id.getUserLowId().equals(message.getRecipientId()))
+                    .count();
+
+            conversationRepository.upsert(
+                    id.getUserLowId(), id.getUserHighId(),
+                    latest.getId(), latest.getSenderId(),
+                    preview(latest.getContent()), latest.getCreatedAt(),
+                    lowUnread, conversationMessages.size() - lowUnread
+            );
+        });
+
+        return saved;
+    }
+
+    @Transactional
+    public Message updateMessage(Message message) {
+        Message saved = messageRepository.save(message);
+        ConversationId id = ConversationId.of(saved.getSenderId(), saved.getRecipientId());
+
+        conversationRepository.updatePreview(id.getUserLowId(), id.getUserHighId(), saved.getId(), preview(saved.getContent()));
+        return saved;
+    }
+
+    @Transactional
+    public void markRead(long readerId, long partnerId, long count) {
+        ConversationId id = ConversationId.of(readerId, partnerId);
+        boolean readerIsLow = id.getUserLowId() == readerId;
+
+        conversationRepository.decrementUnread(id.getUserLowId(), id.getUserHighId(),
+                readerIsLow ? count : 0, readerIsLow ? 0 : count);
+    }
+
+    private ConversationResponse toResponse(Conversation conversation, long userId) {
+        return new ConversationResponse(
+                conversation.getPartnerId(userId),
+                conversation.getLastMessageId(),
+                conversation.getLastSenderId(),
+                conversation.getLastMessagePreview(),
+                conversation.getLastActivityAt(),
+                conversation.getUnreadCountFor(userId),
+                conversation.getReadMessageIdOf(conversation.getPartnerId(userId)),
+                conversation.getReadUpToOf(conversation.getPartnerId(userId))
+        );
+    }
+
+    private static String preview(String content) {
+        return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+    }
+}
@@ -0,0 +1,18 @@
+package com.halcyon.chatservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+/**
+ * Hands messages straight to the configured broker. Used with the simple broker on a single node and
+ * with the STOMP broker relay, where the external broker already fans messages out across nodes.
+ */
+@RequiredArgsConstructor
+public class LocalUserMessageRouter implements UserMessageRouter {
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void sendToUser(long userId, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(String.valueOf(userId), destination, payload);
+    }
+}
@@ -0,0 +1,357 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halcyon.chatservice.model.Message;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for messages of archived monthly partitions. Every month becomes one segment file
+ * holding a separate gzip member per direction of a conversation (sender to recipient), newest message
+ * first, plus a small JSON index with the offset, length and row count of each member. A history read
+ * seeks straight to the members of one conversation and skips whole months by their counts, so it never
+ * inflates data of other conversations.
+ * <p>
+ * A segment is written in two steps: {@link #writeSegment} stages it next to the published ones and
+ * {@link #publish} makes it visible once the partition it came from is gone, so a month is never served
+ * from both places. The directory may be shared between nodes; every node notices segments published by
+ * another one from the modification time of the directory.
+ */
+@Slf4j
+@Component
+public class MessageArchive {
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String STAGED_SUFFIX = ".tmp";
+    private static final long MTIME_GRANULARITY_MILLIS = 2000;
+    private static final TypeReference<Map<String, Block>> INDEX_TYPE = new TypeReference<>() {};
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    private final NavigableMap<YearMonth, Map<String, Block>> indexes = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final Map<YearMonth, FileTime> indexVersions = new ConcurrentHashMap<>();
+    private final Lock refreshLock = new ReentrantLock();
+    private volatile FileTime directoryVersion;
+
+    public MessageArchive(@Value("${chat.archive.directory}") Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void loadIndexes() throws IOException {
+        Files.createDirectories(directory);
+        refresh();
+
+        log.info("Loaded {} archived message segments from {}", indexes.size(), directory);
+    }
+
+    /**
+     * Stages the segment of one month without making it visible. {@code rows} must hand over messages
+     * grouped by sender and recipient and ordered newest first within each group. Staging a month again
+     * replaces what was staged before.
+     */
+    public void writeSegment(YearMonth month, Consumer<Consumer<Message>> rows) {
+        Map<String, Block> blocks = new LinkedHashMap<>();
+
+        try (FileChannel channel = FileChannel.open(staged(segmentPath(month)), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BlockWriter writer = new BlockWriter(channel, blocks);
+            rows.accept(writer::append);
+            writer.flush();
+            channel.force(true);
+
+            objectMapper.writeValue(staged(indexPath(month)).toFile(), blocks);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive messages of " + month, e);
+        }
+    }
+
+    /**
+     * Makes the staged segment of a month visible, replacing a published one. Publishing a month that
+     * another node already published is a no-op.
+     */
+    public void publish(YearMonth month) {
+        try {
+            // The index goes last, a segment without one is never read
+            moveIfPresent(staged(segmentPath(month)), segmentPath(month));
+            moveIfPresent(staged(indexPath(month)), indexPath(month));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to publish archived messages of " + month, e);
+        }
+
+        refresh();
+    }
+
+    public void discard(YearMonth month) {
+        try {
+            Files.deleteIfExists(staged(indexPath(month)));
+            Files.deleteIfExists(staged(segmentPath(month)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to discard archived messages of " + month, e);
+        }
+    }
+
+    /**
+     * Months that were staged but neither published nor discarded, e.g. because the node died in between.
+     */
+    public List<YearMonth> findStaged() {
+        List<YearMonth> months = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "messages_*" + INDEX_SUFFIX + STAGED_SUFFIX)) {
+            for (Path file : files) {
+                months.add(monthOf(file, INDEX_SUFFIX + STAGED_SUFFIX));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list staged segments in " + directory, e);
+        }
+
+        return months;
+    }
+
+    public boolean contains(YearMonth month) {
+        refresh();
+        return indexes.containsKey(month);
+    }
+
+    public long count(long senderId, long recipientId) {
+        refresh();
+        String key = key(senderId, recipientId);
+
+        return indexes.values().stream()
+                .map(blocks -> blocks.get(key))
+                .filter(Objects::nonNull)
+                .mapToLong(Block::count)
+                .sum();
+    }
+
+    /**
+     * Reads messages from sender to recipient, newest first, skipping {@code offset} archived messages.
+     */
+    public List<Message> read(long senderId, long recipientId, long offset, int limit) {
+        refresh();
+        String key = key(senderId, recipientId);
+        List<Message> result = new ArrayList<>(limit);
+        long toSkip = offset;
+
+        for (Map.Entry<YearMonth, Map<String, Block>> entry : indexes.entrySet()) {
+            Block block = entry.getValue().get(key);
+            if (block == null) {
+                continue;
+            }
+            if (toSkip >= block.count()) {
+                toSkip -= block.count();
+                continue;
+            }
+
+            List<Message> messages = readBlock(entry.getKey(), block);
+            int from = (int) toSkip;
+            int to = Math.min(messages.size(), from + limit - result.size());
+            result.addAll(messages.subList(from, to));
+            toSkip = 0;
+
+            if (result.size() == limit) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Re-reads the indexes when the directory changed, which a rename of a published file always does.
+     */
+    private void refresh() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(directory);
+            if (modified.equals(directoryVersion)) {
+                return;
+            }
+
+            // Not synchronized: a virtual thread reading files inside a monitor would pin its carrier
+            refreshLock.lock();
+            try {
+                if (!modified.equals(directoryVersion)) {
+                    scan();
+                    // A change within the timestamp granularity of the file system wouldn't move the time again
+                    directoryVersion = modified.toMillis() < System.currentTimeMillis() - MTIME_GRANULARITY_MILLIS ? modified : null;
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived segments in " + directory, e);
+        }
+    }
+
+    private void scan() throws IOException {
+        Set<YearMonth> found = new HashSet<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "messages_*" + INDEX_SUFFIX)) {
+            for (Path file : files) {
+                YearMonth month = monthOf(file, INDEX_SUFFIX);
+                found.add(month);
+
+                FileTime version = Files.getLastModifiedTime(file);
+                if (!version.equals(indexVersions.get(month))) {
+                    indexes.put(month, objectMapper.readValue(file.toFile(), INDEX_TYPE));
+                    indexVersions.put(month, version);
+                }
+            }
+        }
+
+        indexes.keySet().retainAll(found);
+        indexVersions.keySet().retainAll(found);
+    }
+
+    private static void moveIfPresent(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            log.debug("{} was already moved", source);
+        }
+    }
+
+    private static YearMonth monthOf(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        return YearMonth.parse(name.substring("messages_".length(), name.length() - suffix.length()), MONTH_FORMAT);
+    }
+
+    private static Path staged(Path file) {
+        return file.resolveSibling(file.getFileName() + STAGED_SUFFIX);
+    }
+
+    private List<Message> readBlock(YearMonth month, Block block) {
+        ByteBuffer buffer = ByteBuffer.allocate((int) block.length());
+
+        try (FileChannel channel = FileChannel.open(segmentPath(month), StandardOpenOption.READ)) {
+            long position = block.offset();
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("Segment of " + month + " ends inside a block");
+                }
+                position += read;
+            }
+
+            List<Message> messages = new ArrayList<>(block.count());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    messages.add(objectMapper.readValue(line, Message.class));
+                }
+            }
+
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived messages of " + month, e);
+        }
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return directory.resolve("messages_" + month.format(MONTH_FORMAT) + SEGMENT_SUFFIX);
+    }
+
+    private Path indexPath(YearMonth month) {
+        return directory.resolve("messages_" + month.format(MONTH_FORMAT) + INDEX_SUFFIX);
+    }
+
+    private static String key(long senderId, long recipientId) {
+        return senderId + ":" + recipientId;
+    }
+
+    public record Block(long offset, long length, int count) {
+    }
+
+    private final class BlockWriter {
+        private final FileChannel channel;
+        private final Map<String, Block> blocks;
+        private final ByteArrayOutputStream member = new ByteArrayOutputStream();
+
+        private String currentKey;
+        private GZIPOutputStream gzip;
+        private int count;
+
+        private BlockWriter(FileChannel channel, Map<String, Block> blocks) {
+            this.channel = channel;
+            this.blocks = blocks;
+        }
+
+        private void append(Message message) {
+            String key = key(message.getSenderId(), message.getRecipientId());
+
+            try {
+                if (!key.equals(currentKey)) {
+                    flush();
+                    currentKey = key;
+                    gzip = new GZIPOutputStream(member);
+                }
+
+                gzip.write(objectMapper.writeValueAsBytes(message));
+                gzip.write('\n');
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() throws IOException {
+            if (currentKey == null) {
+                return;
+            }
+
+            gzip.finish();
+            long offset = channel.position();
+            ByteBuffer bytes = ByteBuffer.wrap(member.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            blocks.put(currentKey, new Block(offset, member.size(), count));
+
+            member.reset();
+            currentKey = null;
+            count = 0;
+        }
+    }
+}
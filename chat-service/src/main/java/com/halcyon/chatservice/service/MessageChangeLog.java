@@ -0,0 +1,40 @@
+package com.halcyon.chatservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks how far the {@code change_seq} log of messages is settled. A sequence value is handed out before
+ * its transaction commits, so a reader that moved a cursor past the highest visible value could skip a
+ * change committing later. Every node therefore records checkpoints: the highest value handed out so far
+ * and, read after it, the snapshot's {@code xmax}. Changes are assigned a transaction id before their sequence
+ * value, so once the oldest running transaction is at or above that {@code xmax}, every change up to the
+ * checkpoint has either committed or rolled back.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageChangeLog {
+    /**
+     * Subquery for the highest {@code change_seq} no running transaction can still commit below, evaluated
+     * against the snapshot of the statement it is part of.
+     */
+    public static final String SETTLED_CHANGE_SEQ = """
+            (SELECT COALESCE(MAX(change_seq), 0) FROM change_log_checkpoints
+             WHERE xmax <= pg_snapshot_xmin(pg_current_snapshot()))""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${chat.change-log.checkpoint-interval}")
+    public void checkpoint() {
+        // Separate statements on purpose, the snapshot has to be taken after the sequence was read
+        Long handedOut = jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM messages_change_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO change_log_checkpoints (change_seq, xmax) VALUES (?, pg_snapshot_xmax(pg_current_snapshot()))",
+                handedOut);
+
+        // Only the newest settled checkpoint is ever used
+        jdbcTemplate.update("DELETE FROM change_log_checkpoints WHERE change_seq < " + SETTLED_CHANGE_SEQ);
+    }
+}
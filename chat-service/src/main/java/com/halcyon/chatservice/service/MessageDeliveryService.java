@@ -0,0 +1,90 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.repository.MessageRepository;
+import com.halcyon.chatservice.support.AcceptedMessage;
+import com.halcyon.chatservice.support.DeliveryCursor;
+import com.halcyon.chatservice.support.MessageStatus;
+import com.halcyon.chatservice.support.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageDeliveryService {
+    private final MessageRepository messageRepository;
+    private final ConversationService conversationService;
+    private final UserMessageRouter userMessageRouter;
+
+    /**
+     * Flips the given messages of one conversation to {@link MessageStatus#DELIVERED} with a single
+     * UPDATE, takes them off the recipient's unread counter and, if anything changed, pushes the
+     * new delivery cursor to the sender.
+     */
+    @Async("messageDeliveryExecutor")
+    @Transactional
+    public void markDelivered(long senderId, long recipientId, Collection<Long> messageIds) {
+        int updated = messageRepository.updateStatus(senderId, recipientId, messageIds, MessageStatus.DELIVERED);
+        if (updated == 0) {
+            return;
+        }
+
+        conversationService.markRead(recipientId, senderId, updated);
+        log.debug("Marked {} messages from {} to {} as delivered", updated, senderId, recipientId);
+
+        userMessageRouter.sendToUser(
+                senderId, "/queue/deliveries",
+                getCursor(senderId, recipientId)
+        );
+    }
+
+    /**
+     * Finishes sending a message whose commit outlasted its request: the recipient gets the usual notification
+     * and the sender the saved message under its pending id, or no message if saving failed.
+     */
+    @Async("messageDeliveryExecutor")
+    public void notifyAccepted(UUID pendingId, long senderId, String senderName, Message message) {
+        if (message == null) {
+            log.warn("Message {} of user {} accepted after the commit timeout failed to save", pendingId, senderId);
+        } else {
+            userMessageRouter.sendToUser(
+                    message.getRecipientId(), "/queue/messages",
+                    new Notification(message.getId(), senderId, senderName)
+            );
+        }
+
+        userMessageRouter.sendToUser(senderId, "/queue/sent", new AcceptedMessage(pendingId, message));
+    }
+
+    /**
+     * Returns the newest message up to which everything from sender to recipient has been delivered. Messages
+     * are delivered page by page as the recipient fetches them, so a newer page can be delivered while an older
+     * one is still pending; the cursor then stops right before the oldest message still {@link MessageStatus#RECEIVED}.
+     */
+    @Transactional(readOnly = true)
+    public DeliveryCursor getCursor(long senderId, long recipientId) {
+        Optional<Message> oldestPending = messageRepository
+                .findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtAscIdAsc(senderId, recipientId, MessageStatus.RECEIVED);
+
+        Optional<Message> deliveredUpTo = oldestPending.isPresent()
+                ? messageRepository.findByStatusBefore(
+                        senderId, recipientId, MessageStatus.DELIVERED,
+                        oldestPending.get().getCreatedAt(), oldestPending.get().getId(), PageRequest.of(0, 1)
+                ).stream().findFirst()
+                : messageRepository.findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtDescIdDesc(
+                        senderId, recipientId, MessageStatus.DELIVERED);
+
+        return deliveredUpTo
+                .map(message -> new DeliveryCursor(senderId, recipientId, message.getId(), message.getCreatedAt()))
+                .orElseGet(() -> new DeliveryCursor(senderId, recipientId, null, null));
+    }
+}
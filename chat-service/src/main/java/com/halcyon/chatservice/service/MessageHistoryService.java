@@ -0,0 +1,68 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pages through the messages of one direction of a conversation, newest first. The first page comes from
+ * the {@link RecentMessageCache} when it fits in a cached window. Otherwise live partitions are read
+ * first; once a page runs past them the rest comes from the {@link MessageArchive}.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageHistoryService {
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private final MessageRepository messageRepository;
+    private final MessageArchive messageArchive;
+    private final RecentMessageCache recentMessageCache;
+
+    public Page<Message> findMessages(long senderId, long recipientId, int offset, int limit) {
+        if (offset != 0 || limit > recentMessageCache.getCapacity()) {
+            return findStoredMessages(senderId, recipientId, offset, limit);
+        }
+
+        Optional<Page<Message>> cached = recentMessageCache.findFirstPage(senderId, recipientId, limit);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long readToken = recentMessageCache.readToken(senderId, recipientId);
+        Page<Message> window = findStoredMessages(senderId, recipientId, 0, recentMessageCache.getCapacity());
+        recentMessageCache.load(senderId, recipientId, window, readToken);
+
+        List<Message> messages = window.getContent().subList(0, Math.min(limit, window.getNumberOfElements()));
+        return new PageImpl<>(messages, PageRequest.of(0, limit, SORT), window.getTotalElements());
+    }
+
+    private Page<Message> findStoredMessages(long senderId, long recipientId, int offset, int limit) {
+        PageRequest pageable = PageRequest.of(offset, limit, SORT);
+        Page<Message> live = messageRepository.findAllBySenderIdAndRecipientId(senderId, recipientId, pageable);
+
+        long archivedCount = messageArchive.count(senderId, recipientId);
+        if (archivedCount == 0) {
+            return live;
+        }
+
+        long total = live.getTotalElements() + archivedCount;
+        if (live.getNumberOfElements() == limit) {
+            return new PageImpl<>(live.getContent(), pageable, total);
+        }
+
+        long archiveOffset = Math.max(0, pageable.getOffset() - live.getTotalElements());
+        List<Message> messages = new ArrayList<>(live.getContent());
+        messages.addAll(messageArchive.read(senderId, recipientId, archiveOffset, limit - messages.size()));
+
+        return new PageImpl<>(messages, pageable, total);
+    }
+}
@@ -0,0 +1,235 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group-commits new messages. Request threads put messages into a bounded array-backed ring buffer and
+ * wait on a future; a single writer thread drains up to {@code chat.ingestion.batch-size} messages, or
+ * whatever arrived within {@code chat.ingestion.max-delay} of the first one, and inserts them together
+ * with their conversation upserts in one transaction. Futures complete only after that commit, so a
+ * caller never notifies a recipient about a message that isn't durable yet. Messages still buffered
+ * when the writer stops are failed rather than left waiting.
+ */
+@Slf4j
+@Service
+public class MessageIngestionService implements SmartLifecycle {
+    private final ConversationService conversationService;
+    private final RecentMessageCache recentMessageCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration offerTimeout;
+    private final Duration commitTimeout;
+
+    private final BlockingQueue<PendingMessage> buffer;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MessageIngestionService(ConversationService conversationService,
+                                   RecentMessageCache recentMessageCache,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${chat.ingestion.buffer-capacity}") int bufferCapacity,
+                                   @Value("${chat.ingestion.batch-size}") int batchSize,
+                                   @Value("${chat.ingestion.max-delay}") Duration maxDelay,
+                                   @Value("${chat.ingestion.offer-timeout}") Duration offerTimeout,
+                                   @Value("${chat.ingestion.commit-timeout}") Duration commitTimeout) {
+        this.conversationService = conversationService;
+        this.recentMessageCache = recentMessageCache;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.offerTimeout = offerTimeout;
+        this.commitTimeout = commitTimeout;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        Gauge.builder("chat.ingestion.buffered", buffer, BlockingQueue::size)
+                .description("Messages waiting to be committed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("chat.ingestion.batch.size")
+                .description("Messages committed per transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("chat.ingestion.commit")
+                .description("Time to insert and commit one batch")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Message> submit(Message message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+
+        try {
+            if (!running || !buffer.offer(pending, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many messages are being sent, try again later.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while sending the message.");
+        }
+
+        // Stopped while offering: take the message back unless the writer already has it
+        if (!running && buffer.remove(pending)) {
+            throw shuttingDown();
+        }
+
+        return pending.result();
+    }
+
+    /**
+     * Submits the message and waits at most {@code chat.ingestion.commit-timeout} for its commit. A commit that
+     * takes longer still happens, so the returned future is then left running instead of failing the request
+     * and inviting a retry that would save the message twice.
+     */
+    public CompletableFuture<Message> submitAndWait(Message message) {
+        CompletableFuture<Message> result = submit(message);
+
+        try {
+            result.get(commitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.debug("Commit of a message from user {} is taking longer than {}", message.getSenderId(), commitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while sending the message.");
+        }
+
+        return result;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "message-ingestion");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        // The writer notices within one poll interval and commits what is still buffered
+        running = false;
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                buffer.drainTo(batch);
+            }
+
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+
+        // Anything offered after the last drain would otherwise wait forever
+        buffer.drainTo(batch);
+        batch.forEach(pending -> pending.result().completeExceptionally(shuttingDown()));
+    }
+
+    private void collect(List<PendingMessage> batch) throws InterruptedException {
+        PendingMessage first = buffer.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+
+        while (batch.size() < batchSize) {
+            if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            PendingMessage next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingMessage> batch) {
+        List<Message> messages = batch.stream().map(PendingMessage::message).toList();
+
+        List<Message> saved;
+
+        try {
+            saved = commitTimer.record(() -> transactionTemplate.execute(status -> conversationService.appendMessages(messages)));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+
+            // Commit one by one so a single bad message doesn't fail everyone else in the batch
+            log.warn("Batch of {} messages failed, retrying individually", batch.size(), e);
+            // Ids handed out by the rolled back transaction must not be reused
+            messages.forEach(message -> message.setId(null));
+            batch.forEach(pending -> commit(new ArrayList<>(List.of(pending))));
+            return;
+        }
+
+        // Committed from here on, nothing below may send the batch through another insert
+        batchSizes.record(batch.size());
+
+        try {
+            recentMessageCache.append(saved);
+        } catch (RuntimeException e) {
+            log.warn("Failed to add {} committed messages to the recent message cache", saved.size(), e);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(saved.get(i));
+        }
+    }
+
+    private static ResponseStatusException shuttingDown() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The service is shutting down, try again later.");
+    }
+
+    private record PendingMessage(Message message, CompletableFuture<Message> result) {
+    }
+}
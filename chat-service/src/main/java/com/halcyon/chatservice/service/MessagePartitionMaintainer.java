@@ -0,0 +1,259 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code messages} ahead of time and moves partitions older than the
+ * retention horizon into the {@link MessageArchive}. Rows written for a month that had no partition yet,
+ * e.g. by a bulk load of old data, end up in the default partition; they are moved into a partition of
+ * their own first, so retention applies to them as well. Runs on every node, but an advisory lock lets only
+ * one of them do the work at a time. Every partition is archived in its own transaction that detaches it
+ * last, so the exclusive lock on {@code messages} is held only for the detach and drop, and the archived
+ * segment is published only after that transaction committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessagePartitionMaintainer {
+    private static final long ADVISORY_LOCK_KEY = 0x6d657373616765L;
+    private static final String DEFAULT_PARTITION = "messages_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("messages_(\\d{4}_\\d{2})");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int FETCH_SIZE = 1000;
+    // Waiting longer would stall every query on messages queued behind the attach or detach
+    private static final String PARTITION_LOCK_TIMEOUT = "5s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageArchive messageArchive;
+    private final Clock clock = Clock.systemUTC();
+
+    @Value("${chat.partitions.months-ahead}")
+    private int monthsAhead;
+
+    @Value("${chat.partitions.retention-months}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${chat.partitions.maintenance-cron}")
+    public void maintain() {
+        Boolean locked = transactionTemplate.execute(status -> {
+            if (!tryLock()) {
+                log.debug("Partition maintenance is running on another node");
+                return false;
+            }
+
+            createUpcomingPartitions();
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(locked)) {
+            resolveStagedSegments();
+            drainDefaultPartition();
+            archiveExpiredPartitions();
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now(clock);
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            Date firstDay = Date.valueOf(current.plusMonths(i).atDay(1));
+            jdbcTemplate.queryForObject("SELECT create_messages_partition(?)", String.class, firstDay);
+        }
+    }
+
+    /**
+     * Finishes segments a node staged but never published or discarded because it died in between: the
+     * partition still being there means the transaction rolled back.
+     */
+    private void resolveStagedSegments() {
+        for (YearMonth month : messageArchive.findStaged()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!tryLock()) {
+                    return;
+                }
+
+                if (isAttached(partitionName(month))) {
+                    messageArchive.discard(month);
+                } else {
+                    messageArchive.publish(month);
+                }
+            });
+        }
+    }
+
+    private void drainDefaultPartition() {
+        List<Date> months = jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', created_at)::DATE FROM " + DEFAULT_PARTITION + " ORDER BY 1", Date.class);
+
+        for (Date month : months) {
+            drain(YearMonth.from(month.toLocalDate()));
+        }
+    }
+
+    /**
+     * Copies the rows of one month out of the default partition into a new table and attaches it as the
+     * month's partition. Postgres refuses to create a partition whose rows are still in the default one,
+     * so the table is filled before it is attached.
+     */
+    private void drain(YearMonth month) {
+        String partition = partitionName(month);
+        // Dates computed here, safe to inline like the partition name
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                if (!tryLock() || isAttached(partition)) {
+                    return 0;
+                }
+
+                // Writers to months without a partition wait until their rows have one
+                jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE messages INCLUDING DEFAULTS)");
+                int rows = jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM " + DEFAULT_PARTITION
+                        + " WHERE created_at >= '" + from + "' AND created_at < '" + to + "'");
+                jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at >= '" + from + "' AND created_at < '" + to + "'");
+
+                // A matching constraint lets the attach skip scanning the new partition
+                jdbcTemplate.execute("ALTER TABLE " + partition + " ADD CONSTRAINT " + partition + "_range"
+                        + " CHECK (created_at >= '" + from + "' AND created_at < '" + to + "')");
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '" + PARTITION_LOCK_TIMEOUT + "'");
+                jdbcTemplate.execute("ALTER TABLE messages ATTACH PARTITION " + partition + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT " + partition + "_range");
+                return rows;
+            });
+
+            if (moved != null && moved > 0) {
+                log.info("Moved {} messages of {} out of the default partition into {}", moved, month, partition);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to move messages of {} out of the default partition, retrying on the next run", month, e);
+        }
+    }
+
+    private void archiveExpiredPartitions() {
+        YearMonth horizon = YearMonth.now(clock).minusMonths(retentionMonths);
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT child.relname FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = 'messages'
+                ORDER BY child.relname
+                """, String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.parse(matcher.group(1), MONTH_FORMAT);
+            if (month.isBefore(horizon)) {
+                archive(partition, month);
+            }
+        }
+    }
+
+    private void archive(String partition, YearMonth month) {
+        Boolean archived;
+
+        try {
+            archived = transactionTemplate.execute(status -> {
+                // Another node may have archived it since the partitions were listed
+                if (!tryLock() || !isAttached(partition)) {
+                    return false;
+                }
+
+                // Keeps writers out of the month while it is copied, readers of messages go on
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN EXCLUSIVE MODE");
+                stage(partition, month);
+
+                jdbcTemplate.update("DELETE FROM message_search WHERE created_at >= ? AND created_at < ?",
+                        Timestamp.valueOf(month.atDay(1).atStartOfDay()), Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+                // DETACH ... CONCURRENTLY can't be used next to the default partition, so the detach comes last
+                // and holds its ACCESS EXCLUSIVE lock on messages only until the commit
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '" + PARTITION_LOCK_TIMEOUT + "'");
+                jdbcTemplate.execute("ALTER TABLE messages DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                return true;
+            });
+        } catch (RuntimeException e) {
+            messageArchive.discard(month);
+            log.warn("Failed to archive partition {} of messages, retrying on the next run", partition, e);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(archived)) {
+            messageArchive.publish(month);
+            log.info("Archived partition {} of messages", partition);
+        }
+    }
+
+    private void stage(String partition, YearMonth month) {
+        // The partition name comes from the catalog and matched PARTITION_NAME, so it is safe to inline
+        String query = "SELECT id, created_at, content, sender_id, recipient_id, is_changed, status FROM " + partition
+                + " ORDER BY sender_id, recipient_id, created_at DESC, id DESC";
+
+        messageArchive.writeSegment(month, sink -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (ResultSet resultSet) -> {
+            sink.accept(mapRow(resultSet));
+        }));
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY));
+    }
+
+    private boolean isAttached(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = 'messages' AND child.relname = ?)
+                """, Boolean.class, partition));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "messages_" + month.format(MONTH_FORMAT);
+    }
+
+    private static Message mapRow(ResultSet resultSet) throws SQLException {
+        return Message.builder()
+                .id(resultSet.getLong("id"))
+                .createdAt(resultSet.getTimestamp("created_at").toInstant())
+                .content(resultSet.getString("content"))
+                .senderId(resultSet.getLong("sender_id"))
+                .recipientId(resultSet.getLong("recipient_id"))
+                .isChanged(resultSet.getBoolean("is_changed"))
+                .status(MessageStatus.valueOf(resultSet.getString("status")))
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.halcyon.chatservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@code message_search} in step with {@code messages} off the write path. Every insert, edit and
+ * status change bumps a message's {@code change_seq}, so the indexer only remembers the highest one it has
+ * processed and picks up everything after it in batches. It never reads past the settled end of the change
+ * log kept by {@link MessageChangeLog}, so a change whose transaction commits late is not skipped.
+ * Each message gets a row for both participants, so a search only touches the caller's own rows.
+ * One node indexes at a time, guarded by an advisory lock.
+ */
+@Slf4j
+@Service
+public class MessageSearchIndexer {
+    private static final long ADVISORY_LOCK_KEY = 0x7365617263684cL;
+    private static final String INDEX_BATCH = """
+            WITH batch AS (
+                SELECT id, created_at, sender_id, recipient_id, content, change_seq FROM messages
+                WHERE change_seq > ? AND change_seq <= %s
+                ORDER BY change_seq
+                LIMIT ?
+            ), indexed AS (
+                INSERT INTO message_search (user_id, partner_id, message_id, created_at, sender_id, document)
+                SELECT DISTINCT ON (side.user_id, batch.id)
+                       side.user_id, side.partner_id, batch.id, batch.created_at, batch.sender_id,
+                       to_tsvector(?::regconfig, batch.content)
+                FROM batch
+                CROSS JOIN LATERAL (VALUES (batch.sender_id, batch.recipient_id),
+                                           (batch.recipient_id, batch.sender_id)) AS side (user_id, partner_id)
+                ON CONFLICT (user_id, message_id) DO UPDATE SET document = EXCLUDED.document
+                WHERE message_search.document IS DISTINCT FROM EXCLUDED.document
+            )
+            SELECT COALESCE(MAX(change_seq), ?) FROM batch
+            """.formatted(MessageChangeLog.SETTLED_CHANGE_SEQ);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String language;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final AtomicLong lagChanges = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Timer batchTimer;
+
+    public MessageSearchIndexer(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${chat.search.language}") String language,
+                                @Value("${chat.search.batch-size}") int batchSize,
+                                @Value("${chat.search.max-batches-per-run}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.language = language;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        Gauge.builder("chat.search.index.lag.changes", lagChanges, AtomicLong::get)
+                .description("Message changes not yet reflected in the search index")
+                .register(meterRegistry);
+        Gauge.builder("chat.search.index.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest message change not yet reflected in the search index")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("chat.search.index.batch")
+                .description("Time to index one batch of message changes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.search.index-interval}")
+    public void index() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Boolean caughtUp = batchTimer.record(() -> transactionTemplate.execute(status -> indexBatch()));
+            if (!Boolean.FALSE.equals(caughtUp)) {
+                break;
+            }
+        }
+
+        measureLag();
+    }
+
+    /**
+     * Returns whether there is nothing left to index right now, or null if another node holds the lock.
+     */
+    private Boolean indexBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return null;
+        }
+
+        long watermark = currentWatermark();
+        Long indexedUpTo = jdbcTemplate.queryForObject(INDEX_BATCH, Long.class, watermark, batchSize, language, watermark);
+
+        if (indexedUpTo == null || indexedUpTo == watermark) {
+            return true;
+        }
+
+        jdbcTemplate.update("UPDATE search_index_state SET change_seq = ? WHERE id = 1", indexedUpTo);
+        log.debug("Indexed message changes {} to {}", watermark + 1, indexedUpTo);
+        return false;
+    }
+
+    private void measureLag() {
+        long watermark = currentWatermark();
+
+        // last_value of the sequence is cheap to read and a close enough upper bound for a gauge
+        Long lastChange = jdbcTemplate.queryForObject("SELECT last_value FROM messages_change_seq", Long.class);
+        lagChanges.set(Math.max(0, (lastChange == null ? 0 : lastChange) - watermark));
+
+        List<Timestamp> oldest = jdbcTemplate.queryForList(
+                "SELECT changed_at FROM messages WHERE change_seq > ? ORDER BY change_seq LIMIT 1", Timestamp.class, watermark);
+        lagMillis.set(oldest.isEmpty() ? 0 : Math.max(0, System.currentTimeMillis() - oldest.get(0).getTime()));
+    }
+
+    private long currentWatermark() {
+        Long watermark = jdbcTemplate.queryForObject("SELECT change_seq FROM search_index_state WHERE id = 1", Long.class);
+        return watermark == null ? 0 : watermark;
+    }
+}
@@ -0,0 +1,89 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.dto.MessageSearchHit;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static com.halcyon.clients.util.UserUtil.isUserBanned;
+
+/**
+ * Searches the caller's own messages, sent and received, in the index kept by {@link MessageSearchIndexer}.
+ * Messages that were archived with their partition are no longer searchable. The total of a page counts
+ * the hits up to it, plus one if more follow; it is exact only on the last page.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final String SEARCH = """
+            SELECT s.message_id, s.sender_id, s.created_at,
+                   CASE WHEN s.sender_id = s.user_id THEN s.partner_id ELSE s.user_id END AS recipient_id,
+                   ts_headline(CAST(:language AS regconfig),
+                               replace(replace(replace(m.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'),
+                               websearch_to_tsquery(CAST(:language AS regconfig), :query),
+                               'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') AS highlight
+            FROM message_search s
+            JOIN messages m ON m.id = s.message_id AND m.created_at = s.created_at
+            WHERE s.user_id = :userId
+              AND s.document @@ websearch_to_tsquery(CAST(:language AS regconfig), :query)
+              %s
+            ORDER BY s.created_at DESC, s.message_id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+    private static final String PARTNER_CONDITION = "AND s.partner_id = :partnerId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AuthProvider authProvider;
+    private final UserClient userClient;
+
+    @Value("${private.secret}")
+    private String privateSecret;
+
+    @Value("${chat.search.language}")
+    private String language;
+
+    public Page<MessageSearchHit> search(String query, Long partnerId, int offset, int limit) {
+        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        isUserBanned(user, "You are banned.");
+
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must be between 1 and " + MAX_QUERY_LENGTH + " characters.");
+        }
+
+        PageRequest pageable = PageRequest.of(offset, limit);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("userId", user.getId())
+                .addValue("partnerId", partnerId)
+                .addValue("language", language)
+                .addValue("query", query)
+                .addValue("limit", limit + 1)
+                .addValue("offset", pageable.getOffset());
+
+        String sql = SEARCH.formatted(partnerId == null ? "" : PARTNER_CONDITION);
+        List<MessageSearchHit> hits = jdbcTemplate.query(sql, parameters, (resultSet, rowNum) -> new MessageSearchHit(
+                resultSet.getLong("message_id"),
+                resultSet.getLong("sender_id"),
+                resultSet.getLong("recipient_id"),
+                resultSet.getTimestamp("created_at").toInstant(),
+                resultSet.getString("highlight")
+        ));
+
+        // Counting every match would run the search again, so the extra row only tells whether a next page exists
+        boolean hasNext = hits.size() > limit;
+        List<MessageSearchHit> content = hasNext ? hits.subList(0, limit) : hits;
+        return new PageImpl<>(content, pageable, pageable.getOffset() + content.size() + (hasNext ? 1 : 0));
+    }
+}
@@ -6,8 +6,11 @@ import com.halcyon.chatservice.exception.MessageForbiddenException;
 import com.halcyon.chatservice.exception.MessageNotFoundException;
 import com.halcyon.chatservice.model.Message;
 import com.halcyon.chatservice.repository.MessageRepository;
+import com.halcyon.chatservice.support.AcceptedMessage;
+import com.halcyon.chatservice.support.DeliveryCursor;
 import com.halcyon.chatservice.support.MessageStatus;
 import com.halcyon.chatservice.support.Notification;
+import com.halcyon.clients.user.AsyncUserClient;
 import com.halcyon.clients.user.PrivateUserResponse;
 import com.halcyon.clients.user.UserClient;
 import com.halcyon.clients.user.UserResponse;
@@ -15,13 +18,15 @@ import com.halcyon.jwtlibrary.AuthProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.halcyon.clients.util.FutureUtil.join;
 import static com.halcyon.clients.util.UserUtil.isUserBanned;
 import static com.halcyon.clients.util.UserUtil.isUserVerified;
 
@@ -32,35 +37,58 @@ public class MessageService {
     private String privateSecret;
 
     private final MessageRepository messageRepository;
+    private final MessageDeliveryService messageDeliveryService;
+    private final ConversationService conversationService;
+    private final MessageIngestionService messageIngestionService;
+    private final MessageHistoryService messageHistoryService;
+    private final RecentMessageCache recentMessageCache;
     private final AuthProvider authProvider;
     private final UserClient userClient;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final AsyncUserClient asyncUserClient;
+    private final UserMessageRouter userMessageRouter;
 
-    public Message create(CreateMessageDto dto) {
-        PrivateUserResponse sender = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+    /**
+     * Saves the message and notifies the recipient. The returned message is empty if the commit outlasted
+     * {@code chat.ingestion.commit-timeout}; the notifications then go out once it is committed.
+     */
+    public AcceptedMessage create(CreateMessageDto dto) {
+        // Neither lookup needs the other, so both go out at once
+        CompletableFuture<PrivateUserResponse> pendingSender = asyncUserClient.getByEmail(authProvider.getSubject(), privateSecret);
+        CompletableFuture<UserResponse> pendingRecipient = asyncUserClient.getById(dto.getRecipientId());
+
+        PrivateUserResponse sender = join(pendingSender);
 
         if (sender.getId() == dto.getRecipientId()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You can't send a message to yourself.");
         }
 
-        UserResponse recipient = userClient.getById(dto.getRecipientId());
+        UserResponse recipient = join(pendingRecipient);
 
         areCorrectUsers(sender, recipient);
 
-        Message message = save(Message.builder()
+        UUID pendingId = UUID.randomUUID();
+        CompletableFuture<Message> committed = messageIngestionService.submitAndWait(Message.builder()
                 .content(dto.getContent())
                 .senderId(sender.getId())
                 .recipientId(recipient.getId())
                 .status(MessageStatus.RECEIVED)
                 .build());
 
+        if (!committed.isDone()) {
+            committed.whenComplete((message, e) -> messageDeliveryService.notifyAccepted(
+                    pendingId, sender.getId(), sender.getUsername(), e == null ? message : null));
+            return new AcceptedMessage(pendingId, null);
+        }
+
+        Message message = committed.join();
+
         Notification notification = new Notification(message.getId(), sender.getId(), sender.getUsername());
-        messagingTemplate.convertAndSendToUser(
-                String.valueOf(recipient.getId()), "/queue/messages",
+        userMessageRouter.sendToUser(
+                recipient.getId(), "/queue/messages",
                 notification
         );
 
-        return message;
+        return new AcceptedMessage(pendingId, message);
     }
 
     public Message updateContent(UpdateMessageDto dto) {
@@ -74,7 +102,10 @@ public class MessageService {
 
         message.setContent(dto.getContent());
         message.setChanged(true);
-        return save(message);
+        Message updated = conversationService.updateMessage(message);
+
+        recentMessageCache.invalidate(updated.getSenderId(), updated.getRecipientId());
+        return updated;
     }
 
     public Message findById(long messageId) {
@@ -95,35 +126,41 @@ public class MessageService {
         PrivateUserResponse sender = userClient.getByEmail(authProvider.getSubject(), privateSecret);
         isUserBanned(sender, "You are banned.");
 
-        return messageRepository.countBySenderIdAndRecipientIdAndStatus(recipientId, sender.getId(), MessageStatus.RECEIVED);
+        return conversationService.getUnreadCount(sender.getId(), recipientId);
     }
 
     public Page<Message> findSentMeMessages(long recipientId, int offset, int limit) {
         PrivateUserResponse sender = userClient.getByEmail(authProvider.getSubject(), privateSecret);
         isUserBanned(sender, "You are banned.");
 
-        Page<Message> messages = messageRepository.findAllBySenderIdAndRecipientId(recipientId, sender.getId(),
-                PageRequest.of(offset, limit, Sort.by(Sort.Direction.DESC, "createdAt")));
+        Page<Message> messages = messageHistoryService.findMessages(recipientId, sender.getId(), offset, limit);
+
+        List<Long> receivedIds = messages.stream()
+                .filter(message -> message.getStatus() == MessageStatus.RECEIVED)
+                .peek(message -> message.setStatus(MessageStatus.DELIVERED))
+                .map(Message::getId)
+                .toList();
 
-        if (!messages.isEmpty()) {
-            messages.stream()
-                    .peek(message -> message.setStatus(MessageStatus.DELIVERED))
-                    .forEach(this::save);
+        if (!receivedIds.isEmpty()) {
+            messageDeliveryService.markDelivered(recipientId, sender.getId(), receivedIds);
+            recentMessageCache.updateStatus(recipientId, sender.getId(), receivedIds, MessageStatus.DELIVERED);
         }
 
         return messages;
     }
 
-    public Page<Message> findMyMessages(long recipientId, int offset, int limit) {
+    public DeliveryCursor getDeliveryCursor(long recipientId) {
         PrivateUserResponse sender = userClient.getByEmail(authProvider.getSubject(), privateSecret);
         isUserBanned(sender, "You are banned.");
 
-        return messageRepository.findAllBySenderIdAndRecipientId(sender.getId(), recipientId,
-                PageRequest.of(offset, limit, Sort.by(Sort.Direction.DESC, "createdAt")));
+        return messageDeliveryService.getCursor(sender.getId(), recipientId);
     }
 
-    private Message save(Message message) {
-        return messageRepository.save(message);
+    public Page<Message> findMyMessages(long recipientId, int offset, int limit) {
+        PrivateUserResponse sender = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        isUserBanned(sender, "You are banned.");
+
+        return messageHistoryService.findMessages(sender.getId(), recipientId, offset, limit);
     }
 
     private void areCorrectUsers(PrivateUserResponse owner, UserResponse recipient) {
@@ -0,0 +1,81 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.repository.ConversationRepository;
+import com.halcyon.chatservice.support.PresenceEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Tells conversation partners when a user's first session anywhere opens or their last one closes, also when
+ * the node holding it dies. Who is connected where is tracked by {@link RedisUserSessionRegistry}, which decides
+ * every change in Redis so that exactly one node reports it. Broker heart-beats turn half-open connections
+ * into disconnects. Partners who are online themselves get a {@link PresenceEvent} on {@code /queue/presence}.
+ */
+@Slf4j
+@Service
+public class PresenceService {
+    private final RedisUserSessionRegistry sessionRegistry;
+    private final ConversationRepository conversationRepository;
+    private final UserMessageRouter userMessageRouter;
+    private final Executor presenceExecutor;
+    private final int maxNotifiedPartners;
+
+    public PresenceService(RedisUserSessionRegistry sessionRegistry,
+                           ConversationRepository conversationRepository,
+                           UserMessageRouter userMessageRouter,
+                           @Qualifier("presenceExecutor") Executor presenceExecutor,
+                           @Value("${chat.presence.max-notified-partners}") int maxNotifiedPartners) {
+        this.sessionRegistry = sessionRegistry;
+        this.conversationRepository = conversationRepository;
+        this.userMessageRouter = userMessageRouter;
+        this.presenceExecutor = presenceExecutor;
+        this.maxNotifiedPartners = maxNotifiedPartners;
+    }
+
+    public Map<Long, Boolean> findOnline(Collection<Long> userIds) {
+        Map<String, Boolean> online = sessionRegistry.findOnline(userIds.stream().map(String::valueOf).toList());
+
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        userIds.forEach(userId -> result.put(userId, online.getOrDefault(String.valueOf(userId), false)));
+        return result;
+    }
+
+    @EventListener
+    public void onPresenceChange(RedisUserSessionRegistry.PresenceChange change) {
+        try {
+            notifyPartners(Long.parseLong(change.user()), change.online());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring presence change of non-numeric user {}", change.user());
+        }
+    }
+
+    private void notifyPartners(long userId, boolean online) {
+        PresenceEvent event = new PresenceEvent(userId, online, Instant.now());
+
+        presenceExecutor.execute(() -> {
+            List<Long> partnerIds = conversationRepository.findPartnerIds(userId, PageRequest.of(0, maxNotifiedPartners));
+            if (partnerIds.isEmpty()) {
+                return;
+            }
+
+            findOnline(partnerIds).forEach((partnerId, partnerOnline) -> {
+                if (partnerOnline) {
+                    userMessageRouter.sendToUser(partnerId, "/queue/presence", event);
+                }
+            });
+
+            log.debug("User {} went {}", userId, online ? "online" : "offline");
+        });
+    }
+}
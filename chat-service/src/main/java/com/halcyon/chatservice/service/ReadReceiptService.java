@@ -0,0 +1,179 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.support.ReadReceipt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects read receipts in memory and advances the per-conversation read watermark in batches. Receipts
+ * for the same reader and conversation are merged, so a reader scrolling through a conversation costs one
+ * row of the UPDATE per {@code chat.read-receipts.flush-interval} instead of one statement per message. The
+ * furthest position is decided by the database: of the merged messages the newest one the sender really
+ * sent to the reader moves the watermark, and that message's creation time is what the sender is pushed.
+ */
+@Slf4j
+@Service
+public class ReadReceiptService {
+    // Picks the newest matching message of each conversation side, the client has no say in its position.
+    // Both sides of a conversation are folded into one row, UPDATE ... FROM applies only one source row per target.
+    private static final String ADVANCE_WATERMARKS = """
+            WITH receipt AS (
+                SELECT * FROM unnest(:readerIds, :senderIds, :messageIds) AS r (reader_id, sender_id, message_id)
+            ), newest AS (
+                SELECT DISTINCT ON (r.reader_id, r.sender_id) r.reader_id, r.sender_id, m.id, m.created_at
+                FROM receipt r
+                JOIN messages m ON m.id = r.message_id AND m.sender_id = r.sender_id AND m.recipient_id = r.reader_id
+                ORDER BY r.reader_id, r.sender_id, m.created_at DESC, m.id DESC
+            ), side AS (
+                SELECT LEAST(reader_id, sender_id) AS user_low_id, GREATEST(reader_id, sender_id) AS user_high_id,
+                    max(created_at) FILTER (WHERE reader_id < sender_id) AS low_created_at,
+                    max(id) FILTER (WHERE reader_id < sender_id) AS low_message_id,
+                    max(created_at) FILTER (WHERE reader_id > sender_id) AS high_created_at,
+                    max(id) FILTER (WHERE reader_id > sender_id) AS high_message_id
+                FROM newest
+                GROUP BY 1, 2
+            ), updated AS (
+                UPDATE conversations c SET
+                    low_read_up_to = CASE WHEN c.low_read_up_to IS NULL OR c.low_read_up_to < s.low_created_at
+                        THEN coalesce(s.low_created_at, c.low_read_up_to) ELSE c.low_read_up_to END,
+                    low_read_message_id = CASE WHEN c.low_read_up_to IS NULL OR c.low_read_up_to < s.low_created_at
+                        THEN coalesce(s.low_message_id, c.low_read_message_id) ELSE c.low_read_message_id END,
+                    high_read_up_to = CASE WHEN c.high_read_up_to IS NULL OR c.high_read_up_to < s.high_created_at
+                        THEN coalesce(s.high_created_at, c.high_read_up_to) ELSE c.high_read_up_to END,
+                    high_read_message_id = CASE WHEN c.high_read_up_to IS NULL OR c.high_read_up_to < s.high_created_at
+                        THEN coalesce(s.high_message_id, c.high_read_message_id) ELSE c.high_read_message_id END
+                FROM side s
+                WHERE c.user_low_id = s.user_low_id AND c.user_high_id = s.user_high_id
+                RETURNING c.user_low_id, c.user_high_id
+            )
+            SELECT n.reader_id, n.sender_id, n.id, n.created_at
+            FROM newest n
+            JOIN updated u ON u.user_low_id = LEAST(n.reader_id, n.sender_id) AND u.user_high_id = GREATEST(n.reader_id, n.sender_id)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserMessageRouter userMessageRouter;
+    private final Map<ReaderKey, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final Counter received;
+    private final Counter written;
+
+    public ReadReceiptService(NamedParameterJdbcTemplate jdbcTemplate,
+                              UserMessageRouter userMessageRouter,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userMessageRouter = userMessageRouter;
+        this.received = Counter.builder("chat.read-receipts.received")
+                .description("Read receipts sent by clients")
+                .register(meterRegistry);
+        this.written = Counter.builder("chat.read-receipts.written")
+                .description("Watermark updates written after merging receipts")
+                .register(meterRegistry);
+
+        Gauge.builder("chat.read-receipts.pending", pending, Map::size)
+                .description("Conversations with a read position waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void markRead(long readerId, long senderId, long messageId) {
+        if (readerId == senderId) {
+            return;
+        }
+
+        // Message ids aren't ordered by creation time across nodes, so every candidate is kept until the flush
+        pending.compute(new ReaderKey(readerId, senderId), (key, messageIds) -> {
+            Set<Long> merged = messageIds != null ? messageIds : new HashSet<>();
+            merged.add(messageId);
+            return merged;
+        });
+        received.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.read-receipts.flush-interval}")
+    public void flush() {
+        Map<ReaderKey, Set<Long>> batch = new HashMap<>();
+        for (ReaderKey key : pending.keySet()) {
+            Set<Long> messageIds = pending.remove(key);
+            if (messageIds != null) {
+                batch.put(key, messageIds);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<ReadReceipt> receipts;
+
+        try {
+            receipts = jdbcTemplate.query(ADVANCE_WATERMARKS, toParameters(batch), (rs, rowNum) -> new ReadReceipt(
+                    rs.getLong("reader_id"),
+                    rs.getLong("sender_id"),
+                    rs.getLong("id"),
+                    rs.getTimestamp("created_at").toInstant()
+            ));
+        } catch (RuntimeException e) {
+            // Put the candidates back next to any that arrived meanwhile, the next flush retries them
+            batch.forEach((key, failed) -> pending.merge(key, failed, (current, ignored) -> {
+                Set<Long> merged = new HashSet<>(current);
+                merged.addAll(failed);
+                return merged;
+            }));
+            log.warn("Failed to write {} read watermarks", batch.size(), e);
+            return;
+        }
+
+        if (receipts.size() < batch.size()) {
+            log.debug("Dropping {} read receipts for messages not sent to their reader", batch.size() - receipts.size());
+        }
+
+        for (ReadReceipt receipt : receipts) {
+            written.increment();
+            userMessageRouter.sendToUser(receipt.getSenderId(), "/queue/receipts", receipt);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static SqlParameterSource toParameters(Map<ReaderKey, Set<Long>> batch) {
+        List<Long> readerIds = new ArrayList<>();
+        List<Long> senderIds = new ArrayList<>();
+        List<Long> messageIds = new ArrayList<>();
+
+        batch.forEach((key, candidates) -> candidates.forEach(messageId -> {
+            readerIds.add(key.readerId());
+            senderIds.add(key.senderId());
+            messageIds.add(messageId);
+        }));
+
+        return new MapSqlParameterSource()
+                .addValue("readerIds", new SqlArrayValue("bigint", readerIds.toArray()))
+                .addValue("senderIds", new SqlArrayValue("bigint", senderIds.toArray()))
+                .addValue("messageIds", new SqlArrayValue("bigint", messageIds.toArray()));
+    }
+
+    /**
+     * Each side of a conversation has its own watermark, so the key keeps the direction.
+     */
+    private record ReaderKey(long readerId, long senderId) {
+    }
+}
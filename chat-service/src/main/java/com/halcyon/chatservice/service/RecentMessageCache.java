@@ -0,0 +1,255 @@
+package com.halcyon.chatservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the newest {@code chat.recent-messages.capacity} messages of each conversation direction in memory,
+ * so the first page of history doesn't go to Postgres. A window is loaded on the first read, extended by
+ * every committed message and dropped when a message in it is edited. Windows are weighed by their
+ * estimated size on the heap and the whole cache is capped at {@code chat.recent-messages.maximum-size}.
+ * When several nodes run, each change is also published on Redis and the other nodes drop their window.
+ */
+@Slf4j
+@Service
+public class RecentMessageCache implements MessageListener {
+    public static final String INVALIDATION_CHANNEL = "chat:recent-messages:invalidations";
+
+    private static final String MESSAGE_SEPARATOR = "\n";
+    private static final int WINDOW_OVERHEAD_BYTES = 64;
+    private static final int MESSAGE_OVERHEAD_BYTES = 120;
+    // Versions are striped by key so memory stays fixed; a collision only skips caching one load
+    private static final int VERSION_STRIPES = 4096;
+    private static final Comparator<Message> NEWEST_FIRST = Comparator
+            .comparing(Message::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Message::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final boolean distributed;
+    private final int capacity;
+    private final Cache<String, Window> cache;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public RecentMessageCache(StringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.broker.mode}") String brokerMode,
+                              @Value("${chat.recent-messages.capacity}") int capacity,
+                              @Value("${chat.recent-messages.maximum-size}") DataSize maximumSize,
+                              @Value("${chat.recent-messages.time-to-live}") Duration timeToLive) {
+        this.redisTemplate = redisTemplate;
+        this.distributed = !"simple".equals(brokerMode);
+        this.capacity = capacity;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, Window window) -> window.bytes())
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.recent-messages");
+        Gauge.builder("chat.recent-messages.bytes", cache, RecentMessageCache::weightedSize)
+                .description("Estimated heap used by cached conversation windows")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the first page of messages from sender to recipient if the cached window can serve it.
+     * Messages are copies, so callers may change them freely.
+     */
+    public Optional<Page<Message>> findFirstPage(long senderId, long recipientId, int limit) {
+        Window window = cache.getIfPresent(key(senderId, recipientId));
+        if (window == null || (limit > window.messages().size() && window.messages().size() < window.total())) {
+            return Optional.empty();
+        }
+
+        List<Message> messages = window.messages().stream()
+                .limit(limit)
+                .map(RecentMessageCache::copy)
+                .toList();
+
+        return Optional.of(new PageImpl<>(messages, PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt")), window.total()));
+    }
+
+    /**
+     * Returns a token to pass to {@link #load} before reading the window from the database, so a window
+     * read before a concurrent change of the same conversation direction is not cached.
+     */
+    public long readToken(long senderId, long recipientId) {
+        return versions.get(stripe(key(senderId, recipientId)));
+    }
+
+    public void load(long senderId, long recipientId, Page<Message> firstPage, long readToken) {
+        String key = key(senderId, recipientId);
+        Window loaded = Window.of(firstPage.getContent().stream()
+                .limit(capacity)
+                .map(RecentMessageCache::copy)
+                .toList(), firstPage.getTotalElements());
+
+        // Checked under the key's lock: a change bumps the version before it touches the window
+        cache.asMap().compute(key, (ignored, window) -> versions.get(stripe(key)) == readToken ? loaded : window);
+    }
+
+    /**
+     * Adds freshly committed messages to the windows of their conversations.
+     */
+    public void append(List<Message> messages) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Message message : messages) {
+            String key = key(message.getSenderId(), message.getRecipientId());
+            keys.add(key);
+            versions.incrementAndGet(stripe(key));
+            cache.asMap().computeIfPresent(key, (ignored, window) -> window.prepend(copy(message), capacity));
+        }
+
+        publish(keys);
+    }
+
+    /**
+     * Updates the status of messages in a cached window, e.g. after they were delivered.
+     */
+    public void updateStatus(long senderId, long recipientId, Collection<Long> messageIds, MessageStatus status) {
+        String key = key(senderId, recipientId);
+        versions.incrementAndGet(stripe(key));
+        cache.asMap().computeIfPresent(key, (ignored, window) -> window.withStatus(messageIds, status));
+        publish(List.of(key));
+    }
+
+    public void invalidate(long senderId, long recipientId) {
+        String key = key(senderId, recipientId);
+
+        invalidateLocally(List.of(key));
+        publish(List.of(key));
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(MESSAGE_SEPARATOR);
+
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        invalidateLocally(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    private void invalidateLocally(Collection<String> keys) {
+        keys.forEach(key -> versions.incrementAndGet(stripe(key)));
+        cache.invalidateAll(keys);
+    }
+
+    private void publish(Collection<String> keys) {
+        if (!distributed || keys.isEmpty()) {
+            return;
+        }
+
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + MESSAGE_SEPARATOR + String.join(MESSAGE_SEPARATOR, keys));
+        } catch (RuntimeException e) {
+            // Other nodes keep a stale window until chat.recent-messages.time-to-live expires it
+            log.warn("Failed to publish recent message invalidation for {}", keys, e);
+        }
+    }
+
+    private static long weightedSize(Cache<String, Window> cache) {
+        // Caffeine updates the weight asynchronously, so writes since the last maintenance are settled first
+        cache.cleanUp();
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+
+    private static String key(long senderId, long recipientId) {
+        return senderId + ":" + recipientId;
+    }
+
+    private static Message copy(Message message) {
+        return Message.builder()
+                .id(message.getId())
+                .createdAt(message.getCreatedAt())
+                .content(message.getContent())
+                .senderId(message.getSenderId())
+                .recipientId(message.getRecipientId())
+                .isChanged(message.isChanged())
+                .status(message.getStatus())
+                .build();
+    }
+
+    private static int weigh(Message message) {
+        String content = message.getContent();
+        return MESSAGE_OVERHEAD_BYTES + (content == null ? 0 : content.length() * 2);
+    }
+
+    private record Window(List<Message> messages, long total, int bytes) {
+        static Window of(List<Message> messages, long total) {
+            return new Window(List.copyOf(messages), total, WINDOW_OVERHEAD_BYTES + messages.stream().mapToInt(RecentMessageCache::weigh).sum());
+        }
+
+        Window prepend(Message message, int capacity) {
+            if (messages.stream().anyMatch(cached -> cached.getId().equals(message.getId()))) {
+                return this;
+            }
+
+            List<Message> updated = new ArrayList<>(messages.size() + 1);
+            updated.add(message);
+            updated.addAll(messages);
+            updated.sort(NEWEST_FIRST);
+
+            return of(updated.subList(0, Math.min(updated.size(), capacity)), total + 1);
+        }
+
+        Window withStatus(Collection<Long> messageIds, MessageStatus status) {
+            List<Message> updated = messages.stream()
+                    .map(message -> {
+                        if (!messageIds.contains(message.getId())) {
+                            return message;
+                        }
+
+                        Message changed = copy(message);
+                        changed.setStatus(status);
+                        return changed;
+                    })
+                    .toList();
+
+            return new Window(updated, total, bytes);
+        }
+    }
+}
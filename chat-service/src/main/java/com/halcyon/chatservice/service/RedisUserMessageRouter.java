@@ -0,0 +1,67 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halcyon.chatservice.support.RoutedMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Delivers to local sessions through the in-memory broker and forwards the payload over Redis pub/sub
+ * to every other node that {@link RedisUserSessionRegistry} lists for the user. Each node only
+ * subscribes to its own channel, so a message is published once per node that actually needs it.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisUserMessageRouter implements UserMessageRouter, MessageListener {
+    private static final String CHANNEL_PREFIX = "chat:node:";
+
+    private final RedisUserSessionRegistry sessionRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public static String channelOf(String nodeId) {
+        return CHANNEL_PREFIX + nodeId;
+    }
+
+    @Override
+    public void sendToUser(long userId, String destination, Object payload) {
+        String user = String.valueOf(userId);
+
+        if (sessionRegistry.hasLocalSessions(user)) {
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+        }
+
+        Set<String> remoteNodes = sessionRegistry.findRemoteNodes(user);
+        if (remoteNodes.isEmpty()) {
+            return;
+        }
+
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(new RoutedMessage(user, destination, objectMapper.valueToTree(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize message for user " + user, e);
+        }
+
+        remoteNodes.forEach(node -> redisTemplate.convertAndSend(channelOf(node), body));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RoutedMessage routed = objectMapper.readValue(message.getBody(), RoutedMessage.class);
+            messagingTemplate.convertAndSendToUser(routed.getUser(), routed.getDestination(), routed.getPayload());
+        } catch (IOException e) {
+            log.warn("Dropping malformed routed message on {}", new String(message.getChannel()), e);
+        }
+    }
+}
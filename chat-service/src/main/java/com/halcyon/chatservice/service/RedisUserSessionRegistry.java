@@ -0,0 +1,310 @@
+package com.halcyon.chatservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks which chat-service nodes hold STOMP sessions for a user. Every node keeps its own sessions in
+ * memory and adds its node id to a Redis sorted set per user, scored with the time of its last heartbeat.
+ * A member older than {@code sessionTtl} belongs to a node that stopped refreshing it, most likely one that
+ * died without disconnecting its sessions: it is ignored on lookup and pruned on the next write, even while
+ * other nodes keep the user's key alive. The key itself expires once no node refreshes it anymore.
+ * <p>
+ * Adding and removing a node and checking whether it was the user's first or last one happen in one script,
+ * so exactly one node sees every change and publishes a {@link PresenceChange}. Nodes also heartbeat into a
+ * shared set and list their users; the first surviving node to notice a stale node removes it from its users'
+ * sets and publishes the offline changes the dead node never could.
+ */
+@Slf4j
+public class RedisUserSessionRegistry {
+    private static final String KEY_PREFIX = "chat:user-nodes:";
+    // The hash tag keeps a node's user list in the same cluster slot as the heartbeat set, the sweep touches both
+    private static final String NODES_KEY = "{chat:nodes}";
+
+    private static final RedisScript<Long> REGISTER_SCRIPT = RedisScript.of("""
+            redis.call('zremrangebyscore', KEYS[1], '-inf', ARGV[3])
+            local before = redis.call('zcard', KEYS[1])
+            redis.call('zadd', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('pexpire', KEYS[1], ARGV[4])
+            if before == 0 then return 1 end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> UNREGISTER_SCRIPT = RedisScript.of("""
+            if redis.call('zrem', KEYS[1], ARGV[1]) == 0 then return 0 end
+            redis.call('zremrangebyscore', KEYS[1], '-inf', ARGV[2])
+            if redis.call('zcard', KEYS[1]) == 0 then return 1 end
+            return 0
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = RedisScript.of("""
+            local heartbeat = redis.call('zscore', KEYS[1], ARGV[1])
+            if not heartbeat or tonumber(heartbeat) >= tonumber(ARGV[2]) then return {} end
+            redis.call('zrem', KEYS[1], ARGV[1])
+            local users = redis.call('smembers', KEYS[2])
+            redis.call('del', KEYS[2])
+            return users
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    @Getter
+    private final String nodeId;
+    private final Duration sessionTtl;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    private final Map<String, Set<String>> localSessions = new ConcurrentHashMap<>();
+
+    public RedisUserSessionRegistry(StringRedisTemplate redisTemplate, String nodeId, Duration sessionTtl,
+                                    ApplicationEventPublisher eventPublisher) {
+        this(redisTemplate, nodeId, sessionTtl, eventPublisher, Clock.systemUTC());
+    }
+
+    RedisUserSessionRegistry(StringRedisTemplate redisTemplate, String nodeId, Duration sessionTtl,
+                             ApplicationEventPublisher eventPublisher, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+        this.sessionTtl = sessionTtl;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+    }
+
+    /**
+     * Published on the node that saw a user's first session anywhere open or their last one close.
+     */
+    public record PresenceChange(String user, boolean online) {
+    }
+
+    public void register(String user, String sessionId) {
+        localSessions.computeIfAbsent(user, key -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        publish(List.of(user));
+    }
+
+    public void unregister(String user, String sessionId) {
+        Set<String> remaining = localSessions.computeIfPresent(user, (key, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+
+        if (remaining == null) {
+            remove(nodeId, List.of(user));
+        }
+    }
+
+    public boolean hasLocalSessions(String user) {
+        return localSessions.containsKey(user);
+    }
+
+    public Set<String> findRemoteNodes(String user) {
+        Set<String> nodes = redisTemplate.opsForZSet()
+                .rangeByScore(KEY_PREFIX + user, clock.millis() - sessionTtl.toMillis(), Double.POSITIVE_INFINITY);
+        if (nodes == null) {
+            return Set.of();
+        }
+
+        return nodes.stream()
+                .filter(node -> !node.equals(nodeId))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Answers "which of these users are online" with one Redis round trip for the users that are not
+     * connected to this node.
+     */
+    public Map<String, Boolean> findOnline(Collection<String> users) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        List<String> remoteUsers = new ArrayList<>();
+
+        for (String user : users) {
+            boolean local = hasLocalSessions(user);
+            result.put(user, local);
+
+            if (!local) {
+                remoteUsers.add(user);
+            }
+        }
+
+        if (remoteUsers.isEmpty()) {
+            return result;
+        }
+
+        long liveSince = clock.millis() - sessionTtl.toMillis();
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            remoteUsers.forEach(user -> stringConnection.zCount(KEY_PREFIX + user, liveSince, Double.POSITIVE_INFINITY));
+            return null;
+        });
+
+        Iterator<Object> iterator = replies.iterator();
+        for (String user : remoteUsers) {
+            result.put(user, iterator.next() instanceof Long count && count > 0);
+        }
+
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.broker.heartbeat-interval}")
+    public void refresh() {
+        publish(List.copyOf(localSessions.keySet()));
+        sweep();
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String user = getUser(event);
+        if (user != null) {
+            register(user, SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String user = getUser(event);
+        if (user != null) {
+            unregister(user, event.getSessionId());
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        // Sessions of this node are about to be dropped. Marking the node stale hides its users right away
+        // and lets the next sweep on a surviving node tell their partners instead of waiting for the TTL
+        List<String> users = List.copyOf(localSessions.keySet());
+        localSessions.clear();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            users.forEach(user -> stringConnection.zAdd(KEY_PREFIX + user, 0, nodeId, ZAddArgs.empty().ifExists()));
+            stringConnection.zAdd(NODES_KEY, 0, nodeId);
+            return null;
+        });
+    }
+
+    private void publish(List<String> users) {
+        long now = clock.millis();
+        String nodeUsersKey = nodeUsersKey(nodeId);
+        String[] args = {nodeId, String.valueOf(now), staleBefore(now), String.valueOf(sessionTtl.toMillis())};
+
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            // Listed before being added: a user listed but missing from its set is harmless to the sweep
+            stringConnection.zAdd(NODES_KEY, now, nodeId);
+            if (!users.isEmpty()) {
+                stringConnection.sAdd(nodeUsersKey, users.toArray(String[]::new));
+                stringConnection.pExpire(nodeUsersKey, sessionTtl.multipliedBy(2).toMillis());
+            }
+
+            for (String user : users) {
+                stringConnection.eval(REGISTER_SCRIPT.getScriptAsString(), ReturnType.INTEGER, 1,
+                        keyAndArgs(KEY_PREFIX + user, args));
+            }
+            return null;
+        });
+
+        publishChanges(users, replies.subList(replies.size() - users.size(), replies.size()), true);
+    }
+
+    private void sweep() {
+        long liveSince = clock.millis() - sessionTtl.toMillis();
+        Set<String> staleNodes = redisTemplate.opsForZSet().rangeByScore(NODES_KEY, Double.NEGATIVE_INFINITY, liveSince - 1);
+        if (staleNodes == null) {
+            return;
+        }
+
+        for (String staleNode : staleNodes) {
+            if (staleNode.equals(nodeId)) {
+                continue;
+            }
+
+            // Only one node gets the user list back, the others find the node already claimed
+            List<?> users = redisTemplate.execute(CLAIM_SCRIPT, List.of(NODES_KEY, nodeUsersKey(staleNode)),
+                    staleNode, String.valueOf(liveSince));
+            if (users == null || users.isEmpty()) {
+                continue;
+            }
+
+            log.info("Node {} stopped heartbeating, removing it from {} users", staleNode, users.size());
+            remove(staleNode, users.stream().map(String::valueOf).toList());
+        }
+    }
+
+    private void remove(String node, List<String> users) {
+        String nodeUsersKey = nodeUsersKey(node);
+        String[] args = {node, staleBefore(clock.millis())};
+
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String user : users) {
+                stringConnection.eval(UNREGISTER_SCRIPT.getScriptAsString(), ReturnType.INTEGER, 1,
+                        keyAndArgs(KEY_PREFIX + user, args));
+            }
+
+            if (node.equals(nodeId)) {
+                stringConnection.sRem(nodeUsersKey, users.toArray(String[]::new));
+            }
+            return null;
+        });
+
+        publishChanges(users, replies.subList(0, users.size()), false);
+    }
+
+    private void publishChanges(List<String> users, List<Object> replies, boolean online) {
+        for (int i = 0; i < users.size(); i++) {
+            if (Long.valueOf(1).equals(replies.get(i))) {
+                eventPublisher.publishEvent(new PresenceChange(users.get(i), online));
+            }
+        }
+    }
+
+    private String staleBefore(long now) {
+        return "(" + (now - sessionTtl.toMillis());
+    }
+
+    private static String nodeUsersKey(String node) {
+        return NODES_KEY + ":" + node + ":users";
+    }
+
+    private static String[] keyAndArgs(String key, String[] args) {
+        String[] keyAndArgs = new String[args.length + 1];
+        keyAndArgs[0] = key;
+        System.arraycopy(args, 0, keyAndArgs, 1, args.length);
+        return keyAndArgs;
+    }
+
+    private static String getUser(AbstractSubProtocolEvent event) {
+        Principal principal = event.getUser() != null
+                ? event.getUser()
+                : StompHeaderAccessor.wrap(event.getMessage()).getUser();
+
+        return principal != null ? principal.getName() : null;
+    }
+}
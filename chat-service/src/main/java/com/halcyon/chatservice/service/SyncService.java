@@ -0,0 +1,172 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+import com.halcyon.chatservice.support.SyncEntry;
+import com.halcyon.chatservice.support.SyncMode;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.halcyon.clients.util.UserUtil.isUserBanned;
+
+/**
+ * Streams everything a device missed across all conversations as newline-delimited JSON. Every insert,
+ * edit and status change gives a message a new {@code change_seq}, so a device only needs the highest
+ * one it has applied. Only changes up to {@link MessageChangeLog#SETTLED_CHANGE_SEQ} are streamed, so a
+ * cursor never moves past a change whose transaction may still commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+    private static final String CHANGES = """
+            SELECT id, created_at, content, sender_id, recipient_id, is_changed, status, change_seq FROM (
+                (SELECT * FROM messages
+                 WHERE recipient_id = ? AND change_seq > ? AND created_at >= ? AND change_seq <= %1$s
+                 ORDER BY change_seq LIMIT ?)
+                UNION ALL
+                (SELECT * FROM messages
+                 WHERE sender_id = ? AND recipient_id <> ? AND change_seq > ? AND created_at >= ? AND change_seq <= %1$s
+                 ORDER BY change_seq LIMIT ?)
+            ) changes
+            ORDER BY change_seq
+            LIMIT ?
+            """.formatted(MessageChangeLog.SETTLED_CHANGE_SEQ);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuthProvider authProvider;
+    private final UserClient userClient;
+
+    @Value("${private.secret}")
+    private String privateSecret;
+
+    @Value("${chat.sync.batch-size}")
+    private int batchSize;
+
+    @Value("${chat.sync.max-entries}")
+    private int maxEntries;
+
+    @Value("${chat.sync.full-window}")
+    private Duration fullWindow;
+
+    /**
+     * Resolves the caller and cursor on the request thread and returns the body that streams the changes.
+     * A delta falls back to a full sync when the device is unknown or its cursor is older than the window a
+     * full sync covers.
+     */
+    public StreamingResponseBody sync(String deviceId, SyncMode requestedMode) {
+        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        isUserBanned(user, "You are banned.");
+
+        Instant windowStart = Instant.now().minus(fullWindow);
+        List<DeviceCursor> cursors = jdbcTemplate.query(
+                "SELECT change_seq, updated_at FROM sync_cursors WHERE user_id = ? AND device_id = ?",
+                (resultSet, rowNum) -> new DeviceCursor(resultSet.getLong("change_seq"), resultSet.getTimestamp("updated_at").toInstant()),
+                user.getId(), deviceId);
+
+        boolean full = requestedMode == SyncMode.FULL
+                || cursors.isEmpty()
+                || cursors.get(0).updatedAt().isBefore(windowStart);
+
+        long userId = user.getId();
+        long after = full ? 0 : cursors.get(0).changeSeq();
+        Instant createdSince = full ? windowStart : Instant.EPOCH;
+
+        return outputStream -> {
+            if (full) {
+                write(outputStream, SyncEntry.reset());
+            }
+
+            long cursor = after;
+            int written = 0;
+            boolean hasMore = true;
+
+            while (hasMore && written < maxEntries) {
+                int limit = Math.min(batchSize, maxEntries - written);
+                List<Change> changes = findChanges(userId, cursor, createdSince, limit);
+
+                for (Change change : changes) {
+                    write(outputStream, SyncEntry.message(change.message(), change.changeSeq()));
+                    cursor = change.changeSeq();
+                }
+
+                written += changes.size();
+                hasMore = changes.size() == limit;
+                outputStream.flush();
+            }
+
+            write(outputStream, SyncEntry.cursor(cursor, hasMore));
+            log.debug("Streamed {} changes to device {} of user {}", written, deviceId, userId);
+        };
+    }
+
+    /**
+     * Moves the device's cursor forward after it applied a sync. Cursors never move back, so a late
+     * acknowledgement of an older sync is harmless.
+     */
+    public void acknowledge(String deviceId, long cursor) {
+        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        isUserBanned(user, "You are banned.");
+
+        jdbcTemplate.update("""
+                INSERT INTO sync_cursors AS s (user_id, device_id, change_seq, updated_at)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (user_id, device_id) DO UPDATE SET
+                    change_seq = GREATEST(s.change_seq, EXCLUDED.change_seq),
+                    updated_at = EXCLUDED.updated_at
+                """, user.getId(), deviceId, cursor, Timestamp.from(Instant.now()));
+    }
+
+    private List<Change> findChanges(long userId, long after, Instant createdSince, int limit) {
+        Timestamp since = Timestamp.from(createdSince);
+
+        return jdbcTemplate.query(CHANGES, (resultSet, rowNum) -> mapRow(resultSet),
+                userId, after, since, limit,
+                userId, userId, after, since, limit,
+                limit);
+    }
+
+    private void write(OutputStream outputStream, SyncEntry entry) throws IOException {
+        outputStream.write(objectMapper.writeValueAsBytes(entry));
+        outputStream.write('\n');
+    }
+
+    private static Change mapRow(ResultSet resultSet) throws SQLException {
+        Message message = Message.builder()
+                .id(resultSet.getLong("id"))
+                .createdAt(resultSet.getTimestamp("created_at").toInstant())
+                .content(resultSet.getString("content"))
+                .senderId(resultSet.getLong("sender_id"))
+                .recipientId(resultSet.getLong("recipient_id"))
+                .isChanged(resultSet.getBoolean("is_changed"))
+                .status(MessageStatus.valueOf(resultSet.getString("status")))
+                .build();
+
+        return new Change(message, resultSet.getLong("change_seq"));
+    }
+
+    private record DeviceCursor(long changeSeq, Instant updatedAt) {
+    }
+
+    private record Change(Message message, long changeSeq) {
+    }
+}
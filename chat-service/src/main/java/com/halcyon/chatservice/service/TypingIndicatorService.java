@@ -0,0 +1,55 @@
+package com.halcyon.chatservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.halcyon.chatservice.support.TypingEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Forwards typing indicators to the other side of a conversation without storing them. Clients send one
+ * on every keystroke, so at most one "typing" frame per conversation direction is forwarded within
+ * {@code chat.typing.min-interval}; the rest are dropped. "Stopped typing" always goes through and
+ * reopens the window.
+ */
+@Service
+public class TypingIndicatorService {
+    private final UserMessageRouter userMessageRouter;
+    private final Cache<String, Instant> lastForwarded;
+
+    public TypingIndicatorService(UserMessageRouter userMessageRouter,
+                                  @Value("${chat.typing.min-interval}") Duration minInterval,
+                                  @Value("${chat.typing.maximum-size}") long maximumSize) {
+        this.userMessageRouter = userMessageRouter;
+        this.lastForwarded = Caffeine.newBuilder()
+                .expireAfterWrite(minInterval)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Returns whether the indicator was forwarded.
+     */
+    public boolean send(long senderId, long recipientId, boolean typing) {
+        if (senderId == recipientId) {
+            return false;
+        }
+
+        String key = senderId + ":" + recipientId;
+        Instant now = Instant.now();
+
+        if (typing) {
+            if (lastForwarded.asMap().putIfAbsent(key, now) != null) {
+                return false;
+            }
+        } else {
+            lastForwarded.invalidate(key);
+        }
+
+        userMessageRouter.sendToUser(recipientId, "/queue/typing", new TypingEvent(senderId, typing, now));
+        return true;
+    }
+}
@@ -0,0 +1,8 @@
+package com.halcyon.chatservice.service;
+
+/**
+ * Delivers a payload to every STOMP session of a user, wherever in the cluster that session is connected.
+ */
+public interface UserMessageRouter {
+    void sendToUser(long userId, String destination, Object payload);
+}
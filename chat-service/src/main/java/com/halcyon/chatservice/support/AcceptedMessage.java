@@ -0,0 +1,22 @@
+package com.halcyon.chatservice.support;
+
+import com.halcyon.chatservice.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * A message whose commit outlasted the request that sent it. The sender is answered with the pending id
+ * only and pushed the saved message under the same id once committed, or no message if saving failed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcceptedMessage {
+    private UUID pendingId;
+    private Message message;
+}
@@ -0,0 +1,19 @@
+package com.halcyon.chatservice.support;
+
+public enum BackpressurePolicy {
+    /**
+     * Skip the oldest queued frames of the session so only the newest ones are sent.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Skip queued frames superseded by a newer frame to the same destination that was queued while the
+     * session was over the limit.
+     */
+    COALESCE,
+
+    /**
+     * Close the session; the client reconnects and resynchronises.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,19 @@
+package com.halcyon.chatservice.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadReceipt {
+    private Long readerId;
+    private Long senderId;
+    private Long messageId;
+    private Instant readUpTo;
+}
@@ -0,0 +1,17 @@
+package com.halcyon.chatservice.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutedMessage {
+    private String user;
+    private String destination;
+    private JsonNode payload;
+}
@@ -0,0 +1,23 @@
+package com.halcyon.chatservice.support;
+
+import com.halcyon.jwtlibrary.JwtAuthentication;
+import lombok.Getter;
+
+/**
+ * Authentication attached to a STOMP session on CONNECT. It keeps the email for {@code AuthProvider}
+ * but is named after the user id, which is what {@code convertAndSendToUser} resolves sessions by.
+ */
+@Getter
+public class StompAuthentication extends JwtAuthentication {
+    private final long userId;
+
+    public StompAuthentication(long userId, String email) {
+        super(true, email);
+        this.userId = userId;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.halcyon.chatservice.support;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.halcyon.chatservice.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One line of a sync stream: a {@code reset} marker opening a full sync, a changed {@code message} or the
+ * closing {@code cursor}, which the device acknowledges once it has applied everything before it.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncEntry {
+    public static final String RESET = "reset";
+    public static final String MESSAGE = "message";
+    public static final String CURSOR = "cursor";
+
+    private String type;
+    private Message message;
+    private Long cursor;
+    private Boolean hasMore;
+
+    public static SyncEntry reset() {
+        return new SyncEntry(RESET, null, null, null);
+    }
+
+    public static SyncEntry message(Message message, long cursor) {
+        return new SyncEntry(MESSAGE, message, cursor, null);
+    }
+
+    public static SyncEntry cursor(long cursor, boolean hasMore) {
+        return new SyncEntry(CURSOR, null, cursor, hasMore);
+    }
+}
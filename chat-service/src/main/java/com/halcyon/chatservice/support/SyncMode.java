@@ -0,0 +1,13 @@
+package com.halcyon.chatservice.support;
+
+public enum SyncMode {
+    /**
+     * Only what changed since the device's cursor.
+     */
+    DELTA,
+
+    /**
+     * Everything within the full-sync window, after telling the device to drop what it has.
+     */
+    FULL
+}
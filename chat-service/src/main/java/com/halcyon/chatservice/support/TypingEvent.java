@@ -0,0 +1,18 @@
+package com.halcyon.chatservice.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingEvent {
+    private Long senderId;
+    private boolean typing;
+    private Instant at;
+}
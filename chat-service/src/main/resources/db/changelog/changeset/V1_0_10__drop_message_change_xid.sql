@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+--changeset Halcyon:V1.0.10 splitStatements:false
+-- =========================================
+-- Description: Drop the unread change_xid column, changes only need a transaction id assigned
+-- Author: Halcyon
+-- Version: V1.0.10
+-- =========================================
+
+CREATE OR REPLACE FUNCTION touch_message_change() RETURNS TRIGGER AS $$
+BEGIN
+    -- Assign the transaction id before the sequence, so whoever holds a change_seq is already listed in every later snapshot
+    PERFORM pg_current_xact_id();
+    NEW.change_seq := nextval('messages_change_seq');
+    NEW.changed_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE messages DROP COLUMN IF EXISTS change_xid;
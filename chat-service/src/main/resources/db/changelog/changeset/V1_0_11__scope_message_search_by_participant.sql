@@ -0,0 +1,30 @@
+--liquibase formatted sql
+
+--changeset Halcyon:V1.0.11 splitStatements:false
+-- =========================================
+-- Description: One search row per participant, so a search only walks the caller's own entries of the GIN index
+-- Author: Halcyon
+-- Version: V1.0.11
+-- =========================================
+
+-- Lets the GIN index lead with plain bigint columns
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+DROP TABLE IF EXISTS message_search;
+
+CREATE TABLE message_search (
+    user_id BIGINT NOT NULL,
+    partner_id BIGINT NOT NULL,
+    message_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    sender_id BIGINT NOT NULL,
+    document TSVECTOR NOT NULL,
+    PRIMARY KEY (user_id, message_id)
+);
+
+-- A multicolumn GIN index serves any subset of its columns, so this covers searches with and without a partner
+CREATE INDEX IF NOT EXISTS idx_message_search_user_document ON message_search USING GIN (user_id, partner_id, document);
+CREATE INDEX IF NOT EXISTS idx_message_search_created_at ON message_search (created_at);
+
+-- The rows are rebuilt from the change log
+UPDATE search_index_state SET change_seq = 0 WHERE id = 1;
@@ -0,0 +1,8 @@
+-- =========================================
+-- Description: Allocate ids in blocks of 50 for Hibernate's pooled sequence optimizer
+-- Author: Halcyon
+-- Version: V1.0.2
+-- =========================================
+
+ALTER SEQUENCE messages_id_seq INCREMENT BY 50;
+SELECT setval('messages_id_seq', COALESCE((SELECT MAX(id) FROM messages), 0) + 50, false);
\ No newline at end of file
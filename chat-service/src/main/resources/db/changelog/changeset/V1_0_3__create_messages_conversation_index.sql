@@ -0,0 +1,8 @@
+-- =========================================
+-- Description: Index messages by conversation for paging, unread counts and delivery cursors
+-- Author: Halcyon
+-- Version: V1.0.3
+-- =========================================
+
+CREATE INDEX IF NOT EXISTS idx_messages_conversation ON messages (sender_id, recipient_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_messages_conversation_status ON messages (sender_id, recipient_id, status, created_at DESC);
\ No newline at end of file
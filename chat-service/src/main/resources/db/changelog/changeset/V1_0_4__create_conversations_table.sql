@@ -0,0 +1,42 @@
+-- =========================================
+-- Description: Create the conversations summary table and backfill it from messages
+-- Author: Halcyon
+-- Version: V1.0.4
+-- =========================================
+
+CREATE TABLE IF NOT EXISTS conversations (
+    user_low_id BIGINT NOT NULL,
+    user_high_id BIGINT NOT NULL,
+    last_message_id BIGINT NOT NULL,
+    last_sender_id BIGINT NOT NULL,
+    last_message_preview VARCHAR(100) NOT NULL,
+    last_activity_at TIMESTAMP NOT NULL,
+    low_unread_count BIGINT NOT NULL DEFAULT 0,
+    high_unread_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_low_id, user_high_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_conversations_low_activity ON conversations (user_low_id, last_activity_at DESC);
+CREATE INDEX IF NOT EXISTS idx_conversations_high_activity ON conversations (user_high_id, last_activity_at DESC);
+
+INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_sender_id,
+                           last_message_preview, last_activity_at, low_unread_count, high_unread_count)
+SELECT last.user_low_id, last.user_high_id, last.id, last.sender_id,
+       LEFT(last.content, 100), last.created_at, counts.low_unread_count, counts.high_unread_count
+FROM (
+    SELECT DISTINCT ON (LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id))
+           LEAST(sender_id, recipient_id) AS user_low_id,
+           GREATEST(sender_id, recipient_id) AS user_high_id,
+           id, sender_id, content, created_at
+    FROM messages
+    ORDER BY LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id), created_at DESC, id DESC
+) last
+JOIN (
+    SELECT LEAST(sender_id, recipient_id) AS user_low_id,
+           GREATEST(sender_id, recipient_id) AS user_high_id,
+           COUNT(*) FILTER (WHERE status = 'RECEIVED' AND recipient_id < sender_id) AS low_unread_count,
+           COUNT(*) FILTER (WHERE status = 'RECEIVED' AND recipient_id > sender_id) AS high_unread_count
+    FROM messages
+    GROUP BY LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id)
+) counts USING (user_low_id, user_high_id)
+ON CONFLICT (user_low_id, user_high_id) DO NOTHING;
\ No newline at end of file
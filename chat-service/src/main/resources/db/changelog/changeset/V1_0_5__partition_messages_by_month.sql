@@ -0,0 +1,57 @@
+--liquibase formatted sql
+
+--changeset Halcyon:V1.0.5 splitStatements:false
+-- =========================================
+-- Description: Range-partition messages by month of created_at
+-- Author: Halcyon
+-- Version: V1.0.5
+-- =========================================
+
+ALTER SEQUENCE messages_id_seq OWNED BY NONE;
+ALTER TABLE messages RENAME TO messages_legacy;
+ALTER TABLE messages_legacy RENAME CONSTRAINT messages_pkey TO messages_legacy_pkey;
+
+CREATE TABLE messages (
+    id BIGINT NOT NULL DEFAULT nextval('messages_id_seq'),
+    created_at TIMESTAMP NOT NULL,
+    content VARCHAR(1000) NOT NULL,
+    sender_id BIGINT NOT NULL,
+    recipient_id BIGINT NOT NULL,
+    is_changed BOOLEAN NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside every monthly partition; the maintainer keeps partitions created ahead so it stays empty
+CREATE TABLE messages_default PARTITION OF messages DEFAULT;
+
+CREATE OR REPLACE FUNCTION create_messages_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := format('messages_%s', to_char(first_day, 'YYYY_MM'));
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF messages FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day, (first_day + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM messages_legacy), now()))::DATE;
+BEGIN
+    WHILE partition_month <= date_trunc('month', now() + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_messages_partition(partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO messages (id, created_at, content, sender_id, recipient_id, is_changed, status)
+SELECT id, created_at, content, sender_id, recipient_id, is_changed, status FROM messages_legacy;
+
+DROP TABLE messages_legacy;
+ALTER SEQUENCE messages_id_seq OWNED BY messages.id;
+
+CREATE INDEX IF NOT EXISTS idx_messages_conversation ON messages (sender_id, recipient_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_messages_conversation_status ON messages (sender_id, recipient_id, status, created_at DESC);
\ No newline at end of file
@@ -0,0 +1,10 @@
+-- =========================================
+-- Description: Add per-participant read watermarks to conversations
+-- Author: Halcyon
+-- Version: V1.0.6
+-- =========================================
+
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS low_read_message_id BIGINT;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS low_read_up_to TIMESTAMP;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS high_read_message_id BIGINT;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS high_read_up_to TIMESTAMP;
\ No newline at end of file
@@ -0,0 +1,53 @@
+--liquibase formatted sql
+
+--changeset Halcyon:V1.0.7 splitStatements:false
+-- =========================================
+-- Description: Number every change to a message and keep per-device sync cursors
+-- Author: Halcyon
+-- Version: V1.0.7
+-- =========================================
+
+CREATE SEQUENCE IF NOT EXISTS messages_change_seq;
+
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS changed_at TIMESTAMP;
+
+UPDATE messages m SET change_seq = numbered.seq, changed_at = m.created_at
+FROM (
+    SELECT id, created_at, nextval('messages_change_seq') AS seq
+    FROM (SELECT id, created_at FROM messages ORDER BY created_at, id) ordered
+) numbered
+WHERE m.id = numbered.id AND m.created_at = numbered.created_at;
+
+ALTER TABLE messages ALTER COLUMN change_seq SET DEFAULT nextval('messages_change_seq');
+ALTER TABLE messages ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE messages ALTER COLUMN changed_at SET DEFAULT clock_timestamp();
+ALTER TABLE messages ALTER COLUMN changed_at SET NOT NULL;
+
+-- Edits and status changes move the row to the end of the change log as well
+CREATE OR REPLACE FUNCTION touch_message_change() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq := nextval('messages_change_seq');
+    NEW.changed_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_messages_change
+    BEFORE UPDATE OF content, is_changed, status ON messages
+    FOR EACH ROW
+    WHEN (OLD.content IS DISTINCT FROM NEW.content
+        OR OLD.is_changed IS DISTINCT FROM NEW.is_changed
+        OR OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION touch_message_change();
+
+CREATE INDEX IF NOT EXISTS idx_messages_recipient_change ON messages (recipient_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_messages_sender_change ON messages (sender_id, change_seq);
+
+CREATE TABLE IF NOT EXISTS sync_cursors (
+    user_id BIGINT NOT NULL,
+    device_id VARCHAR(64) NOT NULL,
+    change_seq BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, device_id)
+);
\ No newline at end of file
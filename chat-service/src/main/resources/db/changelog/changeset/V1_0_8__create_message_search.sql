@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset Halcyon:V1.0.8 splitStatements:false
+-- =========================================
+-- Description: Full-text search documents for messages, filled asynchronously by change_seq
+-- Author: Halcyon
+-- Version: V1.0.8
+-- =========================================
+
+CREATE TABLE IF NOT EXISTS message_search (
+    message_id BIGINT PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL,
+    sender_id BIGINT NOT NULL,
+    recipient_id BIGINT NOT NULL,
+    document TSVECTOR NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_message_search_document ON message_search USING GIN (document);
+CREATE INDEX IF NOT EXISTS idx_message_search_sender ON message_search (sender_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_message_search_recipient ON message_search (recipient_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_message_search_created_at ON message_search (created_at);
+
+-- Lets the indexer walk the change log without knowing the participants
+CREATE INDEX IF NOT EXISTS idx_messages_change_seq ON messages (change_seq);
+
+CREATE TABLE IF NOT EXISTS search_index_state (
+    id SMALLINT PRIMARY KEY,
+    change_seq BIGINT NOT NULL
+);
+
+INSERT INTO search_index_state (id, change_seq) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
\ No newline at end of file
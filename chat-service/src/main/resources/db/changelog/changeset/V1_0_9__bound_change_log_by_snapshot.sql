@@ -0,0 +1,41 @@
+--liquibase formatted sql
+
+--changeset Halcyon:V1.0.9 splitStatements:false
+-- =========================================
+-- Description: Stamp message changes with their transaction id and checkpoint how far change_seq is settled
+-- Author: Halcyon
+-- Version: V1.0.9
+-- =========================================
+
+-- Rows written before this change were committed long ago, any id below every running one will do
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS change_xid XID8 NOT NULL DEFAULT '0';
+ALTER TABLE messages ALTER COLUMN change_xid DROP DEFAULT;
+
+-- Inserts are numbered by the trigger as well, the column default took the value before the transaction had an id
+ALTER TABLE messages ALTER COLUMN change_seq DROP DEFAULT;
+
+CREATE OR REPLACE FUNCTION touch_message_change() RETURNS TRIGGER AS $$
+BEGIN
+    -- The transaction id comes first, so whoever holds a change_seq is already listed in every later snapshot
+    NEW.change_xid := pg_current_xact_id();
+    NEW.change_seq := nextval('messages_change_seq');
+    NEW.changed_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_messages_insert_change
+    BEFORE INSERT ON messages
+    FOR EACH ROW
+    EXECUTE FUNCTION touch_message_change();
+
+-- Every change_seq up to change_seq is committed or rolled back once no transaction below xmax is running
+CREATE TABLE IF NOT EXISTS change_log_checkpoints (
+    change_seq BIGINT NOT NULL,
+    xmax XID8 NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_change_log_checkpoints_change_seq ON change_log_checkpoints (change_seq);
+
+INSERT INTO change_log_checkpoints (change_seq, xmax)
+SELECT COALESCE(MAX(change_seq), 0), pg_snapshot_xmax(pg_current_snapshot()) FROM messages;
@@ -0,0 +1,106 @@
+package com.halcyon.chatservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.halcyon.chatservice.support.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BinaryFrameInterceptorTests {
+    private static final String JSON = "{\"messageId\":7,\"senderId\":1,\"senderName\":\"sender\"}";
+
+    private final BinaryFrameInterceptor interceptor = new BinaryFrameInterceptor();
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void preSend_nativeSessionThatOptedIn_getsSmileBinaryFrames() throws Exception {
+        interceptor.preSend(connect("session-1", true, "smile"), channel);
+
+        Message<?> encoded = interceptor.preSend(outbound("session-1"), channel);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(encoded);
+        assertThat(accessor.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        assertThat(accessor.getFirstNativeHeader(BinaryFrameInterceptor.PAYLOAD_FORMAT_HEADER)).isEqualTo("smile");
+
+        JsonNode decoded = SmileMessageConverter.createSmileMapper().readTree((byte[]) encoded.getPayload());
+        assertThat(decoded.get("messageId").asLong()).isEqualTo(7L);
+        assertThat(decoded.get("senderName").asText()).isEqualTo("sender");
+    }
+
+    @Test
+    void preSend_sockJsSession_staysOnJson() throws Exception {
+        interceptor.preSend(connect("session-2", false, "smile"), channel);
+
+        Message<?> message = outbound("session-2");
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    @Test
+    void preSend_nativeSessionWithoutOptIn_staysOnJson() throws Exception {
+        interceptor.preSend(connect("session-3", true, null), channel);
+
+        Message<?> message = outbound("session-3");
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    @Test
+    void smileMessageConverter_readsSmilePayloads() throws Exception {
+        byte[] smile = SmileMessageConverter.createSmileMapper().writeValueAsBytes(new Notification(7L, 1L, "sender"));
+        MessageConverter converter = new SmileMessageConverter();
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(SmileMessageConverter.SMILE);
+        Message<byte[]> message = MessageBuilder.createMessage(smile, accessor.getMessageHeaders());
+
+        Notification notification = (Notification) converter.fromMessage(message, Notification.class);
+
+        assertThat(notification.getMessageId()).isEqualTo(7L);
+        assertThat(notification.getSenderName()).isEqualTo("sender");
+    }
+
+    private Message<?> connect(String sessionId, boolean nativeTransport, String payloadFormat) throws Exception {
+        Map<String, Object> attributes = new HashMap<>();
+        if (nativeTransport) {
+            interceptor.nativeTransportHandshakeInterceptor().beforeHandshake(
+                    mock(ServerHttpRequest.class), mock(ServerHttpResponse.class), mock(WebSocketHandler.class), attributes);
+        }
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(attributes);
+        if (payloadFormat != null) {
+            accessor.addNativeHeader(BinaryFrameInterceptor.PAYLOAD_FORMAT_HEADER, payloadFormat);
+        }
+        accessor.setLeaveMutable(true);
+
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<?> outbound(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/queue/messages-user" + sessionId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+        return MessageBuilder.createMessage(JSON.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,151 @@
+package com.halcyon.chatservice.config;
+
+import com.halcyon.chatservice.support.BackpressurePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundBackpressureInterceptorTests {
+    private static final String SESSION_ID = "session-1";
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final MessageHandler handler = mock(MessageHandler.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void dropOldest_keepsNewestFramesOfSlowSession() throws Exception {
+        OutboundBackpressureInterceptor interceptor = create(BackpressurePolicy.DROP_OLDEST, 3);
+        connect(interceptor);
+
+        List<Message<?>> queued = enqueue(interceptor, "/queue/typing", 5);
+        List<Message<?>> handled = drain(interceptor, queued);
+
+        assertThat(handled).extracting(message -> (Object) message.getPayload()).containsExactly("2", "3", "4");
+        assertThat(meterRegistry.get("chat.websocket.outbound.dropped").counter().count()).isEqualTo(2);
+        assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+        assertThat(meterRegistry.get("chat.websocket.outbound.queued").gauge().value()).isZero();
+    }
+
+    @Test
+    void coalesce_skipsSupersededFramesPerDestination() throws Exception {
+        OutboundBackpressureInterceptor interceptor = create(BackpressurePolicy.COALESCE, 2);
+        connect(interceptor);
+
+        List<Message<?>> queued = new ArrayList<>();
+        queued.addAll(enqueue(interceptor, "/queue/typing", 3));
+        queued.addAll(enqueue(interceptor, "/queue/deliveries", 1));
+        List<Message<?>> handled = drain(interceptor, queued);
+
+        assertThat(handled).extracting(message -> SimpMessageHeaderAccessor.getDestination(message.getHeaders()))
+                .containsExactly("/queue/typing", "/queue/deliveries");
+        assertThat(meterRegistry.get("chat.websocket.outbound.dropped").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void dropOldest_neverSkipsChatMessages() throws Exception {
+        OutboundBackpressureInterceptor interceptor = create(BackpressurePolicy.DROP_OLDEST, 2);
+        connect(interceptor);
+
+        List<Message<?>> queued = new ArrayList<>();
+        queued.addAll(enqueue(interceptor, "/queue/typing", 2));
+        queued.addAll(enqueue(interceptor, "/queue/messages-user" + SESSION_ID, 3));
+        List<Message<?>> handled = drain(interceptor, queued);
+
+        assertThat(handled).extracting(message -> SimpMessageHeaderAccessor.getDestination(message.getHeaders()))
+                .containsOnly("/queue/messages-user" + SESSION_ID)
+                .hasSize(3);
+        assertThat(meterRegistry.get("chat.websocket.outbound.dropped").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void disconnect_closesSessionOverLimit() throws Exception {
+        OutboundBackpressureInterceptor interceptor = create(BackpressurePolicy.DISCONNECT, 2);
+        WebSocketSession session = connect(interceptor);
+
+        List<Message<?>> queued = enqueue(interceptor, "/queue/messages", 3);
+
+        assertThat(queued).hasSize(2);
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(meterRegistry.get("chat.websocket.sessions.disconnected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void controlFrames_areNeverCounted() throws Exception {
+        OutboundBackpressureInterceptor interceptor = create(BackpressurePolicy.DROP_OLDEST, 1);
+        connect(interceptor);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(SESSION_ID);
+        Message<?> connectAck = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertThat(interceptor.preSend(connectAck, channel)).isSameAs(connectAck);
+        assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+    }
+
+    private OutboundBackpressureInterceptor create(BackpressurePolicy policy, int maxQueuedMessages) {
+        ChatWebSocketProperties properties = new ChatWebSocketProperties();
+        properties.getBackpressure().setPolicy(policy);
+        properties.getBackpressure().setMaxQueuedMessages(maxQueuedMessages);
+
+        return new OutboundBackpressureInterceptor(properties, meterRegistry);
+    }
+
+    private static WebSocketSession connect(OutboundBackpressureInterceptor interceptor) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+        when(session.isOpen()).thenReturn(true);
+
+        interceptor.sessionTrackingDecoratorFactory()
+                .decorate(mock(WebSocketHandler.class))
+                .afterConnectionEstablished(session);
+
+        return session;
+    }
+
+    private List<Message<?>> enqueue(OutboundBackpressureInterceptor interceptor, String destination, int count) {
+        List<Message<?>> queued = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(SESSION_ID);
+            accessor.setDestination(destination);
+
+            Message<?> sent = interceptor.preSend(MessageBuilder.createMessage(String.valueOf(i), accessor.getMessageHeaders()), channel);
+            if (sent != null) {
+                queued.add(sent);
+            }
+        }
+
+        return queued;
+    }
+
+    private List<Message<?>> drain(OutboundBackpressureInterceptor interceptor, List<Message<?>> queued) {
+        List<Message<?>> handled = new ArrayList<>();
+
+        for (Message<?> message : queued) {
+            Message<?> toHandle = interceptor.beforeHandle(message, channel, handler);
+            if (toHandle != null) {
+                handled.add(toHandle);
+                interceptor.afterMessageHandled(toHandle, channel, handler, null);
+            }
+        }
+
+        return handled;
+    }
+}
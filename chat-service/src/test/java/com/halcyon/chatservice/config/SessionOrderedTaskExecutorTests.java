@@ -0,0 +1,114 @@
+package com.halcyon.chatservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SessionOrderedTaskExecutorTests {
+    private static final int SESSIONS = 8;
+    private static final int FRAMES = 500;
+
+    // Few lanes and a tiny queue, so sessions share lanes and senders have to wait for room
+    private final SessionOrderedTaskExecutor executor = new SessionOrderedTaskExecutor("outbound-", 3, 6);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void execute_sendsFramesOfEachSessionInOrder() throws Exception {
+        Map<String, List<Long>> sent = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(SESSIONS * FRAMES);
+
+        CompletableFuture.allOf(IntStream.range(0, SESSIONS)
+                .mapToObj(session -> CompletableFuture.runAsync(() -> {
+                    for (long frame = 0; frame < FRAMES; frame++) {
+                        executor.execute(task("session-" + session, frame, sent, done));
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).hasSize(SESSIONS);
+        sent.values().forEach(frames -> assertThat(frames).containsExactlyElementsOf(LongStream.range(0, FRAMES).boxed().toList()));
+    }
+
+    @Test
+    void execute_fullLane_neverRunsOnSendingThread() throws Exception {
+        Map<String, List<Long>> sent = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(FRAMES);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        for (long frame = 0; frame < FRAMES; frame++) {
+            MessageHandlingRunnable task = task("session-0", frame, sent, done);
+            executor.execute(new MessageHandlingRunnable() {
+                @Override
+                public Message<?> getMessage() {
+                    return task.getMessage();
+                }
+
+                @Override
+                public MessageHandler getMessageHandler() {
+                    return task.getMessageHandler();
+                }
+
+                @Override
+                public void run() {
+                    threads.add(Thread.currentThread());
+                    task.run();
+                }
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).doesNotContain(Thread.currentThread());
+        assertThat(sent.get("session-0")).containsExactlyElementsOf(LongStream.range(0, FRAMES).boxed().toList());
+    }
+
+    private static MessageHandlingRunnable task(String sessionId, long frame, Map<String, List<Long>> sent, CountDownLatch done) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        Message<?> message = MessageBuilder.createMessage(frame, accessor.getMessageHeaders());
+        MessageHandler handler = mock(MessageHandler.class);
+
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return handler;
+            }
+
+            @Override
+            public void run() {
+                // Uneven send times, so a frame handed to a free thread would overtake a slow one
+                LockSupport.parkNanos(frame % 7 * 1000);
+                sent.computeIfAbsent(sessionId, key -> new CopyOnWriteArrayList<>()).add(frame);
+                done.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.halcyon.chatservice.config;
+
+import com.halcyon.chatservice.support.StompAuthentication;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.JwtProvider;
+import com.halcyon.jwtlibrary.TokenRevocationService;
+import com.halcyon.jwtlibrary.TokenVerificationException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StompAuthChannelInterceptorTests {
+    @Mock
+    private JwtProvider jwtProvider;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private UserClient userClient;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    @Test
+    void preSend_connectWithValidToken_setsUserIdPrincipal() {
+        Claims claims = Jwts.claims().subject("user@gmail.com").build();
+        PrivateUserResponse user = PrivateUserResponse.builder().id(42).email("user@gmail.com").build();
+
+        when(jwtProvider.parseAccessToken("token")).thenReturn(Optional.of(claims));
+        when(userClient.getByEmail(eq("user@gmail.com"), any())).thenReturn(user);
+
+        Message<?> message = connect("Bearer token");
+        interceptor.preSend(message, mock(MessageChannel.class));
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        assertThat(accessor.getUser()).isInstanceOf(StompAuthentication.class);
+        assertThat(accessor.getUser().getName()).isEqualTo("42");
+        assertThat(((StompAuthentication) accessor.getUser()).getEmail()).isEqualTo("user@gmail.com");
+    }
+
+    @Test
+    void preSend_connectWithRevokedToken_throws() {
+        Claims claims = Jwts.claims().subject("user@gmail.com").build();
+
+        when(jwtProvider.parseAccessToken("token")).thenReturn(Optional.of(claims));
+        when(tokenRevocationService.isRevoked("token")).thenReturn(true);
+
+        Message<?> message = connect("Bearer token");
+        MessageChannel channel = mock(MessageChannel.class);
+
+        assertThrows(TokenVerificationException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    @Test
+    void preSend_connectWithoutToken_throws() {
+        Message<?> message = connect(null);
+        MessageChannel channel = mock(MessageChannel.class);
+
+        assertThrows(TokenVerificationException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    private static Message<?> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,125 @@
+package com.halcyon.chatservice.repository;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares inserting messages one round trip per row, which is what IDENTITY ids forced on Hibernate, with
+ * batched inserts using pooled sequence ids. Rows/sec for both are logged; the assertion only checks that
+ * inserts are batched, so the test does not depend on the speed of the machine.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessageInsertBenchmarkTests {
+    private static final int ROWS = 20_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.4");
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE messages");
+    }
+
+    @Test
+    void insertThroughput() {
+        long rowByRowStartedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                jdbcTemplate.queryForObject(
+                        "INSERT INTO messages (created_at, content, sender_id, recipient_id, is_changed, status) " +
+                                "VALUES (?, ?, ?, ?, false, ?) RETURNING id",
+                        Long.class, Timestamp.from(Instant.now()), "message " + i, 1L, 2L, MessageStatus.DELIVERED.name());
+            }
+        });
+        double rowByRow = rowsPerSecond(rowByRowStartedAt);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long batchedStartedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> messageRepository.saveAll(messages()));
+        double batched = rowsPerSecond(batchedStartedAt);
+
+        log.info("Inserted {} messages: {} rows/sec row by row, {} rows/sec batched with pooled ids",
+                ROWS, Math.round(rowByRow), Math.round(batched));
+
+        assertThat(messageRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+    }
+
+    private static List<Message> messages() {
+        List<Message> messages = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            messages.add(Message.builder()
+                    .content("message " + i)
+                    .senderId(1L)
+                    .recipientId(2L)
+                    .status(MessageStatus.DELIVERED)
+                    .build());
+        }
+
+        return messages;
+    }
+
+    private static double rowsPerSecond(long startedAt) {
+        return ROWS / ((System.nanoTime() - startedAt) / 1_000_000_000.0);
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Message.class)
+    @EnableJpaRepositories(basePackageClasses = MessageRepository.class)
+    static class BenchmarkConfig {
+    }
+}
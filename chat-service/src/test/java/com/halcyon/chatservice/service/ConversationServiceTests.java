@@ -0,0 +1,114 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Conversation;
+import com.halcyon.chatservice.model.ConversationId;
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.repository.ConversationRepository;
+import com.halcyon.chatservice.repository.MessageRepository;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationServiceTests {
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private AuthProvider authProvider;
+
+    @Mock
+    private UserClient userClient;
+
+    @InjectMocks
+    private ConversationService conversationService;
+
+    @Test
+    void appendMessages_upsertsEachConversationOnceWithSummedCounters() {
+        Instant now = Instant.now();
+        Message first = message(10L, 7L, 3L, "x".repeat(150), now.minusSeconds(2));
+        Message reply = message(11L, 3L, 7L, "reply", now.minusSeconds(1));
+        Message latest = message(12L, 7L, 3L, "latest", now);
+        Message other = message(13L, 5L, 9L, "other", now);
+        List<Message> messages = List.of(first, reply, latest, other);
+
+        when(messageRepository.saveAll(messages)).thenReturn(messages);
+
+        List<Message> result = conversationService.appendMessages(messages);
+
+        assertThat(result).isSameAs(messages);
+        verify(conversationRepository).upsert(3L, 7L, 12L, 7L, "latest", now, 2, 1);
+        verify(conversationRepository).upsert(5L, 9L, 13L, 5L, "other", now, 0, 1);
+        verifyNoMoreInteractions(conversationRepository);
+    }
+
+    @Test
+    void findMyPartnersAmong_keepsOnlyConversationPartnersInRequestedOrder() {
+        when(authProvider.getSubject()).thenReturn("user@mail.com");
+        when(userClient.getByEmail(eq("user@mail.com"), any())).thenReturn(PrivateUserResponse.builder().id(1L).build());
+        when(conversationRepository.findPartnerIdsAmong(1L, List.of(5L, 2L, 9L, 2L))).thenReturn(List.of(2L, 5L));
+
+        assertThat(conversationService.findMyPartnersAmong(List.of(5L, 2L, 9L, 2L))).containsExactly(5L, 2L);
+    }
+
+    @Test
+    void appendMessages_truncatesPreview() {
+        Instant now = Instant.now();
+        Message message = message(10L, 7L, 3L, "x".repeat(150), now);
+
+        when(messageRepository.saveAll(List.of(message))).thenReturn(List.of(message));
+
+        conversationService.appendMessages(List.of(message));
+
+        verify(conversationRepository).upsert(3L, 7L, 10L, 7L, "x".repeat(100), now, 1, 0);
+    }
+
+    @Test
+    void markRead_decrementsReaderSideOnly() {
+        conversationService.markRead(7L, 3L, 4);
+
+        verify(conversationRepository).decrementUnread(3L, 7L, 0, 4);
+    }
+
+    @Test
+    void getUnreadCount_readsCounterOfRequestingUser() {
+        Conversation conversation = Conversation.builder()
+                .userLowId(3L)
+                .userHighId(7L)
+                .lowUnreadCount(5)
+                .highUnreadCount(2)
+                .build();
+
+        when(conversationRepository.findById(ConversationId.of(7L, 3L))).thenReturn(Optional.of(conversation));
+
+        assertThat(conversationService.getUnreadCount(7L, 3L)).isEqualTo(2);
+        assertThat(conversation.getPartnerId(7L)).isEqualTo(3L);
+    }
+
+    @Test
+    void getUnreadCount_noConversation_returnsZero() {
+        when(conversationRepository.findById(ConversationId.of(1L, 2L))).thenReturn(Optional.empty());
+
+        assertThat(conversationService.getUnreadCount(1L, 2L)).isZero();
+    }
+}
@@ -0,0 +1,105 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageArchiveTests {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    private MessageArchive messageArchive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageArchive = new MessageArchive(directory, objectMapper);
+        messageArchive.loadIndexes();
+    }
+
+    @Test
+    void read_returnsMessagesOfOneDirectionNewestFirstAcrossMonths() {
+        archive(YearMonth.of(2024, 2), message(5L, 1L, 2L), message(4L, 1L, 2L), message(6L, 2L, 1L));
+        archive(YearMonth.of(2024, 1), message(2L, 1L, 2L), message(1L, 1L, 2L));
+
+        assertThat(messageArchive.count(1L, 2L)).isEqualTo(4);
+        assertThat(messageArchive.count(2L, 1L)).isEqualTo(1);
+        assertThat(ids(messageArchive.read(1L, 2L, 0, 10))).containsExactly(5L, 4L, 2L, 1L);
+        assertThat(ids(messageArchive.read(1L, 2L, 1, 2))).containsExactly(4L, 2L);
+        assertThat(ids(messageArchive.read(1L, 2L, 3, 10))).containsExactly(1L);
+        assertThat(messageArchive.read(1L, 2L, 4, 10)).isEmpty();
+    }
+
+    @Test
+    void loadIndexes_restoresSegmentsWrittenBefore() throws Exception {
+        archive(YearMonth.of(2024, 3), message(7L, 1L, 2L));
+
+        MessageArchive reopened = new MessageArchive(directory, objectMapper);
+        reopened.loadIndexes();
+
+        assertThat(reopened.contains(YearMonth.of(2024, 3))).isTrue();
+        List<Message> messages = reopened.read(1L, 2L, 0, 10);
+        assertThat(ids(messages)).containsExactly(7L);
+        assertThat(messages.get(0).getContent()).isEqualTo("message 7");
+        assertThat(messages.get(0).getStatus()).isEqualTo(MessageStatus.RECEIVED);
+    }
+
+    @Test
+    void writeSegment_isInvisibleUntilPublished() {
+        messageArchive.writeSegment(YearMonth.of(2024, 4), sink -> sink.accept(message(8L, 1L, 2L)));
+
+        assertThat(messageArchive.count(1L, 2L)).isZero();
+        assertThat(messageArchive.findStaged()).containsExactly(YearMonth.of(2024, 4));
+
+        messageArchive.publish(YearMonth.of(2024, 4));
+
+        assertThat(messageArchive.count(1L, 2L)).isEqualTo(1);
+        assertThat(messageArchive.findStaged()).isEmpty();
+    }
+
+    @Test
+    void discard_dropsStagedSegment() {
+        messageArchive.writeSegment(YearMonth.of(2024, 5), sink -> sink.accept(message(9L, 1L, 2L)));
+
+        messageArchive.discard(YearMonth.of(2024, 5));
+        messageArchive.publish(YearMonth.of(2024, 5));
+
+        assertThat(messageArchive.contains(YearMonth.of(2024, 5))).isFalse();
+        assertThat(messageArchive.findStaged()).isEmpty();
+    }
+
+    @Test
+    void count_segmentPublishedByAnotherNode_isPickedUp() throws Exception {
+        MessageArchive otherNode = new MessageArchive(directory, objectMapper);
+        otherNode.loadIndexes();
+        assertThat(messageArchive.count(1L, 2L)).isZero();
+
+        otherNode.writeSegment(YearMonth.of(2024, 6), sink -> sink.accept(message(10L, 1L, 2L)));
+        otherNode.publish(YearMonth.of(2024, 6));
+
+        assertThat(messageArchive.count(1L, 2L)).isEqualTo(1);
+        assertThat(ids(messageArchive.read(1L, 2L, 0, 10))).containsExactly(10L);
+    }
+
+    private void archive(YearMonth month, Message... messages) {
+        messageArchive.writeSegment(month, sink -> List.of(messages).forEach(sink));
+        messageArchive.publish(month);
+    }
+
+
+    private static List<Long> ids(List<Message> messages) {
+        return messages.stream().map(Message::getId).toList();
+    }
+}
@@ -0,0 +1,164 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.chatservice.support.SyncMode;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the change log migrations, the checkpoints and the sync query against Postgres. User 1 syncs with
+ * device "phone" throughout.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MessageChangeLogTests {
+    // V1.0.0 to V1.0.6, the changesets before messages get a change_seq
+    private static final int CHANGESETS_BEFORE_CHANGE_LOG = 6;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.4");
+
+    private static PostgresFixture database;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Instant now = Instant.now();
+
+    private MessageChangeLog changeLog;
+    private SyncService syncService;
+
+    @BeforeAll
+    static void setUp() {
+        database = new PostgresFixture(POSTGRES);
+    }
+
+    @BeforeEach
+    void reset() {
+        database.reset();
+
+        AuthProvider authProvider = mock(AuthProvider.class);
+        UserClient userClient = mock(UserClient.class);
+        when(authProvider.getSubject()).thenReturn("user@mail.com");
+        when(userClient.getByEmail(any(), any())).thenReturn(PrivateUserResponse.builder().id(1L).build());
+
+        changeLog = new MessageChangeLog(database.jdbcTemplate());
+        syncService = new SyncService(database.jdbcTemplate(), objectMapper, authProvider, userClient);
+        ReflectionTestUtils.setField(syncService, "batchSize", 100);
+        ReflectionTestUtils.setField(syncService, "maxEntries", 1000);
+        ReflectionTestUtils.setField(syncService, "fullWindow", Duration.ofDays(30));
+    }
+
+    @Test
+    void migration_numbersExistingMessagesInCreationOrder() throws Exception {
+        database.migrate(CHANGESETS_BEFORE_CHANGE_LOG);
+        database.insert(message(1L, 2L, 1L, "second", now.minusSeconds(10)), message(2L, 1L, 2L, "first", now.minusSeconds(20)));
+
+        database.migrate();
+
+        assertThat(database.jdbcTemplate().queryForList("SELECT id FROM messages ORDER BY change_seq", Long.class))
+                .containsExactly(2L, 1L);
+        assertThat(messageIds(sync(SyncMode.FULL))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void sync_streamsInsertsAndEditsOnceCheckpointed() throws Exception {
+        database.migrate();
+        database.insert(message(1L, 2L, 1L, "hello", now));
+
+        assertThat(messageIds(sync(SyncMode.FULL))).isEmpty();
+
+        changeLog.checkpoint();
+        List<JsonNode> lines = sync(SyncMode.FULL);
+        assertThat(messageIds(lines)).containsExactly(1L);
+        syncService.acknowledge("phone", cursor(lines));
+
+        database.jdbcTemplate().update("UPDATE messages SET status = 'DELIVERED' WHERE id = 1");
+        database.jdbcTemplate().update("UPDATE messages SET content = content WHERE id = 1");
+        changeLog.checkpoint();
+
+        lines = sync(SyncMode.DELTA);
+        assertThat(lines).extracting(line -> line.get("type").asText()).containsExactly("message", "cursor");
+        assertThat(lines.get(0).get("message").get("status").asText()).isEqualTo("DELIVERED");
+    }
+
+    @Test
+    void sync_changeOfRunningTransaction_holdsBackLaterChangesUntilItCommits() throws Exception {
+        database.migrate();
+
+        try (Connection writer = database.connection(); Statement statement = writer.createStatement()) {
+            writer.setAutoCommit(false);
+            statement.executeUpdate("INSERT INTO messages (id, created_at, content, sender_id, recipient_id, is_changed, status) " +
+                    "VALUES (1, now(), 'slow', 2, 1, false, 'RECEIVED')");
+
+            database.insert(message(2L, 2L, 1L, "fast", now));
+            changeLog.checkpoint();
+
+            List<JsonNode> lines = sync(SyncMode.FULL);
+            assertThat(messageIds(lines)).isEmpty();
+            assertThat(cursor(lines)).isZero();
+
+            writer.commit();
+        }
+
+        changeLog.checkpoint();
+
+        assertThat(messageIds(sync(SyncMode.FULL))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void checkpoint_dropsCheckpointsBehindTheSettledOne() throws Exception {
+        database.migrate();
+        database.insert(message(1L, 2L, 1L, "hello", now));
+
+        changeLog.checkpoint();
+        changeLog.checkpoint();
+
+        assertThat(database.jdbcTemplate().queryForList("SELECT change_seq FROM change_log_checkpoints ORDER BY change_seq", Long.class))
+                .containsExactly(1L, 1L);
+        assertThat(database.jdbcTemplate().queryForObject("SELECT " + MessageChangeLog.SETTLED_CHANGE_SEQ, Long.class)).isEqualTo(1L);
+    }
+
+    private List<JsonNode> sync(SyncMode mode) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        syncService.sync("phone", mode).writeTo(output);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static List<Long> messageIds(List<JsonNode> lines) {
+        return lines.stream()
+                .filter(line -> line.get("type").asText().equals("message"))
+                .map(line -> line.get("message").get("id").asLong())
+                .toList();
+    }
+
+    private static long cursor(List<JsonNode> lines) {
+        return lines.get(lines.size() - 1).get("cursor").asLong();
+    }
+}
@@ -0,0 +1,143 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.repository.MessageRepository;
+import com.halcyon.chatservice.support.AcceptedMessage;
+import com.halcyon.chatservice.support.DeliveryCursor;
+import com.halcyon.chatservice.support.MessageStatus;
+import com.halcyon.chatservice.support.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageDeliveryServiceTests {
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ConversationService conversationService;
+
+    @Mock
+    private UserMessageRouter userMessageRouter;
+
+    @InjectMocks
+    private MessageDeliveryService messageDeliveryService;
+
+    @Test
+    void markDelivered_updatesInOneStatementAndPushesCursor() {
+        List<Long> ids = List.of(3L, 2L, 1L);
+        Instant createdAt = Instant.now();
+        Message newest = Message.builder().id(3L).createdAt(createdAt).build();
+
+        when(messageRepository.updateStatus(1L, 2L, ids, MessageStatus.DELIVERED)).thenReturn(3);
+        when(messageRepository.findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtDescIdDesc(1L, 2L, MessageStatus.DELIVERED))
+                .thenReturn(Optional.of(newest));
+
+        messageDeliveryService.markDelivered(1L, 2L, ids);
+
+        verify(conversationService).markRead(2L, 1L, 3);
+
+        ArgumentCaptor<DeliveryCursor> cursor = ArgumentCaptor.forClass(DeliveryCursor.class);
+        verify(userMessageRouter).sendToUser(eq(1L), eq("/queue/deliveries"), cursor.capture());
+
+        assertThat(cursor.getValue().getMessageId()).isEqualTo(3L);
+        assertThat(cursor.getValue().getDeliveredUpTo()).isEqualTo(createdAt);
+    }
+
+    @Test
+    void markDelivered_nothingChanged_doesNotNotify() {
+        when(messageRepository.updateStatus(1L, 2L, List.of(1L), MessageStatus.DELIVERED)).thenReturn(0);
+
+        messageDeliveryService.markDelivered(1L, 2L, List.of(1L));
+
+        verify(userMessageRouter, never()).sendToUser(anyLong(), anyString(), any());
+        verify(conversationService, never()).markRead(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void getCursor_noDeliveredMessages_returnsEmptyCursor() {
+        when(messageRepository.findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtDescIdDesc(1L, 2L, MessageStatus.DELIVERED))
+                .thenReturn(Optional.empty());
+
+        DeliveryCursor cursor = messageDeliveryService.getCursor(1L, 2L);
+
+        assertThat(cursor.getSenderId()).isEqualTo(1L);
+        assertThat(cursor.getRecipientId()).isEqualTo(2L);
+        assertThat(cursor.getMessageId()).isNull();
+    }
+
+    @Test
+    void getCursor_olderMessagePending_stopsBeforeIt() {
+        Instant pendingAt = Instant.parse("2026-01-01T10:00:00Z");
+        Message pending = Message.builder().id(5L).createdAt(pendingAt).status(MessageStatus.RECEIVED).build();
+        Message delivered = Message.builder().id(4L).createdAt(pendingAt.minusSeconds(60)).status(MessageStatus.DELIVERED).build();
+
+        when(messageRepository.findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtAscIdAsc(1L, 2L, MessageStatus.RECEIVED))
+                .thenReturn(Optional.of(pending));
+        when(messageRepository.findByStatusBefore(eq(1L), eq(2L), eq(MessageStatus.DELIVERED), eq(pendingAt), eq(5L), any()))
+                .thenReturn(List.of(delivered));
+
+        DeliveryCursor cursor = messageDeliveryService.getCursor(1L, 2L);
+
+        assertThat(cursor.getMessageId()).isEqualTo(4L);
+        assertThat(cursor.getDeliveredUpTo()).isEqualTo(delivered.getCreatedAt());
+        verify(messageRepository, never()).findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtDescIdDesc(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getCursor_oldestMessagePending_returnsEmptyCursor() {
+        Message pending = Message.builder().id(1L).createdAt(Instant.now()).status(MessageStatus.RECEIVED).build();
+
+        when(messageRepository.findFirstBySenderIdAndRecipientIdAndStatusOrderByCreatedAtAscIdAsc(1L, 2L, MessageStatus.RECEIVED))
+                .thenReturn(Optional.of(pending));
+        when(messageRepository.findByStatusBefore(eq(1L), eq(2L), eq(MessageStatus.DELIVERED), any(), eq(1L), any()))
+                .thenReturn(List.of());
+
+        assertThat(messageDeliveryService.getCursor(1L, 2L).getMessageId()).isNull();
+    }
+
+    @Test
+    void notifyAccepted_notifiesRecipientAndSendsSavedMessageToSender() {
+        UUID pendingId = UUID.randomUUID();
+        Message saved = Message.builder().id(7L).senderId(1L).recipientId(2L).build();
+
+        messageDeliveryService.notifyAccepted(pendingId, 1L, "sender", saved);
+
+        ArgumentCaptor<Notification> notification = ArgumentCaptor.forClass(Notification.class);
+        verify(userMessageRouter).sendToUser(eq(2L), eq("/queue/messages"), notification.capture());
+        assertThat(notification.getValue().getMessageId()).isEqualTo(7L);
+
+        ArgumentCaptor<AcceptedMessage> accepted = ArgumentCaptor.forClass(AcceptedMessage.class);
+        verify(userMessageRouter).sendToUser(eq(1L), eq("/queue/sent"), accepted.capture());
+        assertThat(accepted.getValue().getPendingId()).isEqualTo(pendingId);
+        assertThat(accepted.getValue().getMessage()).isSameAs(saved);
+    }
+
+    @Test
+    void notifyAccepted_failedSave_onlyTellsSender() {
+        UUID pendingId = UUID.randomUUID();
+
+        messageDeliveryService.notifyAccepted(pendingId, 1L, "sender", null);
+
+        verify(userMessageRouter, never()).sendToUser(anyLong(), eq("/queue/messages"), any());
+        verify(userMessageRouter).sendToUser(eq(1L), eq("/queue/sent"), any(AcceptedMessage.class));
+    }
+}
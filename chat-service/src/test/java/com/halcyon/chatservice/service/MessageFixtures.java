@@ -0,0 +1,45 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+
+import java.time.Instant;
+
+/**
+ * Messages for tests. A saved message is created {@code id} seconds after the epoch and says
+ * {@code "message <id>"}, so ordering by id and by creation time agree.
+ */
+final class MessageFixtures {
+    private MessageFixtures() {
+    }
+
+    static Message message(long id) {
+        return message(id, 1L, 2L);
+    }
+
+    static Message message(long id, long senderId, long recipientId) {
+        return message(id, senderId, recipientId, "message " + id, Instant.ofEpochSecond(id));
+    }
+
+    static Message message(long id, long senderId, long recipientId, String content, Instant createdAt) {
+        return Message.builder()
+                .id(id)
+                .createdAt(createdAt)
+                .content(content)
+                .senderId(senderId)
+                .recipientId(recipientId)
+                .status(MessageStatus.RECEIVED)
+                .build();
+    }
+
+    /**
+     * A message the way a client submits it, before it was saved.
+     */
+    static Message newMessage(long senderId, long recipientId) {
+        return Message.builder()
+                .content("content")
+                .senderId(senderId)
+                .recipientId(recipientId)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.repository.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageHistoryServiceTests {
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private MessageArchive messageArchive;
+
+    @Mock
+    private RecentMessageCache recentMessageCache;
+
+    @InjectMocks
+    private MessageHistoryService messageHistoryService;
+
+    @Test
+    void findMessages_fullLivePageDoesNotTouchArchiveBlocks() {
+        when(messageRepository.findAllBySenderIdAndRecipientId(eq(1L), eq(2L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(message(4L), message(3L)), invocation.getArgument(2), 4));
+        when(messageArchive.count(1L, 2L)).thenReturn(10L);
+
+        Page<Message> page = messageHistoryService.findMessages(1L, 2L, 0, 2);
+
+        assertThat(page.getContent()).extracting(Message::getId).containsExactly(4L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(14);
+        verify(messageArchive, never()).read(anyLong(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void findMessages_fillsShortPageFromArchive() {
+        when(messageRepository.findAllBySenderIdAndRecipientId(eq(1L), eq(2L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(message(5L)), invocation.getArgument(2), 5));
+        when(messageArchive.count(1L, 2L)).thenReturn(3L);
+        when(messageArchive.read(1L, 2L, 0, 1)).thenReturn(List.of(message(2L)));
+
+        Page<Message> page = messageHistoryService.findMessages(1L, 2L, 2, 2);
+
+        assertThat(page.getContent()).extracting(Message::getId).containsExactly(5L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(8);
+    }
+
+    @Test
+    void findMessages_pagePastLiveRowsReadsArchiveAtOffset() {
+        when(messageRepository.findAllBySenderIdAndRecipientId(eq(1L), eq(2L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(), invocation.getArgument(2), 5));
+        when(messageArchive.count(1L, 2L)).thenReturn(10L);
+        when(messageArchive.read(1L, 2L, 1, 2)).thenReturn(List.of(message(2L), message(1L)));
+
+        Page<Message> page = messageHistoryService.findMessages(1L, 2L, 3, 2);
+
+        assertThat(page.getContent()).extracting(Message::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void findMessages_firstPageIsServedFromCache() {
+        Page<Message> cached = new PageImpl<>(List.of(message(9L)));
+        when(recentMessageCache.getCapacity()).thenReturn(50);
+        when(recentMessageCache.findFirstPage(1L, 2L, 20)).thenReturn(Optional.of(cached));
+
+        assertThat(messageHistoryService.findMessages(1L, 2L, 0, 20)).isSameAs(cached);
+        verify(messageRepository, never()).findAllBySenderIdAndRecipientId(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void findMessages_cacheMissLoadsWholeWindow() {
+        when(recentMessageCache.getCapacity()).thenReturn(3);
+        when(recentMessageCache.findFirstPage(1L, 2L, 2)).thenReturn(Optional.empty());
+        when(recentMessageCache.readToken(1L, 2L)).thenReturn(7L);
+        when(messageRepository.findAllBySenderIdAndRecipientId(eq(1L), eq(2L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(message(3L), message(2L), message(1L)), invocation.getArgument(2), 3));
+
+        Page<Message> page = messageHistoryService.findMessages(1L, 2L, 0, 2);
+
+        assertThat(page.getContent()).extracting(Message::getId).containsExactly(3L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+
+        ArgumentCaptor<Page<Message>> window = ArgumentCaptor.captor();
+        verify(recentMessageCache).load(eq(1L), eq(2L), window.capture(), eq(7L));
+        assertThat(window.getValue().getContent()).hasSize(3);
+    }
+}
@@ -0,0 +1,146 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static com.halcyon.chatservice.service.MessageFixtures.newMessage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageIngestionServiceTests {
+    private final ConversationService conversationService = mock(ConversationService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final RecentMessageCache recentMessageCache = mock(RecentMessageCache.class);
+    private final List<Integer> committedBatches = new CopyOnWriteArrayList<>();
+
+    private MessageIngestionService ingestionService;
+
+    @AfterEach
+    void tearDown() {
+        ingestionService.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_concurrentMessages_areCommittedTogether() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(conversationService.appendMessages(anyList())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            committedBatches.add(messages.size());
+            messages.forEach(message -> message.setId(message.getSenderId() * 100));
+            return messages;
+        });
+
+        start(Duration.ofMillis(200));
+
+        List<CompletableFuture<Message>> results = new ArrayList<>();
+        IntStream.rangeClosed(1, 10).forEach(i -> results.add(ingestionService.submit(newMessage(i, i + 1))));
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).join().getId()).isEqualTo((i + 1) * 100L);
+        }
+        assertThat(committedBatches).containsExactly(10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_failingBatch_isRetriedMessageByMessage() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(conversationService.appendMessages(anyList())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            if (messages.stream().anyMatch(message -> message.getSenderId() == 2)) {
+                throw new IllegalStateException("Bad message");
+            }
+            return messages;
+        });
+
+        start(Duration.ofMillis(200));
+
+        CompletableFuture<Message> good = ingestionService.submit(newMessage(1, 2));
+        CompletableFuture<Message> bad = ingestionService.submit(newMessage(2, 3));
+        CompletableFuture<Message> alsoGood = ingestionService.submit(newMessage(3, 4));
+
+        assertThat(good.join().getSenderId()).isEqualTo(1L);
+        assertThat(alsoGood.join().getSenderId()).isEqualTo(3L);
+        CompletionException exception = assertThrows(CompletionException.class, bad::join);
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_failureAfterCommit_isNotInsertedAgain() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(conversationService.appendMessages(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("Redis is down")).when(recentMessageCache).append(anyList());
+
+        start(Duration.ofMillis(200));
+
+        CompletableFuture<Message> first = ingestionService.submit(newMessage(1, 2));
+        CompletableFuture<Message> second = ingestionService.submit(newMessage(2, 3));
+
+        assertThat(first.join().getSenderId()).isEqualTo(1L);
+        assertThat(second.join().getSenderId()).isEqualTo(2L);
+        verify(conversationService, times(1)).appendMessages(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitAndWait_commitTakesTooLong_leavesItRunning() {
+        CountDownLatch release = new CountDownLatch(1);
+        Message saved = newMessage(1, 2);
+        when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(invocation -> {
+            release.await();
+            return List.of(saved);
+        });
+
+        start(Duration.ofMillis(1));
+
+        CompletableFuture<Message> result;
+        try {
+            result = ingestionService.submitAndWait(newMessage(1, 2));
+            assertThat(result).isNotDone();
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(result.join()).isSameAs(saved);
+    }
+
+    @Test
+    void submit_afterStop_isRejected() {
+        start(Duration.ofMillis(1));
+        ingestionService.stop();
+
+        assertThrows(ResponseStatusException.class, () -> ingestionService.submit(newMessage(1, 2)));
+    }
+
+    private void start(Duration maxDelay) {
+        ingestionService = new MessageIngestionService(conversationService, recentMessageCache, transactionTemplate, new SimpleMeterRegistry(),
+                64, 32, maxDelay, Duration.ofMillis(100), Duration.ofMillis(500));
+        ingestionService.start();
+    }
+}
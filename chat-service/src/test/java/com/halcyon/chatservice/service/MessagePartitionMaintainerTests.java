@@ -0,0 +1,177 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.chatservice.model.Message;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the partitioning migration and the partition maintenance against Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MessagePartitionMaintainerTests {
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    // V1.0.0 to V1.0.4, the changesets before messages is partitioned
+    private static final int CHANGESETS_BEFORE_PARTITIONING = 4;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.4");
+
+    private static PostgresFixture database;
+
+    private final YearMonth current = YearMonth.now(ZoneOffset.UTC);
+    private final YearMonth expired = current.minusMonths(14);
+
+    @TempDir
+    private Path directory;
+
+    private MessageArchive messageArchive;
+    private MessagePartitionMaintainer maintainer;
+
+    @BeforeAll
+    static void setUp() {
+        database = new PostgresFixture(POSTGRES);
+    }
+
+    @BeforeEach
+    void reset() throws Exception {
+        database.reset();
+
+        messageArchive = new MessageArchive(directory, new ObjectMapper().registerModule(new JavaTimeModule()));
+        messageArchive.loadIndexes();
+
+        maintainer = new MessagePartitionMaintainer(database.jdbcTemplate(), database.transactionTemplate(), messageArchive);
+        ReflectionTestUtils.setField(maintainer, "monthsAhead", 2);
+        ReflectionTestUtils.setField(maintainer, "retentionMonths", 12);
+    }
+
+    @Test
+    void migration_movesExistingMessagesIntoMonthlyPartitions() throws Exception {
+        database.migrate(CHANGESETS_BEFORE_PARTITIONING);
+        database.insert(message(1L, 1L, 2L, "old", middleOf(current.minusMonths(2))),
+                message(2L, 2L, 1L, "recent", middleOf(current)));
+
+        database.migrate();
+
+        assertThat(partitionOf(1L)).isEqualTo(partitionName(current.minusMonths(2)));
+        assertThat(partitionOf(2L)).isEqualTo(partitionName(current));
+        assertThat(partitions()).contains(partitionName(current.minusMonths(1)), partitionName(current.plusMonths(3)));
+        assertThat(database.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM messages_default", Long.class)).isZero();
+    }
+
+    @Test
+    void maintain_archivesExpiredPartitionAndCreatesUpcomingOnes() throws Exception {
+        database.migrate();
+        database.jdbcTemplate().queryForObject("SELECT create_messages_partition(?)", String.class, Date.valueOf(expired.atDay(1)));
+        database.insert(message(1L, 1L, 2L, "expired", middleOf(expired)), message(2L, 1L, 2L, "kept", middleOf(current)));
+        indexForSearch();
+
+        maintainer.maintain();
+
+        assertThat(partitions()).doesNotContain(partitionName(expired)).contains(partitionName(current.plusMonths(2)));
+        assertThat(database.jdbcTemplate().queryForList("SELECT id FROM messages", Long.class)).containsExactly(2L);
+        assertThat(database.jdbcTemplate().queryForList("SELECT DISTINCT message_id FROM message_search", Long.class)).containsExactly(2L);
+
+        List<Message> archived = messageArchive.read(1L, 2L, 0, 10);
+        assertThat(archived).extracting(Message::getId).containsExactly(1L);
+        assertThat(archived.get(0).getContent()).isEqualTo("expired");
+        assertThat(messageArchive.findStaged()).isEmpty();
+    }
+
+    @Test
+    void maintain_rowsInDefaultPartition_areMovedIntoPartitionsAndArchivedWhenExpired() throws Exception {
+        YearMonth unpartitioned = current.minusMonths(5);
+        database.migrate();
+        database.insert(message(1L, 1L, 2L, "expired", middleOf(expired)),
+                message(2L, 1L, 2L, "also expired", middleOf(expired).plusSeconds(60)),
+                message(3L, 1L, 2L, "kept", middleOf(unpartitioned)));
+        assertThat(partitionOf(1L)).isEqualTo("messages_default");
+
+        maintainer.maintain();
+
+        assertThat(database.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM messages_default", Long.class)).isZero();
+        assertThat(partitionOf(3L)).isEqualTo(partitionName(unpartitioned));
+        assertThat(partitions()).doesNotContain(partitionName(expired));
+        assertThat(database.jdbcTemplate().queryForList("SELECT id FROM messages", Long.class)).containsExactly(3L);
+        assertThat(messageArchive.read(1L, 2L, 0, 10)).extracting(Message::getId).containsExactly(2L, 1L);
+
+        // Still a regular partition: it takes new rows of its month and keeps the table's triggers
+        database.insert(message(4L, 1L, 2L, "late", middleOf(unpartitioned).plusSeconds(60)));
+        assertThat(partitionOf(4L)).isEqualTo(partitionName(unpartitioned));
+        assertThat(database.jdbcTemplate().queryForObject("SELECT change_seq FROM messages WHERE id = 4", Long.class)).isNotNull();
+    }
+
+    @Test
+    void maintain_detachBlockedByReader_keepsPartitionAndRetriesOnNextRun() throws Exception {
+        database.migrate();
+        database.jdbcTemplate().queryForObject("SELECT create_messages_partition(?)", String.class, Date.valueOf(expired.atDay(1)));
+        database.insert(message(1L, 1L, 2L, "expired", middleOf(expired)));
+
+        try (Connection reader = database.connection(); Statement statement = reader.createStatement()) {
+            reader.setAutoCommit(false);
+            statement.execute("LOCK TABLE messages IN ACCESS SHARE MODE");
+
+            maintainer.maintain();
+
+            assertThat(partitions()).contains(partitionName(expired));
+            assertThat(messageArchive.contains(expired)).isFalse();
+            assertThat(messageArchive.findStaged()).isEmpty();
+            reader.rollback();
+        }
+
+        maintainer.maintain();
+
+        assertThat(partitions()).doesNotContain(partitionName(expired));
+        assertThat(messageArchive.read(1L, 2L, 0, 10)).extracting(Message::getId).containsExactly(1L);
+    }
+
+    private void indexForSearch() {
+        database.jdbcTemplate().update("""
+                INSERT INTO message_search (user_id, partner_id, message_id, created_at, sender_id, document)
+                SELECT sender_id, recipient_id, id, created_at, sender_id, to_tsvector('simple', content) FROM messages
+                UNION ALL
+                SELECT recipient_id, sender_id, id, created_at, sender_id, to_tsvector('simple', content) FROM messages
+                """);
+    }
+
+    private String partitionOf(long messageId) {
+        return database.jdbcTemplate().queryForObject("SELECT tableoid::regclass::text FROM messages WHERE id = ?", String.class, messageId);
+    }
+
+    private List<String> partitions() {
+        return database.jdbcTemplate().queryForList("""
+                SELECT child.relname FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = 'messages'
+                """, String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "messages_" + month.format(MONTH_FORMAT);
+    }
+
+    private static Instant middleOf(YearMonth month) {
+        return month.atDay(15).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,72 @@
+package com.halcyon.chatservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageSearchIndexerTests {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MessageSearchIndexer indexer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        indexer = new MessageSearchIndexer(jdbcTemplate, transactionTemplate, meterRegistry, "simple", 100, 5);
+    }
+
+    @Test
+    void index_advancesWatermarkUntilCaughtUpAndReportsLag() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), any(Object[].class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT change_seq FROM search_index_state"), eq(Long.class)))
+                .thenReturn(0L, 100L, 100L);
+        when(jdbcTemplate.queryForObject(startsWith("WITH batch"), eq(Long.class), any(Object[].class)))
+                .thenReturn(100L, 100L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT last_value"), eq(Long.class)))
+                .thenReturn(103L);
+        when(jdbcTemplate.queryForList(startsWith("SELECT changed_at"), eq(Timestamp.class), any(Object[].class)))
+                .thenReturn(List.of(new Timestamp(System.currentTimeMillis() - 2000)));
+
+        indexer.index();
+
+        verify(jdbcTemplate).update("UPDATE search_index_state SET change_seq = ? WHERE id = 1", 100L);
+        assertThat(meterRegistry.get("chat.search.index.lag.changes").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("chat.search.index.lag").gauge().value()).isGreaterThanOrEqualTo(2000);
+    }
+
+    @Test
+    void index_lockHeldByAnotherNode_skipsBatches() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), any(Object[].class)))
+                .thenReturn(false);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT change_seq FROM search_index_state"), eq(Long.class)))
+                .thenReturn(0L);
+        when(jdbcTemplate.queryForList(startsWith("SELECT changed_at"), eq(Timestamp.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        indexer.index();
+
+        verify(jdbcTemplate, never()).queryForObject(startsWith("WITH batch"), eq(Long.class), any(Object[].class));
+        assertThat(meterRegistry.get("chat.search.index.lag").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.dto.MessageSearchHit;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Indexes messages with {@link MessageSearchIndexer} and searches them as user 1, all against Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MessageSearchServiceTests {
+    private static final String LANGUAGE = "simple";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.4");
+
+    private static PostgresFixture database;
+
+    private final Instant now = Instant.now();
+
+    private MessageChangeLog changeLog;
+    private MessageSearchIndexer indexer;
+    private MessageSearchService searchService;
+
+    @BeforeAll
+    static void setUp() {
+        database = new PostgresFixture(POSTGRES);
+    }
+
+    @BeforeEach
+    void reset() throws Exception {
+        database.reset();
+        database.migrate();
+
+        AuthProvider authProvider = mock(AuthProvider.class);
+        UserClient userClient = mock(UserClient.class);
+        when(authProvider.getSubject()).thenReturn("user@mail.com");
+        when(userClient.getByEmail(any(), any())).thenReturn(PrivateUserResponse.builder().id(1L).build());
+
+        changeLog = new MessageChangeLog(database.jdbcTemplate());
+        indexer = new MessageSearchIndexer(database.jdbcTemplate(), database.transactionTemplate(), new SimpleMeterRegistry(),
+                LANGUAGE, 100, 5);
+        searchService = new MessageSearchService(database.namedParameterJdbcTemplate(), authProvider, userClient);
+        ReflectionTestUtils.setField(searchService, "language", LANGUAGE);
+    }
+
+    @Test
+    void search_highlightsMatchesInEscapedContent() {
+        database.insert(message(1L, 1L, 2L, "please ship <b>release</b> & notes today", now));
+        index();
+
+        Page<MessageSearchHit> page = searchService.search("release", null, 0, 10);
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        String highlight = page.getContent().get(0).getHighlight();
+        assertThat(highlight).contains("<mark>release</mark>", "&lt;b&gt;", "&amp;").doesNotContain("<b>");
+    }
+
+    @Test
+    void search_findsOwnMessagesOnlyAndFiltersByPartner() {
+        database.insert(message(1L, 1L, 2L, "lunch today", now.minusSeconds(30)),
+                message(2L, 3L, 1L, "lunch tomorrow", now.minusSeconds(20)),
+                message(3L, 4L, 5L, "lunch without me", now.minusSeconds(10)));
+        index();
+
+        Page<MessageSearchHit> all = searchService.search("lunch", null, 0, 10);
+        assertThat(all.getContent()).extracting(MessageSearchHit::getMessageId).containsExactly(2L, 1L);
+        assertThat(all.getTotalElements()).isEqualTo(2);
+
+        Page<MessageSearchHit> withPartner = searchService.search("lunch", 3L, 0, 10);
+        assertThat(withPartner.getContent()).extracting(MessageSearchHit::getMessageId).containsExactly(2L);
+        assertThat(withPartner.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void search_pagesWithoutCountingEveryMatch() {
+        database.insert(message(1L, 1L, 2L, "standup notes", now.minusSeconds(30)),
+                message(2L, 2L, 1L, "standup moved", now.minusSeconds(20)),
+                message(3L, 1L, 3L, "standup cancelled", now.minusSeconds(10)));
+        index();
+
+        Page<MessageSearchHit> first = searchService.search("standup", null, 0, 2);
+        assertThat(first.getContent()).extracting(MessageSearchHit::getMessageId).containsExactly(3L, 2L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent().get(1).getRecipientId()).isEqualTo(1L);
+
+        Page<MessageSearchHit> last = searchService.search("standup", null, 1, 2);
+        assertThat(last.getContent()).extracting(MessageSearchHit::getMessageId).containsExactly(1L);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void index_reindexesEditsOnlyOnceCheckpointed() {
+        database.insert(message(1L, 1L, 2L, "see you at noon", now));
+        index();
+
+        database.jdbcTemplate().update("UPDATE messages SET content = 'see you at midnight', is_changed = true WHERE id = 1");
+        indexer.index();
+
+        assertThat(searchService.search("noon", null, 0, 10).getTotalElements()).isEqualTo(1);
+        assertThat(searchService.search("midnight", null, 0, 10).getTotalElements()).isZero();
+
+        index();
+
+        assertThat(searchService.search("noon", null, 0, 10).getTotalElements()).isZero();
+        assertThat(searchService.search("midnight", null, 0, 10).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void search_blankQuery_isRejected() {
+        assertThrows(ResponseStatusException.class, () -> searchService.search(" ", null, 0, 10));
+    }
+
+    private void index() {
+        changeLog.checkpoint();
+        indexer.index();
+    }
+}
@@ -0,0 +1,87 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * The chat database in a Postgres container, migrated by the application's Liquibase changelog, so the
+ * migrations and the SQL of the services run the way they do in production.
+ */
+@SuppressWarnings("deprecation")
+final class PostgresFixture {
+    private static final String CHANGELOG = "db/changelog/db.changelog-master.yaml";
+
+    private final DriverManagerDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    PostgresFixture(PostgreSQLContainer<?> postgres) {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate() {
+        return new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    TransactionTemplate transactionTemplate() {
+        return transactionTemplate;
+    }
+
+    Connection connection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Drops everything, including the changelog history, so the next migration starts from an empty database.
+     */
+    void reset() {
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+    }
+
+    void migrate() throws SQLException, LiquibaseException {
+        try (Connection connection = dataSource.getConnection()) {
+            liquibase(connection).update("");
+        }
+    }
+
+    /**
+     * Applies only the first {@code changesets} of the changelog, to set up data a later migration has to carry over.
+     */
+    void migrate(int changesets) throws SQLException, LiquibaseException {
+        try (Connection connection = dataSource.getConnection()) {
+            liquibase(connection).update(changesets, "");
+        }
+    }
+
+    void insert(Message... messages) {
+        for (Message message : messages) {
+            jdbcTemplate.update("INSERT INTO messages (id, created_at, content, sender_id, recipient_id, is_changed, status) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    message.getId(), Timestamp.from(message.getCreatedAt()), message.getContent(), message.getSenderId(),
+                    message.getRecipientId(), message.isChanged(), message.getStatus().name());
+        }
+    }
+
+    private static Liquibase liquibase(Connection connection) throws LiquibaseException {
+        return new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(), new JdbcConnection(connection));
+    }
+}
@@ -0,0 +1,72 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.repository.ConversationRepository;
+import com.halcyon.chatservice.support.PresenceEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTests {
+    @Mock
+    private RedisUserSessionRegistry sessionRegistry;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private UserMessageRouter userMessageRouter;
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        presenceService = new PresenceService(sessionRegistry, conversationRepository, userMessageRouter, Runnable::run, 200);
+    }
+
+    @Test
+    void onPresenceChange_userWentOnline_notifiesOnlinePartners() {
+        when(conversationRepository.findPartnerIds(eq(1L), any(Pageable.class))).thenReturn(List.of(2L, 3L));
+        when(sessionRegistry.findOnline(List.of("2", "3"))).thenReturn(Map.of("2", true, "3", false));
+
+        presenceService.onPresenceChange(new RedisUserSessionRegistry.PresenceChange("1", true));
+
+        ArgumentCaptor<PresenceEvent> event = ArgumentCaptor.forClass(PresenceEvent.class);
+        verify(userMessageRouter).sendToUser(eq(2L), eq("/queue/presence"), event.capture());
+        verify(userMessageRouter, never()).sendToUser(eq(3L), anyString(), any());
+        assertThat(event.getValue().getUserId()).isEqualTo(1L);
+        assertThat(event.getValue().isOnline()).isTrue();
+    }
+
+    @Test
+    void onPresenceChange_nonNumericUser_isIgnored() {
+        presenceService.onPresenceChange(new RedisUserSessionRegistry.PresenceChange("service-account", false));
+
+        verifyNoInteractions(conversationRepository, userMessageRouter);
+    }
+
+    @Test
+    void findOnline_keepsRequestedOrder() {
+        when(sessionRegistry.findOnline(List.of("1", "2", "3"))).thenReturn(Map.of("1", true, "2", false, "3", true));
+
+        Map<Long, Boolean> online = presenceService.findOnline(List.of(1L, 2L, 3L));
+
+        assertThat(online).containsExactly(Map.entry(1L, true), Map.entry(2L, false), Map.entry(3L, true));
+    }
+}
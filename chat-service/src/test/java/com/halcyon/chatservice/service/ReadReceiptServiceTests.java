@@ -0,0 +1,94 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.support.ReadReceipt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadReceiptServiceTests {
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final UserMessageRouter userMessageRouter = mock(UserMessageRouter.class);
+    private final ReadReceiptService readReceiptService = new ReadReceiptService(jdbcTemplate, userMessageRouter, new SimpleMeterRegistry());
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_mergesReceiptsIntoOneStatementAndPushesPositionFromDatabase() {
+        Instant createdAt = Instant.parse("2024-05-01T10:05:00Z");
+        ReadReceipt newest = new ReadReceipt(2L, 1L, 10L, createdAt);
+        ReadReceipt other = new ReadReceipt(3L, 1L, 20L, createdAt);
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenReturn(List.of(newest, other));
+
+        readReceiptService.markRead(2L, 1L, 11L);
+        readReceiptService.markRead(2L, 1L, 10L);
+        readReceiptService.markRead(2L, 1L, 10L);
+        readReceiptService.markRead(3L, 1L, 20L);
+
+        readReceiptService.flush();
+
+        ArgumentCaptor<SqlParameterSource> parameters = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), parameters.capture(), any(RowMapper.class));
+        assertThat(elements(parameters.getValue(), "messageIds")).containsExactlyInAnyOrder(10L, 11L, 20L);
+        assertThat(elements(parameters.getValue(), "readerIds")).containsExactlyInAnyOrder(2L, 2L, 3L);
+        assertThat(elements(parameters.getValue(), "senderIds")).containsOnly(1L).hasSize(3);
+        assertThat(parameters.getValue().hasValue("readUpTo")).isFalse();
+
+        verify(userMessageRouter).sendToUser(1L, "/queue/receipts", newest);
+        verify(userMessageRouter).sendToUser(1L, "/queue/receipts", other);
+
+        readReceiptService.flush();
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_receiptMatchingNoMessage_isNotPushed() {
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenReturn(List.of());
+
+        readReceiptService.markRead(2L, 1L, 99L);
+        readReceiptService.flush();
+
+        verify(userMessageRouter, never()).sendToUser(any(Long.class), anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_failedWrite_keepsCandidatesForNextFlush() {
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenThrow(new IllegalStateException("Database is down"))
+                .thenReturn(List.of(new ReadReceipt(2L, 1L, 12L, Instant.parse("2024-05-01T10:00:00Z"))));
+
+        readReceiptService.markRead(2L, 1L, 11L);
+        readReceiptService.flush();
+
+        verify(userMessageRouter, never()).sendToUser(any(Long.class), anyString(), any());
+
+        readReceiptService.markRead(2L, 1L, 12L);
+        readReceiptService.flush();
+
+        ArgumentCaptor<SqlParameterSource> parameters = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).query(anyString(), parameters.capture(), any(RowMapper.class));
+        assertThat(elements(parameters.getValue(), "messageIds")).containsExactlyInAnyOrder(11L, 12L);
+        verify(userMessageRouter).sendToUser(eq(1L), eq("/queue/receipts"), any(ReadReceipt.class));
+    }
+
+    private static Object[] elements(SqlParameterSource parameters, String name) {
+        return (Object[]) ReflectionTestUtils.getField(parameters.getValue(name), "elements");
+    }
+}
@@ -0,0 +1,103 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.support.ReadReceipt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Flushes read receipts of users 1 and 2 against Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReceiptWatermarkTests {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.4");
+
+    private static PostgresFixture database;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    private UserMessageRouter userMessageRouter;
+    private ReadReceiptService readReceiptService;
+
+    @BeforeAll
+    static void setUp() {
+        database = new PostgresFixture(POSTGRES);
+    }
+
+    @BeforeEach
+    void reset() throws Exception {
+        database.reset();
+        database.migrate();
+
+        userMessageRouter = mock(UserMessageRouter.class);
+        readReceiptService = new ReadReceiptService(database.namedParameterJdbcTemplate(), userMessageRouter, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_movesWatermarkToNewestMessageByCreationTimeAndPushesIt() {
+        // Ids from different nodes: the higher id is the older message
+        database.insert(message(9L, 1L, 2L, "older", now.minusSeconds(20)),
+                message(5L, 1L, 2L, "newer", now.minusSeconds(10)),
+                message(7L, 2L, 1L, "reply", now.minusSeconds(5)));
+        insertConversation();
+
+        readReceiptService.markRead(2L, 1L, 5L);
+        readReceiptService.markRead(2L, 1L, 9L);
+        readReceiptService.markRead(1L, 2L, 7L);
+        readReceiptService.flush();
+
+        Map<String, Object> conversation = database.jdbcTemplate().queryForMap("SELECT * FROM conversations");
+        assertThat(conversation).containsEntry("high_read_message_id", 5L).containsEntry("low_read_message_id", 7L);
+
+        ArgumentCaptor<ReadReceipt> toSender = ArgumentCaptor.forClass(ReadReceipt.class);
+        verify(userMessageRouter).sendToUser(eq(1L), eq("/queue/receipts"), toSender.capture());
+        assertThat(toSender.getValue().getMessageId()).isEqualTo(5L);
+        assertThat(toSender.getValue().getReadUpTo()).isEqualTo(now.minusSeconds(10));
+        verify(userMessageRouter).sendToUser(eq(2L), eq("/queue/receipts"), any(ReadReceipt.class));
+
+        // An older message read later never moves the watermark back
+        readReceiptService.markRead(2L, 1L, 9L);
+        readReceiptService.flush();
+
+        assertThat(database.jdbcTemplate().queryForObject("SELECT high_read_message_id FROM conversations", Long.class)).isEqualTo(5L);
+    }
+
+    @Test
+    void flush_messageNotSentToReader_isIgnored() {
+        database.insert(message(1L, 1L, 2L, "hello", now));
+        insertConversation();
+
+        readReceiptService.markRead(1L, 2L, 1L);
+        readReceiptService.flush();
+
+        assertThat(database.jdbcTemplate().queryForObject("SELECT low_read_message_id FROM conversations", Long.class)).isNull();
+        verify(userMessageRouter, never()).sendToUser(anyLong(), eq("/queue/receipts"), any());
+    }
+
+    private void insertConversation() {
+        database.jdbcTemplate().update("""
+                INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_sender_id,
+                                           last_message_preview, last_activity_at)
+                VALUES (1, 2, 0, 1, '', now())
+                """);
+    }
+}
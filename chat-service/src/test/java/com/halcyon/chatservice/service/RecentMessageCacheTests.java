@@ -0,0 +1,107 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.model.Message;
+import com.halcyon.chatservice.support.MessageStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.halcyon.chatservice.service.MessageFixtures.message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RecentMessageCacheTests {
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void append_keepsNewestMessagesWithinCapacity() {
+        RecentMessageCache cache = cache("simple", 3);
+        cache.load(1L, 2L, page(2, 1), cache.readToken(1L, 2L));
+
+        cache.append(List.of(message(3L, 1L, 2L), message(4L, 1L, 2L), message(10L, 2L, 1L)));
+
+        Page<Message> page = cache.findFirstPage(1L, 2L, 3).orElseThrow();
+        assertThat(page.getContent()).extracting(Message::getId).containsExactly(4L, 3L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(cache.findFirstPage(2L, 1L, 3)).isEmpty();
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void findFirstPage_largerThanIncompleteWindowMisses() {
+        RecentMessageCache cache = cache("simple", 2);
+        cache.load(1L, 2L, new PageImpl<>(List.of(message(5L, 1L, 2L), message(4L, 1L, 2L)), PageRequest.of(0, 2), 5), cache.readToken(1L, 2L));
+
+        assertThat(cache.findFirstPage(1L, 2L, 2)).isPresent();
+        assertThat(cache.findFirstPage(1L, 2L, 3)).isEmpty();
+    }
+
+    @Test
+    void load_afterConcurrentChangeIsDiscarded() {
+        RecentMessageCache cache = cache("simple", 10);
+        long readToken = cache.readToken(1L, 2L);
+
+        cache.append(List.of(message(3L, 1L, 2L)));
+        cache.load(1L, 2L, page(2, 1), readToken);
+
+        assertThat(cache.findFirstPage(1L, 2L, 10)).isEmpty();
+    }
+
+    @Test
+    void load_afterChangeOfOtherConversationIsKept() {
+        RecentMessageCache cache = cache("simple", 10);
+        long readToken = cache.readToken(1L, 2L);
+
+        cache.append(List.of(message(3L, 2L, 1L), message(4L, 5L, 6L)));
+        cache.load(1L, 2L, page(2, 1), readToken);
+
+        assertThat(cache.findFirstPage(1L, 2L, 10)).isPresent();
+    }
+
+    @Test
+    void invalidate_dropsWindowAndNotifiesOtherNodes() {
+        RecentMessageCache cache = cache("redis", 10);
+        cache.load(1L, 2L, page(2, 1), cache.readToken(1L, 2L));
+
+        cache.invalidate(1L, 2L);
+
+        assertThat(cache.findFirstPage(1L, 2L, 10)).isEmpty();
+        verify(redisTemplate).convertAndSend(eq(RecentMessageCache.INVALIDATION_CHANNEL), anyString());
+    }
+
+    @Test
+    void updateStatus_changesCachedCopiesOnly() {
+        RecentMessageCache cache = cache("simple", 10);
+        cache.load(1L, 2L, page(2, 1), cache.readToken(1L, 2L));
+
+        cache.findFirstPage(1L, 2L, 10).orElseThrow().getContent().forEach(message -> message.setContent("changed"));
+        cache.updateStatus(1L, 2L, List.of(2L), MessageStatus.DELIVERED);
+
+        List<Message> messages = cache.findFirstPage(1L, 2L, 10).orElseThrow().getContent();
+        assertThat(messages).extracting(Message::getStatus).containsExactly(MessageStatus.DELIVERED, MessageStatus.RECEIVED);
+        assertThat(messages).extracting(Message::getContent).containsExactly("message 2", "message 1");
+        assertThat(meterRegistry.get("chat.recent-messages.bytes").gauge().value()).isPositive();
+    }
+
+    private RecentMessageCache cache(String brokerMode, int capacity) {
+        return new RecentMessageCache(redisTemplate, meterRegistry, brokerMode, capacity, DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    }
+
+    private static Page<Message> page(long... ids) {
+        List<Message> messages = LongStream.of(ids).mapToObj(id -> message(id, 1L, 2L)).toList();
+        return new PageImpl<>(messages, PageRequest.of(0, 10), messages.size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.halcyon.chatservice.support.Notification;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs three chat nodes against one Redis and checks that a message sent on one node reaches the
+ * user's sessions on another, and only there.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisUserMessageRouterTests {
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7.4.0-alpine")
+            .withExposedPorts(6379);
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+    private static final List<Node> NODES = new ArrayList<>();
+
+    private static Node nodeA;
+    private static Node nodeB;
+    private static Node nodeC;
+
+    @BeforeAll
+    static void setUp() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+        nodeC = startNode("node-c");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        for (Node node : NODES) {
+            node.container.destroy();
+            node.connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void sendToUser_remoteSession_isDeliveredOnItsNodeOnly() {
+        nodeB.registry.register("42", "session-1");
+
+        nodeA.router.sendToUser(42, "/queue/messages", new Notification(7L, 1L, "sender"));
+
+        ArgumentCaptor<JsonNode> payload = ArgumentCaptor.forClass(JsonNode.class);
+        verify(nodeB.messagingTemplate, timeout(5000)).convertAndSendToUser(eq("42"), eq("/queue/messages"), payload.capture());
+        assertThat(payload.getValue().get("messageId").asLong()).isEqualTo(7L);
+        assertThat(payload.getValue().get("senderName").asText()).isEqualTo("sender");
+
+        verify(nodeA.messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+        verify(nodeC.messagingTemplate, after(500).never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void sendToUser_afterLastSessionDisconnects_isNotRouted() {
+        nodeC.registry.register("43", "session-2");
+        nodeC.registry.unregister("43", "session-2");
+
+        assertThat(nodeA.registry.findRemoteNodes("43")).isEmpty();
+
+        nodeA.router.sendToUser(43, "/queue/messages", new Notification(8L, 1L, "sender"));
+
+        verify(nodeC.messagingTemplate, after(500).never()).convertAndSendToUser(eq("43"), anyString(), any());
+    }
+
+    @Test
+    void findRemoteNodes_nodeStoppedHeartbeating_isIgnoredWhileOthersKeepUserAlive() {
+        RedisUserSessionRegistry deadNode = new RedisUserSessionRegistry(new StringRedisTemplate(nodeA.connectionFactory),
+                "node-dead", Duration.ofMinutes(1), event -> { }, Clock.offset(Clock.systemUTC(), Duration.ofMinutes(-2)));
+        deadNode.register("44", "session-3");
+        nodeB.registry.register("44", "session-4");
+
+        assertThat(nodeA.registry.findRemoteNodes("44")).containsExactly("node-b");
+    }
+
+    private static Node startNode(String nodeId) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+        RedisUserSessionRegistry registry = new RedisUserSessionRegistry(redisTemplate, nodeId, Duration.ofMinutes(1), event -> { });
+        RedisUserMessageRouter router = new RedisUserMessageRouter(registry, redisTemplate, messagingTemplate, OBJECT_MAPPER);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(router, new ChannelTopic(RedisUserMessageRouter.channelOf(nodeId)));
+        container.afterPropertiesSet();
+        container.start();
+
+        Node node = new Node(connectionFactory, container, messagingTemplate, registry, router);
+        NODES.add(node);
+        return node;
+    }
+
+    private record Node(LettuceConnectionFactory connectionFactory, RedisMessageListenerContainer container,
+                        SimpMessagingTemplate messagingTemplate, RedisUserSessionRegistry registry,
+                        RedisUserMessageRouter router) {
+    }
+}
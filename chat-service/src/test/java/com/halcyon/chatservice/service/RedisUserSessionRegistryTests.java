@@ -0,0 +1,115 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.service.RedisUserSessionRegistry.PresenceChange;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several registries against one Redis and checks that every presence change is reported exactly once,
+ * including the ones of a node that died.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisUserSessionRegistryTests {
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7.4.0-alpine")
+            .withExposedPorts(6379);
+
+    private static final Duration SESSION_TTL = Duration.ofMinutes(1);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void register_sameUserOnTwoNodesConcurrently_reportsOnlineOnce() {
+        RedisUserSessionRegistry nodeA = registry("node-a", Clock.systemUTC());
+        RedisUserSessionRegistry nodeB = registry("node-b", Clock.systemUTC());
+
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> nodeA.register("1", "session-a")),
+                CompletableFuture.runAsync(() -> nodeB.register("1", "session-b"))
+        ).join();
+
+        assertThat(events).containsExactly(new PresenceChange("1", true));
+
+        nodeA.unregister("1", "session-a");
+        nodeB.unregister("1", "session-b");
+
+        assertThat(events).containsExactly(new PresenceChange("1", true), new PresenceChange("1", false));
+    }
+
+    @Test
+    void refresh_otherNodeStoppedHeartbeating_reportsItsUsersOffline() {
+        RedisUserSessionRegistry deadNode = registry("node-dead", Clock.offset(Clock.systemUTC(), SESSION_TTL.multipliedBy(-2)));
+        RedisUserSessionRegistry survivor = registry("node-a", Clock.systemUTC());
+        deadNode.register("2", "session-dead");
+        survivor.register("3", "session-a");
+        deadNode.register("3", "session-dead");
+        events.clear();
+
+        assertThat(survivor.findOnline(List.of("2", "3"))).isEqualTo(Map.of("2", false, "3", true));
+
+        survivor.refresh();
+        survivor.refresh();
+
+        assertThat(events).containsExactly(new PresenceChange("2", false));
+    }
+
+    @Test
+    void leave_usersHiddenAtOnceAndReportedOfflineBySurvivor() {
+        RedisUserSessionRegistry leaving = registry("node-b", Clock.systemUTC());
+        RedisUserSessionRegistry survivor = registry("node-a", Clock.systemUTC());
+        leaving.register("4", "session-b");
+        events.clear();
+
+        leaving.leave();
+
+        assertThat(survivor.findOnline(List.of("4"))).isEqualTo(Map.of("4", false));
+
+        survivor.refresh();
+
+        assertThat(events).containsExactly(new PresenceChange("4", false));
+    }
+
+    private RedisUserSessionRegistry registry(String nodeId, Clock clock) {
+        return new RedisUserSessionRegistry(redisTemplate, nodeId, SESSION_TTL, events::add, clock);
+    }
+}
@@ -0,0 +1,124 @@
+package com.halcyon.chatservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.chatservice.support.SyncMode;
+import com.halcyon.clients.user.PrivateUserResponse;
+import com.halcyon.clients.user.UserClient;
+import com.halcyon.jwtlibrary.AuthProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTests {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuthProvider authProvider;
+
+    @Mock
+    private UserClient userClient;
+
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        syncService = new SyncService(jdbcTemplate, objectMapper, authProvider, userClient);
+        ReflectionTestUtils.setField(syncService, "batchSize", 2);
+        ReflectionTestUtils.setField(syncService, "maxEntries", 3);
+        ReflectionTestUtils.setField(syncService, "fullWindow", Duration.ofDays(30));
+
+        when(authProvider.getSubject()).thenReturn("user@mail.com");
+        when(userClient.getByEmail(any(), any())).thenReturn(PrivateUserResponse.builder().id(1L).build());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_knownDevice_streamsDeltaInBatchesUpToLimit() throws Exception {
+        when(jdbcTemplate.query(startsWith("SELECT change_seq"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> cursorRow(invocation.getArgument(1), 7L, Instant.now()));
+        when(jdbcTemplate.query(startsWith("SELECT id"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> rows(invocation.getArgument(1), 8L, 9L))
+                .thenAnswer(invocation -> rows(invocation.getArgument(1), 10L));
+
+        List<JsonNode> lines = stream(SyncMode.DELTA);
+
+        assertThat(lines).extracting(line -> line.get("type").asText())
+                .containsExactly("message", "message", "message", "cursor");
+        assertThat(lines.get(0).get("message").get("id").asLong()).isEqualTo(8L);
+        assertThat(lines.get(3).get("cursor").asLong()).isEqualTo(10L);
+        assertThat(lines.get(3).get("hasMore").asBoolean()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_unknownDevice_fallsBackToFullSync() throws Exception {
+        when(jdbcTemplate.query(startsWith("SELECT change_seq"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT id"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> rows(invocation.getArgument(1), 3L));
+
+        List<JsonNode> lines = stream(SyncMode.DELTA);
+
+        assertThat(lines).extracting(line -> line.get("type").asText())
+                .containsExactly("reset", "message", "cursor");
+        assertThat(lines.get(2).get("cursor").asLong()).isEqualTo(3L);
+        assertThat(lines.get(2).get("hasMore").asBoolean()).isFalse();
+    }
+
+    private List<JsonNode> stream(SyncMode mode) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        syncService.sync("phone", mode).writeTo(output);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static List<Object> cursorRow(RowMapper<Object> rowMapper, long changeSeq, Instant updatedAt) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("change_seq")).thenReturn(changeSeq);
+        when(resultSet.getTimestamp("updated_at")).thenReturn(Timestamp.from(updatedAt));
+        return List.of(rowMapper.mapRow(resultSet, 0));
+    }
+
+    private static List<Object> rows(RowMapper<Object> rowMapper, long... changeSeqs) throws Exception {
+        List<Object> rows = new ArrayList<>();
+        for (long changeSeq : changeSeqs) {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong(anyString())).thenReturn(changeSeq);
+            when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.from(Instant.parse("2024-05-01T10:00:00Z")));
+            when(resultSet.getString("content")).thenReturn("message " + changeSeq);
+            when(resultSet.getString("status")).thenReturn("RECEIVED");
+            rows.add(rowMapper.mapRow(resultSet, rows.size()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.halcyon.chatservice.service;
+
+import com.halcyon.chatservice.support.TypingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TypingIndicatorServiceTests {
+    private final UserMessageRouter userMessageRouter = mock(UserMessageRouter.class);
+    private final TypingIndicatorService typingIndicatorService = new TypingIndicatorService(userMessageRouter, Duration.ofMinutes(1), 1000);
+
+    @Test
+    void send_repeatedTyping_isForwardedOncePerInterval() {
+        assertThat(typingIndicatorService.send(1L, 2L, true)).isTrue();
+        assertThat(typingIndicatorService.send(1L, 2L, true)).isFalse();
+        assertThat(typingIndicatorService.send(2L, 1L, true)).isTrue();
+
+        verify(userMessageRouter).sendToUser(eq(2L), eq("/queue/typing"), any(TypingEvent.class));
+        verify(userMessageRouter).sendToUser(eq(1L), eq("/queue/typing"), any(TypingEvent.class));
+    }
+
+    @Test
+    void send_stoppedTyping_isAlwaysForwardedAndReopensWindow() {
+        typingIndicatorService.send(1L, 2L, true);
+
+        assertThat(typingIndicatorService.send(1L, 2L, false)).isTrue();
+        assertThat(typingIndicatorService.send(1L, 2L, true)).isTrue();
+
+        verify(userMessageRouter, times(3)).sendToUser(eq(2L), eq("/queue/typing"), any(TypingEvent.class));
+    }
+}
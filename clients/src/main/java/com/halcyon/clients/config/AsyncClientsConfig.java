@@ -0,0 +1,69 @@
+package com.halcyon.clients.config;
+
+import com.halcyon.clients.subscription.AsyncSubscriptionClient;
+import com.halcyon.clients.subscription.SubscriptionClient;
+import com.halcyon.clients.user.AsyncUserClient;
+import com.halcyon.clients.user.UserClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async variants of the Feign clients. Services import this class next to {@code @EnableFeignClients}; it is
+ * not a {@code @Configuration}, so applications that scan {@code com.halcyon.clients} without Feign clients
+ * don't pick it up.
+ */
+public class AsyncClientsConfig {
+    /**
+     * Threads of this pool only wait for responses of other services, so it is sized well above the number
+     * of cores. When it is saturated the caller makes the call itself and the lookups just run one after
+     * another, as they did before.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor clientExecutor(
+            @Value("${clients.executor.pool-size}") int poolSize,
+            @Value("${clients.executor.queue-capacity}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("client-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * With virtual threads every call gets its own thread, and {@code pool-size} only caps how many calls
+     * are in flight at once; further callers wait for a slot.
+     */
+    @Bean(name = "clientExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualClientExecutor(@Value("${clients.executor.pool-size}") int poolSize) {
+        return new SimpleAsyncTaskExecutorBuilder()
+                .virtualThreads(true)
+                .threadNamePrefix("client-")
+                .concurrencyLimit(poolSize)
+                .build();
+    }
+
+    @Bean
+    public AsyncUserClient asyncUserClient(UserClient userClient, @Qualifier("clientExecutor") Executor clientExecutor) {
+        return new AsyncUserClient(userClient, clientExecutor);
+    }
+
+    @Bean
+    public AsyncSubscriptionClient asyncSubscriptionClient(SubscriptionClient subscriptionClient,
+                                                           @Qualifier("clientExecutor") Executor clientExecutor) {
+        return new AsyncSubscriptionClient(subscriptionClient, clientExecutor);
+    }
+}
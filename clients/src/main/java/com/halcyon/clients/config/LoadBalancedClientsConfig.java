@@ -0,0 +1,31 @@
+package com.halcyon.clients.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Resolves user-service through Eureka with {@link UserServiceLoadBalancerConfig}. Calls go over the pooled
+ * Apache HttpClient 5 transport that Spring Cloud OpenFeign sets up once feign-hc5 is on the classpath.
+ * Services import this class next to {@code @EnableFeignClients}.
+ */
+@LoadBalancerClient(name = "user-service", configuration = UserServiceLoadBalancerConfig.class)
+public class LoadBalancedClientsConfig {
+    /**
+     * Publishes leased, available and pending connections of the Feign pool as {@code httpcomponents.httpclient.pool.*}.
+     * The pool is shared by all routes, the requests in flight to each instance are published by
+     * {@link com.halcyon.clients.loadbalancer.OutstandingRequests}.
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.halcyon.clients.config;
+
+import com.halcyon.clients.loadbalancer.LeastOutstandingRequestsLoadBalancer;
+import com.halcyon.clients.loadbalancer.OutstandingRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Beans of the load balancer context of user-service. Spring Cloud creates that context on its own, so this
+ * class must not be picked up by the application context.
+ */
+public class UserServiceLoadBalancerConfig {
+    /**
+     * Instances come from Eureka and are probed on {@code spring.cloud.loadbalancer.health-check.path}, so an
+     * instance that stops answering is skipped before Eureka evicts it. Probes give up after
+     * {@code clients.health-check.connect-timeout} and {@code clients.health-check.read-timeout}, a hung
+     * instance would otherwise stall every later probe.
+     */
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context, Environment environment) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(DurationStyle.detectAndParse(environment.getRequiredProperty("clients.health-check.connect-timeout")));
+        requestFactory.setReadTimeout(DurationStyle.detectAndParse(environment.getRequiredProperty("clients.health-check.read-timeout")));
+
+        return ServiceInstanceListSupplier.builder()
+                .withBlockingDiscoveryClient()
+                .withBlockingHealthChecks(RestClient.builder().requestFactory(requestFactory).build())
+                .build(context);
+    }
+
+    @Bean
+    public OutstandingRequests outstandingRequests(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new OutstandingRequests(serviceId, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> leastOutstandingRequestsLoadBalancer(
+            Environment environment,
+            ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            OutstandingRequests outstandingRequests
+    ) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastOutstandingRequestsLoadBalancer(serviceInstanceListSupplierProvider, outstandingRequests, serviceId);
+    }
+}
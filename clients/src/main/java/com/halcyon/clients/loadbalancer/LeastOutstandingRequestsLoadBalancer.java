@@ -0,0 +1,68 @@
+package com.halcyon.clients.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends each request to the healthy instance with the fewest requests in flight from this node, so a slow
+ * or overloaded instance gets less traffic instead of an equal share as with round robin.
+ */
+@Slf4j
+public class LeastOutstandingRequestsLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final OutstandingRequests outstandingRequests;
+    private final String serviceId;
+
+    public LeastOutstandingRequestsLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                                OutstandingRequests outstandingRequests,
+                                                String serviceId) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.outstandingRequests = outstandingRequests;
+        this.serviceId = serviceId;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+
+        return supplier.get(request)
+                .next()
+                .map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+
+        // Scanning from a random position spreads requests over instances with the same count
+        int start = ThreadLocalRandom.current().nextInt(instances.size());
+        ServiceInstance chosen = null;
+        int fewest = Integer.MAX_VALUE;
+
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance instance = instances.get((start + i) % instances.size());
+            int count = outstandingRequests.count(instance);
+
+            if (count < fewest) {
+                chosen = instance;
+                fewest = count;
+            }
+        }
+
+        return new DefaultResponse(chosen);
+    }
+}
@@ -0,0 +1,72 @@
+package com.halcyon.clients.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the requests this node currently has in flight to every instance of a service. The load balancer
+ * client reports the start and the completion of each call, whether it succeeded or not. Each count is
+ * published as {@code loadbalancer.requests.outstanding}, tagged with the service and the instance.
+ */
+public class OutstandingRequests implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final String serviceId;
+    private final MeterRegistry meterRegistry;
+
+    public OutstandingRequests(String serviceId, MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public int count(ServiceInstance instance) {
+        AtomicInteger count = counts.get(key(instance));
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            counts.computeIfAbsent(key(lbResponse.getServer()), this::register).incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+
+        AtomicInteger count = counts.get(key(lbResponse.getServer()));
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    private AtomicInteger register(String instance) {
+        AtomicInteger count = new AtomicInteger();
+        Gauge.builder("loadbalancer.requests.outstanding", count, AtomicInteger::get)
+                .description("Requests in flight from this node to one instance")
+                .tag("service", serviceId)
+                .tag("instance", instance)
+                .register(meterRegistry);
+        return count;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
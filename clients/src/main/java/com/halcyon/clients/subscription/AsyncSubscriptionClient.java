@@ -0,0 +1,26 @@
+package com.halcyon.clients.subscription;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Issues {@link SubscriptionClient} calls on the client executor, so a service can wait for several lookups at once.
+ */
+public class AsyncSubscriptionClient {
+    private final SubscriptionClient subscriptionClient;
+    private final Executor executor;
+
+    public AsyncSubscriptionClient(SubscriptionClient subscriptionClient, Executor executor) {
+        this.subscriptionClient = subscriptionClient;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<List<SubscriptionResponse>> getSubscribers(long targetId) {
+        return CompletableFuture.supplyAsync(() -> subscriptionClient.getSubscribers(targetId), executor);
+    }
+
+    public CompletableFuture<List<Integer>> getIdsOfUsersSubscribedByEmail(String email, String privateSecret) {
+        return CompletableFuture.supplyAsync(() -> subscriptionClient.getIdsOfUsersSubscribedByEmail(email, privateSecret), executor);
+    }
+}
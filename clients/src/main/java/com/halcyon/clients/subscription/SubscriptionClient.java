@@ -4,16 +4,20 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
 @FeignClient(
-        name = "subscriptions",
-        url = "http://localhost:8081"
+        name = "user-service",
+        contextId = "subscriptions"
 )
 public interface SubscriptionClient {
     @GetMapping("/api/v1/subscriptions/subscribers/target/{targetId}")
     List<SubscriptionResponse> getSubscribers(@PathVariable long targetId);
     @GetMapping("/api/v1/subscriptions/private/owner/{ownerId}")
     List<Integer> getEmailsOfUsersSubscribedByUser(@PathVariable long ownerId, @RequestHeader("PrivateSecret") String privateSecret);
+
+    @GetMapping("/api/v1/subscriptions/private/owner")
+    List<Integer> getIdsOfUsersSubscribedByEmail(@RequestParam("email") String email, @RequestHeader("PrivateSecret") String privateSecret);
 }
@@ -0,0 +1,29 @@
+package com.halcyon.clients.user;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Issues {@link UserClient} calls on the client executor, so a service can wait for several lookups at once.
+ */
+public class AsyncUserClient {
+    private final UserClient userClient;
+    private final Executor executor;
+
+    public AsyncUserClient(UserClient userClient, Executor executor) {
+        this.userClient = userClient;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<UserResponse> getById(long userId) {
+        return CompletableFuture.supplyAsync(() -> userClient.getById(userId), executor);
+    }
+
+    public CompletableFuture<PrivateUserResponse> getByEmail(String email, String privateSecret) {
+        return CompletableFuture.supplyAsync(() -> userClient.getByEmail(email, privateSecret), executor);
+    }
+
+    public CompletableFuture<PrivateUserResponse> getPrivateById(long userId, String privateSecret) {
+        return CompletableFuture.supplyAsync(() -> userClient.getPrivateById(userId, privateSecret), executor);
+    }
+}
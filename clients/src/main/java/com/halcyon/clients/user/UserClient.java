@@ -4,8 +4,8 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
 @FeignClient(
-        name = "users",
-        url = "http://localhost:8081"
+        name = "user-service",
+        contextId = "users"
 )
 public interface UserClient {
     @GetMapping("/api/v1/users/exists")
@@ -0,0 +1,20 @@
+package com.halcyon.clients.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class FutureUtil {
+    private FutureUtil() {}
+
+    /**
+     * Waits for the future and rethrows the exception of a failed call as it is, so callers and exception
+     * handlers see the same exception as with a blocking client.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.halcyon.clients.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeastOutstandingRequestsLoadBalancerTests {
+    private final ServiceInstance first = instance(1);
+    private final ServiceInstance second = instance(2);
+    private final ServiceInstance third = instance(3);
+    private final Request<Object> request = new DefaultRequest<>();
+
+    private final ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+    private final OutstandingRequests outstandingRequests = new OutstandingRequests("user-service", new SimpleMeterRegistry());
+    private final LeastOutstandingRequestsLoadBalancer loadBalancer = new LeastOutstandingRequestsLoadBalancer(
+            provider(supplier), outstandingRequests, "user-service");
+
+    @Test
+    void choose_picksInstanceWithFewestRequestsInFlight() {
+        when(supplier.get(any())).thenReturn(Flux.just(List.of(first, second, third)));
+        start(first, 2);
+        start(second, 1);
+        start(third, 3);
+
+        IntStream.range(0, 20).forEach(i -> assertThat(choose().getServer()).isSameAs(second));
+    }
+
+    @Test
+    void choose_tiedInstances_areAllPicked() {
+        when(supplier.get(any())).thenReturn(Flux.just(List.of(first, second, third)));
+        start(first, 1);
+
+        Set<ServiceInstance> chosen = new HashSet<>();
+        IntStream.range(0, 200).forEach(i -> chosen.add(choose().getServer()));
+
+        assertThat(chosen).containsExactlyInAnyOrder(second, third);
+    }
+
+    @Test
+    void choose_noInstances_returnsEmptyResponse() {
+        when(supplier.get(any())).thenReturn(Flux.just(List.of()));
+
+        assertThat(choose().hasServer()).isFalse();
+    }
+
+    private Response<ServiceInstance> choose() {
+        return loadBalancer.choose(request).block();
+    }
+
+    private void start(ServiceInstance instance, int requests) {
+        IntStream.range(0, requests).forEach(i -> outstandingRequests.onStartRequest(request, new DefaultResponse(instance)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ServiceInstanceListSupplier> provider(ServiceInstanceListSupplier supplier) {
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        return provider;
+    }
+
+    private static ServiceInstance instance(int number) {
+        return new DefaultServiceInstance("user-" + number, "user-service", "10.0.0." + number, 8080, false);
+    }
+}
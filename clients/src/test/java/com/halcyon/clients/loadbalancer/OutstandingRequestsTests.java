@@ -0,0 +1,63 @@
+package com.halcyon.clients.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutstandingRequestsTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutstandingRequests outstandingRequests = new OutstandingRequests("user-service", meterRegistry);
+    private final Request<Object> request = new DefaultRequest<>();
+    private final ServiceInstance instance = new DefaultServiceInstance("user-1", "user-service", "10.0.0.1", 8080, false);
+
+    @Test
+    void onComplete_decrementsOnSuccessAndOnFailure() {
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        outstandingRequests.onStartRequest(request, response);
+        outstandingRequests.onStartRequest(request, response);
+
+        assertThat(outstandingRequests.count(instance)).isEqualTo(2);
+
+        outstandingRequests.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+                new IllegalStateException("Connection refused"), request, response));
+        assertThat(outstandingRequests.count(instance)).isEqualTo(1);
+
+        outstandingRequests.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        assertThat(outstandingRequests.count(instance)).isZero();
+
+        // A completion reported twice must not push the count below zero
+        outstandingRequests.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        assertThat(outstandingRequests.count(instance)).isZero();
+    }
+
+    @Test
+    void onStartRequest_noServer_countsNothing() {
+        outstandingRequests.onStartRequest(request, new EmptyResponse());
+        outstandingRequests.onComplete(new CompletionContext<>(CompletionContext.Status.DISCARD, request, new EmptyResponse()));
+
+        assertThat(outstandingRequests.count(instance)).isZero();
+        assertThat(meterRegistry.find("loadbalancer.requests.outstanding").gauges()).isEmpty();
+    }
+
+    @Test
+    void onStartRequest_publishesCountPerInstance() {
+        ServiceInstance other = new DefaultServiceInstance("user-2", "user-service", "10.0.0.2", 8080, false);
+        outstandingRequests.onStartRequest(request, new DefaultResponse(instance));
+        outstandingRequests.onStartRequest(request, new DefaultResponse(instance));
+        outstandingRequests.onStartRequest(request, new DefaultResponse(other));
+
+        assertThat(meterRegistry.get("loadbalancer.requests.outstanding")
+                .tags("service", "user-service", "instance", "10.0.0.1:8080").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("loadbalancer.requests.outstanding")
+                .tags("service", "user-service", "instance", "10.0.0.2:8080").gauge().value()).isEqualTo(1);
+    }
+}
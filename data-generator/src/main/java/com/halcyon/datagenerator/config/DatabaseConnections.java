@@ -0,0 +1,50 @@
+package com.halcyon.datagenerator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+@Component
+public class DatabaseConnections {
+    @Value("${generator.datasource.user.url}")
+    private String userUrl;
+
+    @Value("${generator.datasource.user.username}")
+    private String userUsername;
+
+    @Value("${generator.datasource.user.password}")
+    private String userPassword;
+
+    @Value("${generator.datasource.media.url}")
+    private String mediaUrl;
+
+    @Value("${generator.datasource.media.username}")
+    private String mediaUsername;
+
+    @Value("${generator.datasource.media.password}")
+    private String mediaPassword;
+
+    @Value("${generator.datasource.chat.url}")
+    private String chatUrl;
+
+    @Value("${generator.datasource.chat.username}")
+    private String chatUsername;
+
+    @Value("${generator.datasource.chat.password}")
+    private String chatPassword;
+
+    public Connection userDatabase() throws SQLException {
+        return DriverManager.getConnection(userUrl, userUsername, userPassword);
+    }
+
+    public Connection mediaDatabase() throws SQLException {
+        return DriverManager.getConnection(mediaUrl, mediaUsername, mediaPassword);
+    }
+
+    public Connection chatDatabase() throws SQLException {
+        return DriverManager.getConnection(chatUrl, chatUsername, chatPassword);
+    }
+}
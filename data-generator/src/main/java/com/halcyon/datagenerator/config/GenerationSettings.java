@@ -0,0 +1,41 @@
+package com.halcyon.datagenerator.config;
+
+import com.halcyon.datagenerator.support.RankPermutation;
+import com.halcyon.datagenerator.support.SeededRandoms;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.random.RandomGenerator;
+
+@Getter
+@Component
+public class GenerationSettings {
+    private final SeededRandoms randoms;
+    private final boolean truncate;
+    private final Instant start;
+    private final Duration span;
+    private final int userCount;
+    private final RankPermutation popularity;
+
+    public GenerationSettings(
+            @Value("${generator.seed}") long seed,
+            @Value("${generator.truncate}") boolean truncate,
+            @Value("${generator.start}") Instant start,
+            @Value("${generator.span-days}") int spanDays,
+            @Value("${generator.users.count}") int userCount
+    ) {
+        this.randoms = new SeededRandoms(seed);
+        this.truncate = truncate;
+        this.start = start;
+        this.span = Duration.ofDays(spanDays);
+        this.userCount = userCount;
+        this.popularity = new RankPermutation(userCount);
+    }
+
+    public Instant randomInstant(RandomGenerator random) {
+        return start.plusMillis(random.nextLong(span.toMillis()));
+    }
+}
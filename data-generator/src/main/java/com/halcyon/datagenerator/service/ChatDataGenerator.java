@@ -0,0 +1,135 @@
+package com.halcyon.datagenerator.service;
+
+import com.halcyon.datagenerator.config.DatabaseConnections;
+import com.halcyon.datagenerator.config.GenerationSettings;
+import com.halcyon.datagenerator.support.CopyWriter;
+import com.halcyon.datagenerator.support.SchemaSupport;
+import com.halcyon.datagenerator.support.SeededRandoms;
+import com.halcyon.datagenerator.support.TextGenerator;
+import com.halcyon.datagenerator.support.ZipfSampler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatDataGenerator {
+    private static final int MAX_CONVERSATIONS_PER_USER = 500;
+    private static final int MAX_MESSAGES_PER_CONVERSATION = 5000;
+    private static final double MEAN_REPLY_GAP_SECONDS = 600;
+    private static final double EDIT_PROBABILITY = 0.02;
+    private static final String WRITE_CONVERSATIONS = """
+            WITH pair AS (
+                SELECT LEAST(sender_id, recipient_id) AS user_low_id, GREATEST(sender_id, recipient_id) AS user_high_id,
+                       id, created_at, content, sender_id, recipient_id, status
+                FROM messages
+            ), latest AS (
+                SELECT DISTINCT ON (user_low_id, user_high_id) user_low_id, user_high_id, id, sender_id, content, created_at
+                FROM pair
+                ORDER BY user_low_id, user_high_id, created_at DESC, id DESC
+            ), unread AS (
+                SELECT user_low_id, user_high_id,
+                       COUNT(*) FILTER (WHERE status = 'RECEIVED' AND recipient_id = user_low_id) AS low_unread_count,
+                       COUNT(*) FILTER (WHERE status = 'RECEIVED' AND recipient_id = user_high_id) AS high_unread_count
+                FROM pair
+                GROUP BY user_low_id, user_high_id
+            )
+            INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_sender_id,
+                                       last_message_preview, last_activity_at, low_unread_count, high_unread_count)
+            SELECT latest.user_low_id, latest.user_high_id, latest.id, latest.sender_id,
+                   LEFT(latest.content, 100), latest.created_at, unread.low_unread_count, unread.high_unread_count
+            FROM latest
+            JOIN unread USING (user_low_id, user_high_id)
+            """;
+
+    private final DatabaseConnections databaseConnections;
+    private final GenerationSettings settings;
+
+    @Value("${generator.messages.mean-conversations-per-user}")
+    private double meanConversationsPerUser;
+
+    @Value("${generator.messages.mean-per-conversation}")
+    private double meanMessagesPerConversation;
+
+    @Value("${generator.messages.popularity-exponent}")
+    private double popularityExponent;
+
+    @Value("${generator.messages.unread-probability}")
+    private double unreadProbability;
+
+    public void generate() throws SQLException {
+        try (Connection connection = databaseConnections.chatDatabase()) {
+            if (settings.isTruncate()) {
+                SchemaSupport.truncate(connection, "conversations", "messages");
+            }
+
+            writeMessages(connection);
+            writeConversations(connection);
+
+            SchemaSupport.resetSequences(connection, "messages");
+        }
+    }
+
+    /**
+     * Derives the conversation summaries from the copied messages, the same way the chat service keeps them:
+     * the newest message by creation time and the messages still {@code RECEIVED} as unread. Two users can pick
+     * each other while generating, so the summaries are aggregated in the database rather than while copying.
+     * Read watermarks stay empty until a client sends read receipts.
+     */
+    private void writeConversations(Connection connection) throws SQLException {
+        long startedAt = System.nanoTime();
+
+        try (Statement statement = connection.createStatement()) {
+            int rows = statement.executeUpdate(WRITE_CONVERSATIONS);
+            log.info("Wrote {} conversations in {} s", rows, (System.nanoTime() - startedAt) / 1_000_000_000);
+        }
+    }
+
+    private void writeMessages(Connection connection) throws SQLException {
+        int userCount = settings.getUserCount();
+        ZipfSampler peers = new ZipfSampler(userCount, popularityExponent);
+        long conversationId = 0;
+        long messageId = 0;
+
+        try (CopyWriter writer = new CopyWriter(connection, "messages",
+                "id", "created_at", "content", "sender_id", "recipient_id", "is_changed", "status")) {
+            for (long userId = 1; userId <= userCount; userId++) {
+                SplittableRandom conversations = settings.getRandoms().of(SeededRandoms.Stream.CONVERSATIONS, userId);
+                int count = SeededRandoms.logNormalCount(
+                        conversations, meanConversationsPerUser, 1.0, MAX_CONVERSATIONS_PER_USER);
+
+                for (int i = 0; i < count; i++) {
+                    long peerId = settings.getPopularity().idOf(peers.sample(conversations));
+                    if (peerId == userId) {
+                        continue;
+                    }
+
+                    SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.MESSAGES, ++conversationId);
+                    int messages = SeededRandoms.logNormalCount(
+                            random, meanMessagesPerConversation, 1.3, MAX_MESSAGES_PER_CONVERSATION);
+                    int unreadTail = random.nextDouble() < unreadProbability ? 1 + random.nextInt(5) : 0;
+                    Instant sentAt = settings.randomInstant(random);
+
+                    for (int j = 0; j < messages; j++) {
+                        boolean fromUser = random.nextBoolean();
+                        String status = j >= messages - unreadTail ? "RECEIVED" : "DELIVERED";
+                        sentAt = sentAt.plusMillis(1 + Math.round(
+                                -Math.log(1 - random.nextDouble()) * MEAN_REPLY_GAP_SECONDS * 1000));
+
+                        writer.row(++messageId, sentAt, TextGenerator.sentence(random, 1, 25, 1000),
+                                fromUser ? userId : peerId, fromUser ? peerId : userId,
+                                random.nextDouble() < EDIT_PROBABILITY, status);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.halcyon.datagenerator.service;
+
+import com.halcyon.datagenerator.config.GenerationSettings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The three databases share no foreign keys, so each one is loaded on its own connection in parallel.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataGenerationRunner implements CommandLineRunner {
+    private final GenerationSettings settings;
+    private final UserDataGenerator userDataGenerator;
+    private final MediaDataGenerator mediaDataGenerator;
+    private final ChatDataGenerator chatDataGenerator;
+
+    @Override
+    public void run(String... args) {
+        log.info("Generating data set for {} users", settings.getUserCount());
+        long startedAt = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> run("user", userDataGenerator::generate), executor),
+                    CompletableFuture.runAsync(() -> run("media", mediaDataGenerator::generate), executor),
+                    CompletableFuture.runAsync(() -> run("chat", chatDataGenerator::generate), executor)
+            ).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        log.info("Data set generated in {} s", (System.nanoTime() - startedAt) / 1_000_000_000);
+    }
+
+    private void run(String database, Generation generation) {
+        try {
+            generation.generate();
+        } catch (Exception e) {
+            throw new CompletionException("Failed to generate " + database + " data", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Generation {
+        void generate() throws Exception;
+    }
+}
@@ -0,0 +1,154 @@
+package com.halcyon.datagenerator.service;
+
+import com.halcyon.datagenerator.config.DatabaseConnections;
+import com.halcyon.datagenerator.config.GenerationSettings;
+import com.halcyon.datagenerator.support.CopyWriter;
+import com.halcyon.datagenerator.support.SchemaSupport;
+import com.halcyon.datagenerator.support.SeededRandoms;
+import com.halcyon.datagenerator.support.TextGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Posts, ratings and comments are written in three COPY passes. Each post's ratings and comments are derived
+ * from their own random stream, so the passes regenerate exactly the same rows the post counters were computed from.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaDataGenerator {
+    private static final int MAX_POSTS_PER_USER = 1000;
+    private static final int MAX_COMMENTS_PER_POST = 2000;
+    private static final long MAX_RATING_DELAY_MILLIS = Duration.ofDays(30).toMillis();
+    private static final long MAX_COMMENT_GAP_MILLIS = Duration.ofHours(6).toMillis();
+
+    private final DatabaseConnections databaseConnections;
+    private final GenerationSettings settings;
+
+    @Value("${generator.posts.mean-per-user}")
+    private double meanPostsPerUser;
+
+    @Value("${generator.posts.comments.mean-per-post}")
+    private double meanCommentsPerPost;
+
+    @Value("${generator.posts.comments.reply-probability}")
+    private double replyProbability;
+
+    @Value("${generator.posts.ratings.mean-per-post}")
+    private double meanRatingsPerPost;
+
+    @Value("${generator.posts.ratings.like-probability}")
+    private double likeProbability;
+
+    public void generate() throws SQLException {
+        try (Connection connection = databaseConnections.mediaDatabase()) {
+            if (settings.isTruncate()) {
+                SchemaSupport.truncate(connection, "ratings", "comments", "posts");
+            }
+
+            writePosts(connection);
+            writeRatings(connection);
+            writeComments(connection);
+
+            SchemaSupport.resetSequences(connection, "posts", "ratings", "comments");
+        }
+    }
+
+    private void writePosts(Connection connection) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(connection, "posts",
+                "id", "created_at", "title", "content", "owner_id", "likes_count", "dislikes_count")) {
+            forEachPost((postId, ownerId, createdAt, random) -> {
+                int[] likes = new int[2];
+                forEachRating(postId, createdAt, (raterId, isLike, ratedAt) -> likes[isLike ? 0 : 1]++);
+
+                writer.row(postId, createdAt, TextGenerator.sentence(random, 2, 8, 100),
+                        TextGenerator.sentence(random, 5, 60, 500), ownerId, likes[0], likes[1]);
+            });
+        }
+    }
+
+    private void writeRatings(Connection connection) throws SQLException {
+        long[] ratingId = {0};
+
+        try (CopyWriter writer = new CopyWriter(connection, "ratings",
+                "id", "created_at", "is_like", "owner_id", "post_id")) {
+            forEachPost((postId, ownerId, createdAt, random) ->
+                    forEachRating(postId, createdAt, (raterId, isLike, ratedAt) ->
+                            writer.row(++ratingId[0], ratedAt, isLike, raterId, postId)));
+        }
+    }
+
+    private void writeComments(Connection connection) throws SQLException {
+        long[] commentId = {0};
+
+        try (CopyWriter writer = new CopyWriter(connection, "comments",
+                "id", "created_at", "content", "author_id", "post_id", "parent_id")) {
+            forEachPost((postId, ownerId, createdAt, postRandom) -> {
+                SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.COMMENTS, postId);
+                int count = SeededRandoms.logNormalCount(random, meanCommentsPerPost, 1.5, MAX_COMMENTS_PER_POST);
+                long firstId = commentId[0] + 1;
+                Instant commentedAt = createdAt;
+
+                for (int i = 0; i < count; i++) {
+                    Long parentId = i > 0 && random.nextDouble() < replyProbability
+                            ? firstId + random.nextInt(i)
+                            : null;
+                    commentedAt = commentedAt.plusMillis(1 + random.nextLong(MAX_COMMENT_GAP_MILLIS));
+
+                    writer.row(++commentId[0], commentedAt, TextGenerator.sentence(random, 1, 40, 500),
+                            1 + random.nextInt(settings.getUserCount()), postId, parentId);
+                }
+            });
+        }
+    }
+
+    private void forEachPost(PostVisitor visitor) throws SQLException {
+        long postId = 0;
+
+        for (long ownerId = 1; ownerId <= settings.getUserCount(); ownerId++) {
+            SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.POSTS, ownerId);
+            int count = SeededRandoms.logNormalCount(random, meanPostsPerUser, 1.5, MAX_POSTS_PER_USER);
+
+            for (int i = 0; i < count; i++) {
+                visitor.visit(++postId, ownerId, settings.randomInstant(random), random);
+            }
+        }
+    }
+
+    private void forEachRating(long postId, Instant postCreatedAt, RatingVisitor visitor) throws SQLException {
+        SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.RATINGS, postId);
+        int userCount = settings.getUserCount();
+        int count = SeededRandoms.logNormalCount(random, meanRatingsPerPost, 1.6, userCount);
+        Set<Long> raters = new HashSet<>(count * 2);
+
+        for (int attempt = 0; raters.size() < count && attempt < count * 4; attempt++) {
+            long raterId = 1 + random.nextInt(userCount);
+            boolean isLike = random.nextDouble() < likeProbability;
+            Instant ratedAt = postCreatedAt.plusMillis(random.nextLong(MAX_RATING_DELAY_MILLIS));
+
+            if (raters.add(raterId)) {
+                visitor.visit(raterId, isLike, ratedAt);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PostVisitor {
+        void visit(long postId, long ownerId, Instant createdAt, SplittableRandom random) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RatingVisitor {
+        void visit(long raterId, boolean isLike, Instant ratedAt) throws SQLException;
+    }
+}
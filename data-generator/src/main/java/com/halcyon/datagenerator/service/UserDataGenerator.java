@@ -0,0 +1,117 @@
+package com.halcyon.datagenerator.service;
+
+import com.halcyon.datagenerator.config.DatabaseConnections;
+import com.halcyon.datagenerator.config.GenerationSettings;
+import com.halcyon.datagenerator.support.CopyWriter;
+import com.halcyon.datagenerator.support.SchemaSupport;
+import com.halcyon.datagenerator.support.SeededRandoms;
+import com.halcyon.datagenerator.support.TextGenerator;
+import com.halcyon.datagenerator.support.ZipfSampler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDataGenerator {
+    private static final int MAX_SUBSCRIPTIONS_PER_USER = 5000;
+
+    private final DatabaseConnections databaseConnections;
+    private final GenerationSettings settings;
+
+    @Value("${generator.users.password}")
+    private String password;
+
+    @Value("${generator.users.banned-ratio}")
+    private double bannedRatio;
+
+    @Value("${generator.users.subscriptions.mean}")
+    private double meanSubscriptions;
+
+    @Value("${generator.users.subscriptions.popularity-exponent}")
+    private double popularityExponent;
+
+    @Value("${generator.users.strikes.ratio}")
+    private double strikesRatio;
+
+    public void generate() throws SQLException {
+        try (Connection connection = databaseConnections.userDatabase()) {
+            if (settings.isTruncate()) {
+                SchemaSupport.truncate(connection, "strikes", "subscriptions", "users");
+            }
+
+            writeUsers(connection);
+            writeSubscriptions(connection);
+            writeStrikes(connection);
+
+            SchemaSupport.resetSequences(connection, "users", "subscriptions", "strikes");
+        }
+    }
+
+    private void writeUsers(Connection connection) throws SQLException {
+        String passwordHash = new BCryptPasswordEncoder().encode(password);
+
+        try (CopyWriter writer = new CopyWriter(connection, "users",
+                "id", "email", "username", "about", "password", "avatar_path",
+                "is_verified", "is_banned", "is_using_2fa", "auth_provider", "secret")) {
+            for (long id = 1; id <= settings.getUserCount(); id++) {
+                SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.USERS, id);
+                String about = random.nextInt(3) == 0 ? TextGenerator.sentence(random, 3, 20, 500) : null;
+                boolean isBanned = random.nextDouble() < bannedRatio;
+
+                writer.row(id, "user" + id + "@example.com", "user" + id, about, passwordHash, null,
+                        true, isBanned, false, "local", null);
+            }
+        }
+    }
+
+    private void writeSubscriptions(Connection connection) throws SQLException {
+        int userCount = settings.getUserCount();
+        ZipfSampler targets = new ZipfSampler(userCount, popularityExponent);
+        int maxPerUser = Math.min(userCount - 1, MAX_SUBSCRIPTIONS_PER_USER);
+        long subscriptionId = 0;
+
+        try (CopyWriter writer = new CopyWriter(connection, "subscriptions", "id", "owner_id", "target_id")) {
+            for (long ownerId = 1; ownerId <= userCount; ownerId++) {
+                SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.SUBSCRIPTIONS, ownerId);
+                int count = SeededRandoms.logNormalCount(random, meanSubscriptions, 1.2, maxPerUser);
+                Set<Long> chosen = new HashSet<>(count * 2);
+
+                for (int attempt = 0; chosen.size() < count && attempt < count * 4; attempt++) {
+                    long targetId = settings.getPopularity().idOf(targets.sample(random));
+
+                    if (targetId != ownerId && chosen.add(targetId)) {
+                        writer.row(++subscriptionId, ownerId, targetId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeStrikes(Connection connection) throws SQLException {
+        int userCount = settings.getUserCount();
+        ZipfSampler targets = new ZipfSampler(userCount, popularityExponent);
+        long strikesCount = Math.round(userCount * strikesRatio);
+
+        try (CopyWriter writer = new CopyWriter(connection, "strikes", "id", "cause", "owner_id", "target_id")) {
+            for (long id = 1; id <= strikesCount; id++) {
+                SplittableRandom random = settings.getRandoms().of(SeededRandoms.Stream.STRIKES, id);
+                long ownerId = 1 + random.nextInt(userCount);
+                long targetId = settings.getPopularity().idOf(targets.sample(random));
+
+                if (targetId != ownerId) {
+                    writer.row(id, TextGenerator.sentence(random, 3, 15, 500), ownerId, targetId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.halcyon.datagenerator.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams CSV rows into a {@code COPY ... FROM STDIN} statement, flushing in fixed-size chunks.
+ */
+@Slf4j
+public final class CopyWriter implements AutoCloseable {
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+
+    private final String table;
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 4096);
+    private final long startedAt = System.nanoTime();
+    private long rows;
+
+    public CopyWriter(Connection connection, String table, String... columns) throws SQLException {
+        this.table = table;
+        this.copyIn = connection.unwrap(PGConnection.class)
+                .getCopyAPI()
+                .copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+    }
+
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+
+            append(values[i]);
+        }
+
+        buffer.append('\n');
+        rows++;
+
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+        copyIn.endCopy();
+
+        double seconds = Math.max((System.nanoTime() - startedAt) / 1e9, 1e-9);
+        log.info("Copied {} rows into '{}' in {} s ({} rows/s)",
+                rows, table, String.format("%.1f", seconds), Math.round(rows / seconds));
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+
+        if (value instanceof Instant instant) {
+            buffer.append(TIMESTAMP_FORMAT.format(instant));
+        } else if (value instanceof String string) {
+            buffer.append('"').append(string.replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.halcyon.datagenerator.support;
+
+/**
+ * Maps popularity ranks to user ids with a fixed bijection, so celebrities are spread over the id space
+ * instead of all being the first accounts created.
+ */
+public final class RankPermutation {
+    private static final long MULTIPLIER = 2_654_435_761L;
+
+    private final long size;
+    private final long multiplier;
+
+    public RankPermutation(long size) {
+        this.size = size;
+
+        long candidate = size <= 2 ? 1 : Math.max(MULTIPLIER % size, 2);
+        while (gcd(candidate, size) != 1) {
+            candidate++;
+        }
+
+        this.multiplier = candidate;
+    }
+
+    public long idOf(int rank) {
+        return Math.floorMod((rank - 1) * multiplier, size) + 1;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,31 @@
+package com.halcyon.datagenerator.support;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public final class SchemaSupport {
+    private SchemaSupport() {
+    }
+
+    public static void truncate(Connection connection, String... tables) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE " + String.join(", ", tables) + " RESTART IDENTITY CASCADE");
+        }
+    }
+
+    /**
+     * Moves each id sequence past the copied rows. With the sequences incrementing by 50, the next value is
+     * MAX(id) + 50, which Hibernate's pooled optimizer reads as the block MAX(id) + 1 .. MAX(id) + 50.
+     */
+    public static void resetSequences(Connection connection, String... tables) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                statement.execute(
+                        "SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                                "GREATEST((SELECT MAX(id) FROM " + table + "), 1))"
+                );
+            }
+        }
+    }
+}
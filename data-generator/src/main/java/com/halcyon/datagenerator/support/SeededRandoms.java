@@ -0,0 +1,39 @@
+package com.halcyon.datagenerator.support;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives an independent random stream per (stream, entity) pair from a single seed.
+ * Every entity can therefore be regenerated on its own, in any order, with identical output.
+ */
+public final class SeededRandoms {
+    private final long seed;
+
+    public SeededRandoms(long seed) {
+        this.seed = seed;
+    }
+
+    public SplittableRandom of(Stream stream, long entityId) {
+        return new SplittableRandom(mix(seed ^ mix(stream.ordinal() + 1L) ^ mix(entityId * 0x9E3779B97F4A7C15L)));
+    }
+
+    public static int logNormalCount(SplittableRandom random, double mean, double sigma, int max) {
+        if (mean <= 0) {
+            return 0;
+        }
+
+        double mu = Math.log(mean) - sigma * sigma / 2;
+        long count = Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        return (int) Math.min(count, max);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public enum Stream {
+        USERS, SUBSCRIPTIONS, STRIKES, POSTS, COMMENTS, RATINGS, CONVERSATIONS, MESSAGES
+    }
+}
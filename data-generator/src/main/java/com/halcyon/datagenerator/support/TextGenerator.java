@@ -0,0 +1,40 @@
+package com.halcyon.datagenerator.support;
+
+import java.util.random.RandomGenerator;
+
+public final class TextGenerator {
+    private static final String[] WORDS = {
+            "the", "a", "social", "network", "post", "today", "friends", "weekend", "coffee", "city",
+            "music", "photo", "travel", "work", "code", "java", "spring", "game", "movie", "book",
+            "sun", "rain", "morning", "night", "great", "new", "old", "really", "think", "love",
+            "see", "you", "soon", "here", "there", "what", "why", "how", "when", "where",
+            "happy", "tired", "busy", "ready", "lunch", "dinner", "meeting", "trip", "idea", "plan"
+    };
+
+    private TextGenerator() {
+    }
+
+    public static String sentence(RandomGenerator random, int minWords, int maxWords, int maxLength) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder builder = new StringBuilder(words * 7);
+
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (builder.length() + word.length() + 1 > maxLength) {
+                break;
+            }
+
+            if (i > 0) {
+                builder.append(' ');
+            }
+
+            builder.append(word);
+        }
+
+        if (!builder.isEmpty()) {
+            builder.setCharAt(0, Character.toUpperCase(builder.charAt(0)));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.halcyon.datagenerator.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTests {
+    @Test
+    void sample_SameSeed_ReturnsSameSequence() {
+        ZipfSampler sampler = new ZipfSampler(1_000_000, 1.05);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(sampler.sample(first), sampler.sample(second));
+        }
+    }
+
+    @Test
+    void sample_ReturnsRanksWithinBoundsSkewedTowardsTop() {
+        int n = 10_000;
+        ZipfSampler sampler = new ZipfSampler(n, 1.05);
+        SplittableRandom random = new SplittableRandom(7);
+        int topRanks = 0;
+        int samples = 100_000;
+
+        for (int i = 0; i < samples; i++) {
+            int rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= n);
+
+            if (rank <= n / 100) {
+                topRanks++;
+            }
+        }
+
+        assertTrue(topRanks > samples / 2);
+    }
+
+    @Test
+    void idOf_CoversEveryUserExactlyOnce() {
+        int size = 9_999;
+        RankPermutation permutation = new RankPermutation(size);
+        boolean[] seen = new boolean[size + 1];
+
+        for (int rank = 1; rank <= size; rank++) {
+            int id = (int) permutation.idOf(rank);
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+
+    @Test
+    void of_SameStreamAndEntity_ReturnsSameRandom() {
+        SeededRandoms randoms = new SeededRandoms(42);
+
+        assertEquals(
+                randoms.of(SeededRandoms.Stream.POSTS, 17).nextLong(),
+                randoms.of(SeededRandoms.Stream.POSTS, 17).nextLong()
+        );
+        assertNotEquals(
+                randoms.of(SeededRandoms.Stream.POSTS, 17).nextLong(),
+                randoms.of(SeededRandoms.Stream.COMMENTS, 17).nextLong()
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package com.halcyon.jwtlibrary;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +12,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 @RequiredArgsConstructor
@@ -22,22 +26,33 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
         String accessToken = getTokenFromRequest(request);
 
-        if (accessToken != null && jwtProvider.isValidAccessToken(accessToken)) {
-            if (tokenRevocationService.isRevoked(accessToken)) {
-                throw new TokenVerificationException();
-            }
+        if (accessToken != null) {
+            CompletableFuture<Boolean> revocation = tokenRevocationService.isRevokedAsync(accessToken).toCompletableFuture();
+            Optional<Claims> claims = jwtProvider.parseAccessToken(accessToken);
 
-            String subject = jwtProvider.extractEmail(accessToken);
+            if (claims.isPresent()) {
+                if (join(revocation)) {
+                    throw new TokenVerificationException();
+                }
 
-            JwtAuthentication jwtAuth = JwtUtil.getAuthentication(subject);
-            jwtAuth.setAuthenticated(true);
+                JwtAuthentication jwtAuth = JwtUtil.getAuthentication(claims.get().getSubject());
+                jwtAuth.setAuthenticated(true);
 
-            SecurityContextHolder.getContext().setAuthentication(jwtAuth);
+                SecurityContextHolder.getContext().setAuthentication(jwtAuth);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private boolean join(CompletableFuture<Boolean> revocation) {
+        try {
+            return revocation.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
 
@@ -1,5 +1,7 @@
 package com.halcyon.jwtlibrary;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -19,12 +21,16 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtProvider {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String HEADER_ALGORITHM = "alg";
+
     private final String issuer;
 
     private final int accessTokenValidity;
@@ -78,6 +84,56 @@ public class JwtProvider {
         }
     }
 
+    /**
+     * Verifies the signature and issuer of the access token and returns its claims, parsing the token only once.
+     */
+    public Optional<Claims> parseAccessToken(String accessToken) {
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(getPublicKey())
+                    .requireIssuer(issuer)
+                    .build()
+                    .parseSignedClaims(accessToken)
+                    .getPayload();
+
+            return Optional.of(claims);
+        } catch (Exception ignored) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the jti from the token payload without verifying the signature, so a revocation lookup can start
+     * while the signature is still being verified. The result must not be trusted until the token is verified.
+     * Only tokens that could have been issued here get a jti: three segments, an RS512 header, this issuer and
+     * an expiry in the future. Anything else is rejected by verification anyway and should not cost a Redis
+     * round trip.
+     */
+    public Optional<String> peekJti(String accessToken) {
+        String[] segments = accessToken.split("\\.", -1);
+
+        if (segments.length != 3 || segments[2].isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            JsonNode header = OBJECT_MAPPER.readTree(Decoders.BASE64URL.decode(segments[0]));
+            if (!Jwts.SIG.RS512.getId().equals(header.path(HEADER_ALGORITHM).asText())) {
+                return Optional.empty();
+            }
+
+            JsonNode payload = OBJECT_MAPPER.readTree(Decoders.BASE64URL.decode(segments[1]));
+            JsonNode jti = payload.get(Claims.ID);
+            boolean plausible = jti != null && jti.isTextual()
+                    && issuer.equals(payload.path(Claims.ISSUER).asText())
+                    && payload.path(Claims.EXPIRATION).asLong() * 1000 > System.currentTimeMillis();
+
+            return plausible ? Optional.of(jti.asText()) : Optional.empty();
+        } catch (Exception ignored) {
+            return Optional.empty();
+        }
+    }
+
     public String extractEmail(String accessToken) {
         return extractClaim(accessToken, Claims::getSubject);
     }
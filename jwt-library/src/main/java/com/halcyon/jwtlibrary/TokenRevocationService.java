@@ -1,11 +1,14 @@
 package com.halcyon.jwtlibrary;
 
 import com.halcyon.rediscache.CacheManager;
+import com.halcyon.rediscache.ReactiveCacheManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +19,7 @@ import java.time.Duration;
 public class TokenRevocationService {
     private final JwtProvider jwtProvider;
     private final CacheManager cacheManager;
+    private final ReactiveCacheManager reactiveCacheManager;
 
     public void revoke(String token) {
         String jti = jwtProvider.extractJti(token);
@@ -27,4 +31,14 @@ public class TokenRevocationService {
         String jti = jwtProvider.extractJti(accessToken);
         return cacheManager.isPresent(jti);
     }
+
+    /**
+     * Starts the revocation lookup for a token that has not been verified yet. The result only means something
+     * once the caller has verified the token, so join it after verification.
+     */
+    public CompletionStage<Boolean> isRevokedAsync(String accessToken) {
+        return jwtProvider.peekJti(accessToken)
+                .map(reactiveCacheManager::isPresentAsync)
+                .orElseGet(() -> CompletableFuture.completedFuture(false));
+    }
 }
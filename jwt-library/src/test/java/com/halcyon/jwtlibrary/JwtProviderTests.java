@@ -56,4 +56,40 @@ public class JwtProviderTests {
         String accessToken = jwtProvider.generateAccessToken("test@example.com");
         assertThat(jwtProvider.extractTimeUntilExpiration(accessToken)).isNotNull();
     }
+
+    @Test
+    void parseAccessToken() {
+        String accessToken = jwtProvider.generateAccessToken("test@example.com");
+
+        assertThat(jwtProvider.parseAccessToken(accessToken))
+                .hasValueSatisfying(claims -> assertThat(claims.getSubject()).isEqualTo("test@example.com"));
+        assertThat(jwtProvider.parseAccessToken(accessToken + "tampered")).isEmpty();
+    }
+
+    @Test
+    void peekJti() {
+        String accessToken = jwtProvider.generateAccessToken("test@example.com");
+
+        assertThat(jwtProvider.peekJti(accessToken)).contains(jwtProvider.extractJti(accessToken));
+        assertThat(jwtProvider.peekJti("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void peekJti_ImplausibleToken_Empty() {
+        String accessToken = jwtProvider.generateAccessToken("test@example.com");
+        String[] segments = accessToken.split("\\.");
+        String noneHeader = encode("{\"alg\":\"none\"}");
+        String foreignPayload = encode("{\"jti\":\"forged\",\"iss\":\"someone-else\",\"exp\":" + (System.currentTimeMillis() / 1000 + 60) + "}");
+        String expiredPayload = encode("{\"jti\":\"forged\",\"iss\":\"jwt-library\",\"exp\":1}");
+
+        assertThat(jwtProvider.peekJti(segments[0] + "." + segments[1] + ".")).isEmpty();
+        assertThat(jwtProvider.peekJti(noneHeader + "." + segments[1] + "." + segments[2])).isEmpty();
+        assertThat(jwtProvider.peekJti(segments[0] + "." + foreignPayload + "." + segments[2])).isEmpty();
+        assertThat(jwtProvider.peekJti(segments[0] + "." + expiredPayload + "." + segments[2])).isEmpty();
+        assertThat(jwtProvider.peekJti(accessToken + ".extra")).isEmpty();
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes());
+    }
 }
@@ -1,6 +1,7 @@
 package com.halcyon.jwtlibrary;
 
 import com.halcyon.rediscache.CacheManager;
+import com.halcyon.rediscache.ReactiveCacheManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -8,9 +9,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +27,9 @@ public class TokenRevocationServiceTests {
     @Mock
     private CacheManager cacheManager;
 
+    @Mock
+    private ReactiveCacheManager reactiveCacheManager;
+
     @InjectMocks
     private TokenRevocationService tokenRevocationService;
 
@@ -40,4 +49,20 @@ public class TokenRevocationServiceTests {
 
         verify(cacheManager).isPresent("test_jti");
     }
+
+    @Test
+    void isRevokedAsync() {
+        when(jwtProvider.peekJti(anyString())).thenReturn(Optional.of("test_jti"));
+        when(reactiveCacheManager.isPresentAsync("test_jti")).thenReturn(CompletableFuture.completedFuture(true));
+
+        assertTrue(tokenRevocationService.isRevokedAsync("test_token").toCompletableFuture().join());
+    }
+
+    @Test
+    void isRevokedAsync_MalformedToken_NotRevoked() {
+        when(jwtProvider.peekJti(anyString())).thenReturn(Optional.empty());
+
+        assertFalse(tokenRevocationService.isRevokedAsync("test_token").toCompletableFuture().join());
+        verifyNoInteractions(reactiveCacheManager);
+    }
 }
@@ -2,11 +2,16 @@ package com.halcyon.mediaservice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.clients.config.AsyncClientsConfig;
+import com.halcyon.clients.config.LoadBalancedClientsConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
+@EnableCaching
 @SpringBootApplication(
         scanBasePackages = {
                 "com.halcyon.mediaservice",
@@ -16,6 +21,7 @@ import org.springframework.context.annotation.Bean;
 @EnableFeignClients(
         basePackages = "com.halcyon.clients"
 )
+@Import({AsyncClientsConfig.class, LoadBalancedClientsConfig.class})
 public class MediaServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(MediaServiceApplication.class, args);
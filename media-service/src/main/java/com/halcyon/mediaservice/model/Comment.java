@@ -19,7 +19,8 @@ import java.util.List;
 @EqualsAndHashCode
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_id_seq")
+    @SequenceGenerator(name = "comments_id_seq", sequenceName = "comments_id_seq", allocationSize = 50)
     @Column(name = "id")
     @EqualsAndHashCode.Include
     private Long id;
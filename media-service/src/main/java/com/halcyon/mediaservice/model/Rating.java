@@ -16,7 +16,8 @@ import java.time.Instant;
 @EqualsAndHashCode
 public class Rating {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ratings_id_seq")
+    @SequenceGenerator(name = "ratings_id_seq", sequenceName = "ratings_id_seq", allocationSize = 50)
     @Column(name = "id")
     @EqualsAndHashCode.Include
     private Long id;
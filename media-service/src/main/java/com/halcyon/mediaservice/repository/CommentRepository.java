@@ -2,13 +2,30 @@ package com.halcyon.mediaservice.repository;
 
 import com.halcyon.mediaservice.model.Comment;
 import com.halcyon.mediaservice.model.Post;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String COMMENTS_BY_POST_CACHE = "commentsByPost";
+
+    @Cacheable(cacheNames = COMMENTS_BY_POST_CACHE, key = "#p0.id")
     List<Comment> findAllByPost(Post post);
+
+    @CacheEvict(cacheNames = COMMENTS_BY_POST_CACHE, key = "#p0.id")
     void deleteAllByPost(Post post);
+
+    @Override
+    @NonNull
+    @CacheEvict(cacheNames = COMMENTS_BY_POST_CACHE, key = "#p0.post.id")
+    <S extends Comment> S save(@NonNull S comment);
+
+    @Override
+    @CacheEvict(cacheNames = COMMENTS_BY_POST_CACHE, key = "#p0.post.id")
+    void delete(@NonNull Comment comment);
 }
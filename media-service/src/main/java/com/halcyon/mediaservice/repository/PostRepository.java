@@ -1,16 +1,46 @@
 package com.halcyon.mediaservice.repository;
 
 import com.halcyon.mediaservice.model.Post;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    String POSTS_CACHE = "posts";
+
     List<Post> findAllByOwnerId(long ownerId);
     Page<Post> findAllByOwnerIdNotIn(List<Integer> subscriptions, Pageable pageable);
     Page<Post> findAllByOwnerIdIn(List<Integer> subscriptions, Pageable pageable);
+
+    @Override
+    @NonNull
+    @Cacheable(cacheNames = POSTS_CACHE, key = "#p0", unless = "#result == null")
+    Optional<Post> findById(@NonNull Long id);
+
+    /**
+     * Comments embed their post, so the post's comment list is evicted as well.
+     */
+    @Override
+    @NonNull
+    @Caching(evict = {
+            @CacheEvict(cacheNames = POSTS_CACHE, key = "#p0.id", condition = "#p0.id != null"),
+            @CacheEvict(cacheNames = CommentRepository.COMMENTS_BY_POST_CACHE, key = "#p0.id", condition = "#p0.id != null")
+    })
+    <S extends Post> S save(@NonNull S post);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = POSTS_CACHE, key = "#p0.id"),
+            @CacheEvict(cacheNames = CommentRepository.COMMENTS_BY_POST_CACHE, key = "#p0.id")
+    })
+    void delete(@NonNull Post post);
 }
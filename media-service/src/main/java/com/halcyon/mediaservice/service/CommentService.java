@@ -1,5 +1,6 @@
 package com.halcyon.mediaservice.service;
 
+import com.halcyon.clients.user.AsyncUserClient;
 import com.halcyon.clients.user.PrivateUserResponse;
 import com.halcyon.clients.user.UserClient;
 import com.halcyon.jwtlibrary.AuthProvider;
@@ -15,7 +16,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
+import static com.halcyon.clients.util.FutureUtil.join;
 import static com.halcyon.clients.util.UserUtil.isUserBanned;
 import static com.halcyon.clients.util.UserUtil.isUserVerified;
 
@@ -28,18 +32,17 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final AuthProvider authProvider;
     private final UserClient userClient;
+    private final AsyncUserClient asyncUserClient;
     private final PostService postService;
 
     private static final String BANNED_USER_MESSAGE = "You are banned.";
     private static final String UNVERIFIED_USER_MESSAGE = "You are not verified. Please confirm your email.";
 
     public Comment create(CreateCommentDto dto) {
-        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        CompletableFuture<PrivateUserResponse> pendingUser = asyncUserClient.getByEmail(authProvider.getSubject(), privateSecret);
+        Post post = loadWhileFetchingUser(() -> postService.findById(dto.getPostId()), pendingUser);
+        PrivateUserResponse user = join(pendingUser);
 
-        isUserBanned(user, BANNED_USER_MESSAGE);
-        isUserVerified(user, UNVERIFIED_USER_MESSAGE);
-
-        Post post = postService.findById(dto.getPostId());
         Comment comment = Comment.builder()
                 .content(dto.getContent())
                 .authorId(user.getId())
@@ -50,12 +53,9 @@ public class CommentService {
     }
 
     public Comment create(CreateChildCommentDto dto) {
-        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
-
-        isUserBanned(user, BANNED_USER_MESSAGE);
-        isUserVerified(user, UNVERIFIED_USER_MESSAGE);
-
-        Comment parent = findById(dto.getParentId());
+        CompletableFuture<PrivateUserResponse> pendingUser = asyncUserClient.getByEmail(authProvider.getSubject(), privateSecret);
+        Comment parent = loadWhileFetchingUser(() -> findById(dto.getParentId()), pendingUser);
+        PrivateUserResponse user = join(pendingUser);
 
         Comment comment = Comment.builder()
                 .content(dto.getContent())
@@ -67,6 +67,28 @@ public class CommentService {
         return commentRepository.save(comment);
     }
 
+    /**
+     * Loads from the database while the user lookup is in flight. The user is checked before a failed load
+     * is rethrown, so a banned or unverified user is told so even when the post or comment doesn't exist.
+     */
+    private <T> T loadWhileFetchingUser(Supplier<T> load, CompletableFuture<PrivateUserResponse> pendingUser) {
+        T loaded;
+        try {
+            loaded = load.get();
+        } catch (RuntimeException e) {
+            isValidUser(join(pendingUser));
+            throw e;
+        }
+
+        isValidUser(join(pendingUser));
+        return loaded;
+    }
+
+    private void isValidUser(PrivateUserResponse user) {
+        isUserBanned(user, BANNED_USER_MESSAGE);
+        isUserVerified(user, UNVERIFIED_USER_MESSAGE);
+    }
+
     public String delete(long commentId) {
         PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
         isUserBanned(user, BANNED_USER_MESSAGE);
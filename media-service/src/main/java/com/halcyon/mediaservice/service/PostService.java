@@ -1,7 +1,9 @@
 package com.halcyon.mediaservice.service;
 
+import com.halcyon.clients.subscription.AsyncSubscriptionClient;
 import com.halcyon.clients.subscription.SubscriptionClient;
 import com.halcyon.clients.subscription.SubscriptionResponse;
+import com.halcyon.clients.user.AsyncUserClient;
 import com.halcyon.clients.user.PrivateUserResponse;
 import com.halcyon.clients.user.UserClient;
 import com.halcyon.jwtlibrary.AuthProvider;
@@ -22,8 +24,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
+import static com.halcyon.clients.util.FutureUtil.join;
 import static com.halcyon.clients.util.UserUtil.isUserBanned;
 import static com.halcyon.clients.util.UserUtil.isUserVerified;
 
@@ -39,6 +43,8 @@ public class PostService {
     private final AuthProvider authProvider;
     private final UserClient userClient;
     private final SubscriptionClient subscriptionClient;
+    private final AsyncUserClient asyncUserClient;
+    private final AsyncSubscriptionClient asyncSubscriptionClient;
     private final MailActionsProducer mailActionsProducer;
 
     private static final String BANNED_USER_MESSAGE = "You are banned.";
@@ -69,10 +75,15 @@ public class PostService {
     }
 
     public List<Post> getFeedForUser(int offset, int limit) {
-        PrivateUserResponse user = userClient.getByEmail(authProvider.getSubject(), privateSecret);
+        // Subscriptions are looked up by email, so they don't wait for the user
+        String email = authProvider.getSubject();
+        CompletableFuture<PrivateUserResponse> pendingUser = asyncUserClient.getByEmail(email, privateSecret);
+        CompletableFuture<List<Integer>> pendingSubscriptions = asyncSubscriptionClient.getIdsOfUsersSubscribedByEmail(email, privateSecret);
+
+        PrivateUserResponse user = join(pendingUser);
         isValidUser(user);
 
-        List<Integer> subscriptionsIds = subscriptionClient.getEmailsOfUsersSubscribedByUser(user.getId(), privateSecret);
+        List<Integer> subscriptionsIds = join(pendingSubscriptions);
         List<Post> feed = postRepository.findAllByOwnerIdIn(subscriptionsIds,
                 PageRequest.of(offset, limit, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent();
 
@@ -0,0 +1,14 @@
+-- =========================================
+-- Description: Allocate ids in blocks of 50 for Hibernate's pooled sequence optimizer
+-- Author: Halcyon
+-- Version: V1.0.2
+-- =========================================
+
+ALTER SEQUENCE posts_id_seq INCREMENT BY 50;
+SELECT setval('posts_id_seq', COALESCE((SELECT MAX(id) FROM posts), 0) + 50, false);
+
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+SELECT setval('comments_id_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 50, false);
+
+ALTER SEQUENCE ratings_id_seq INCREMENT BY 50;
+SELECT setval('ratings_id_seq', COALESCE((SELECT MAX(id) FROM ratings), 0) + 50, false);
\ No newline at end of file
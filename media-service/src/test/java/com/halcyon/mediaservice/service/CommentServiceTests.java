@@ -2,6 +2,7 @@ package com.halcyon.mediaservice.service;
 
 import com.halcyon.clients.exception.BannedUserException;
 import com.halcyon.clients.exception.UnverifiedUserException;
+import com.halcyon.clients.user.AsyncUserClient;
 import com.halcyon.clients.user.PrivateUserResponse;
 import com.halcyon.clients.user.UserClient;
 import com.halcyon.jwtlibrary.AuthProvider;
@@ -12,10 +13,10 @@ import com.halcyon.mediaservice.model.Comment;
 import com.halcyon.mediaservice.model.Post;
 import com.halcyon.mediaservice.repository.CommentRepository;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.function.Executable;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -40,7 +41,6 @@ class CommentServiceTests {
     @Mock
     private CommentRepository commentRepository;
 
-    @InjectMocks
     private CommentService commentService;
 
     private static final String BANNED_USER_MESSAGE = "You are banned.";
@@ -64,6 +64,12 @@ class CommentServiceTests {
         post.setId(1L);
     }
 
+    @BeforeEach
+    void setUp() {
+        commentService = new CommentService(commentRepository, authProvider, userClient,
+                new AsyncUserClient(userClient, Runnable::run), postService);
+    }
+
     @Test
     void createParentComment() {
         CreateCommentDto createCommentDto = getCreateCommentDto();
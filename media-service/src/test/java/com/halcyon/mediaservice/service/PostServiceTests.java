@@ -2,8 +2,10 @@ package com.halcyon.mediaservice.service;
 
 import com.halcyon.clients.exception.BannedUserException;
 import com.halcyon.clients.exception.UnverifiedUserException;
+import com.halcyon.clients.subscription.AsyncSubscriptionClient;
 import com.halcyon.clients.subscription.SubscriptionClient;
 import com.halcyon.clients.subscription.SubscriptionResponse;
+import com.halcyon.clients.user.AsyncUserClient;
 import com.halcyon.clients.user.PrivateUserResponse;
 import com.halcyon.clients.user.UserClient;
 import com.halcyon.jwtlibrary.AuthProvider;
@@ -17,10 +19,10 @@ import com.halcyon.mediaservice.repository.CommentRepository;
 import com.halcyon.mediaservice.repository.PostRepository;
 import com.halcyon.mediaservice.repository.RatingRepository;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.function.Executable;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -57,7 +59,6 @@ class PostServiceTests {
     @Mock
     private MailActionsProducer mailActionsProducer;
 
-    @InjectMocks
     private PostService postService;
 
     private static final String BANNED_USER_MESSAGE = "You are banned.";
@@ -78,6 +79,16 @@ class PostServiceTests {
                 .build();
     }
 
+    @BeforeEach
+    void setUp() {
+        // Lookups run on the calling thread, so the stubs of the blocking clients apply to them as well
+        postService = new PostService(postRepository, commentRepository, ratingRepository, authProvider,
+                userClient, subscriptionClient,
+                new AsyncUserClient(userClient, Runnable::run),
+                new AsyncSubscriptionClient(subscriptionClient, Runnable::run),
+                mailActionsProducer);
+    }
+
     @Test
     void create() {
         mockCreating();
@@ -163,7 +174,7 @@ class PostServiceTests {
         mockGettingUser();
 
         List<Integer> subscriptions = List.of(1, 2, 3);
-        when(subscriptionClient.getEmailsOfUsersSubscribedByUser(user.getId(), null))
+        when(subscriptionClient.getIdsOfUsersSubscribedByEmail(user.getEmail(), null))
                 .thenReturn(subscriptions);
 
         Page<Post> posts = mock(Page.class);
@@ -0,0 +1,40 @@
+package com.halcyon.rediscache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Result of a multi-key fetch: decoded values for the keys that were found, in request order,
+ * and the keys that were missing.
+ */
+public class CacheEntries<T> {
+    private final Map<String, T> values;
+    private final List<String> missingKeys;
+
+    CacheEntries(Map<String, T> values, List<String> missingKeys) {
+        this.values = Collections.unmodifiableMap(values);
+        this.missingKeys = Collections.unmodifiableList(missingKeys);
+    }
+
+    public Optional<T> get(String key) {
+        return Optional.ofNullable(values.get(key));
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public Map<String, T> asMap() {
+        return values;
+    }
+
+    public List<String> getMissingKeys() {
+        return missingKeys;
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
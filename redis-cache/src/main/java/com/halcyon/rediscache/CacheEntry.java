@@ -0,0 +1,6 @@
+package com.halcyon.rediscache;
+
+import java.time.Duration;
+
+public record CacheEntry(String key, Object value, Duration timeToLive) {
+}
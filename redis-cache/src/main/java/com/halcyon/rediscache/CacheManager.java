@@ -1,53 +1,457 @@
 package com.halcyon.rediscache;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import lombok.RequiredArgsConstructor;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.load.DistributedLease;
+import com.halcyon.rediscache.load.LoadedValue;
+import com.halcyon.rediscache.near.NearCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
+/**
+ * Plain reads ({@code fetch}, {@code fetchAll}, {@code isPresent}, {@code existsAll}) go through the connection
+ * configured with {@code cache.topology.read-from}, so they may be served by a replica. Writes, deletes and
+ * everything {@code getOrLoad} does stay on the primary, because the lease protocol must see its own writes. Near
+ * cache namespaces are refilled from the primary too, otherwise a lagging replica could hand back the value an
+ * invalidation has just dropped.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class CacheManager {
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final char NAMESPACE_SEPARATOR = ':';
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final RedisTemplate<String, byte[]> cacheReadRedisTemplate;
+    private final CacheCodecRegistry codecRegistry;
+    private final NearCache nearCache;
+    private final CacheMetrics cacheMetrics;
+    private final DistributedLease distributedLease;
+    private final RedisCacheProperties properties;
+    private final Map<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    public CacheManager(
+            RedisTemplate<String, byte[]> cacheRedisTemplate,
+            @Qualifier("cacheReadRedisTemplate") RedisTemplate<String, byte[]> cacheReadRedisTemplate,
+            CacheCodecRegistry codecRegistry,
+            NearCache nearCache,
+            CacheMetrics cacheMetrics,
+            DistributedLease distributedLease,
+            RedisCacheProperties properties
+    ) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.cacheReadRedisTemplate = cacheReadRedisTemplate;
+        this.codecRegistry = codecRegistry;
+        this.nearCache = nearCache;
+        this.cacheMetrics = cacheMetrics;
+        this.distributedLease = distributedLease;
+        this.properties = properties;
+    }
 
     public void save(String key, Object value, Duration timeToLive) {
-        redisTemplate.opsForValue().set(key, value, timeToLive);
+        write(key, codecRegistry.forKey(key).encode(value), timeToLive);
         log.info("Cached value with key '{}' for {} seconds", key, timeToLive);
     }
 
     public void save(String key, Duration timeToLive) {
-        redisTemplate.opsForValue().set(key, "", timeToLive);
+        write(key, codecRegistry.forKey(key).encode(""), timeToLive);
         log.info("Cached non with key '{}' for {} seconds", key, timeToLive);
     }
 
     public void delete(String key) {
-        redisTemplate.delete(key);
+        cacheRedisTemplate.delete(key);
+
+        if (nearCache.isEnabled(key)) {
+            nearCache.invalidate(List.of(key));
+        }
     }
 
     public boolean isPresent(String key) {
-        Object fetchedValue = redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(fetchedValue).isPresent();
+        if (nearCache.isEnabled(key) && nearCache.get(key).isPresent()) {
+            return true;
+        }
+
+        boolean isPresent = Boolean.TRUE.equals(cacheReadRedisTemplate.hasKey(key));
+        cacheMetrics.recordL2(isPresent);
+        return isPresent;
     }
 
     public <T> Optional<T> fetch(String key, Class<T> targetClass) {
-        Optional<Object> value = Optional.ofNullable(redisTemplate.opsForValue().get(key));
+        Optional<byte[]> value = read(cacheReadRedisTemplate, key);
 
         if (value.isEmpty()) {
             log.info("No cached value found for key {}", key);
             return Optional.empty();
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-
-        T result = objectMapper.convertValue(value.get(), targetClass);
+        T result = decode(key, value.get(), targetClass);
         log.info("Fetched cached value with key {}", key);
         return Optional.of(result);
     }
+
+    public <T> CacheEntries<T> fetchAll(Collection<String> keys, Class<T> targetClass) {
+        Map<String, byte[]> encodedValues = new LinkedHashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+
+        for (String key : keys) {
+            Optional<byte[]> local = nearCache.isEnabled(key) ? nearCache.get(key) : Optional.empty();
+
+            if (local.isPresent()) {
+                encodedValues.put(key, local.get());
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+
+        if (!remoteKeys.isEmpty()) {
+            long readToken = nearCache.readToken();
+            RedisTemplate<String, byte[]> redisTemplate = remoteKeys.stream().anyMatch(nearCache::isEnabled)
+                    ? cacheRedisTemplate
+                    : cacheReadRedisTemplate;
+            List<byte[]> fetchedValues = redisTemplate.opsForValue().multiGet(remoteKeys);
+            Iterator<byte[]> iterator = fetchedValues == null ? null : fetchedValues.iterator();
+            int hits = 0;
+
+            for (String key : remoteKeys) {
+                byte[] value = iterator == null ? null : iterator.next();
+
+                if (value != null) {
+                    hits++;
+                    encodedValues.put(key, value);
+
+                    if (nearCache.isEnabled(key)) {
+                        nearCache.putIfNotInvalidated(key, value, readToken);
+                    }
+                }
+            }
+
+            cacheMetrics.recordL2(hits, remoteKeys.size() - hits);
+        }
+
+        Map<String, T> values = new LinkedHashMap<>();
+        List<String> missingKeys = new ArrayList<>();
+
+        for (String key : keys) {
+            byte[] value = encodedValues.get(key);
+
+            if (value == null) {
+                missingKeys.add(key);
+            } else {
+                values.put(key, decode(key, value, targetClass));
+            }
+        }
+
+        log.info("Fetched {} of {} cached values", values.size(), keys.size());
+        return new CacheEntries<>(values, missingKeys);
+    }
+
+    public void saveAll(Collection<CacheEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        List<EncodedEntry> encodedEntries = entries.stream()
+                .map(this::encode)
+                .toList();
+
+        cacheRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (EncodedEntry entry : encodedEntries) {
+                connection.stringCommands().set(
+                        rawKey(entry.key()), entry.value(), Expiration.from(entry.timeToLive()),
+                        RedisStringCommands.SetOption.upsert());
+            }
+
+            return null;
+        });
+
+        List<String> nearKeys = new ArrayList<>();
+        for (EncodedEntry entry : encodedEntries) {
+            if (nearCache.isEnabled(entry.key())) {
+                nearCache.write(entry.key(), entry.value(), entry.timeToLive());
+                nearKeys.add(entry.key());
+            }
+        }
+
+        nearCache.publish(nearKeys);
+        log.info("Cached {} values in one pipeline", entries.size());
+    }
+
+    public void saveAll(Map<String, ?> values, Duration timeToLive) {
+        saveAll(values.entrySet().stream()
+                .map(entry -> new CacheEntry(entry.getKey(), entry.getValue(), timeToLive))
+                .toList());
+    }
+
+    public long deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        Long deleted = cacheRedisTemplate.delete(keys);
+        nearCache.invalidate(keys.stream().filter(nearCache::isEnabled).toList());
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Deletes every key in the namespace, scanning in batches instead of blocking Redis with KEYS.
+     */
+    public long deleteNamespace(String namespace) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(namespace + NAMESPACE_SEPARATOR + "*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+
+        long deleted = 0;
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+
+        try (Cursor<String> cursor = cacheRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+
+                if (batch.size() == SCAN_BATCH_SIZE) {
+                    deleted += deleteAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        deleted += deleteAll(batch);
+        log.info("Deleted {} cached values in namespace {}", deleted, namespace);
+        return deleted;
+    }
+
+    public Map<String, Boolean> existsAll(Collection<String> keys) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+
+        for (String key : keys) {
+            if (nearCache.isEnabled(key) && nearCache.get(key).isPresent()) {
+                result.put(key, true);
+            } else {
+                result.put(key, false);
+                remoteKeys.add(key);
+            }
+        }
+
+        if (remoteKeys.isEmpty()) {
+            return result;
+        }
+
+        List<Object> replies = cacheReadRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : remoteKeys) {
+                connection.keyCommands().exists(rawKey(key));
+            }
+
+            return null;
+        });
+
+        Iterator<Object> iterator = replies.iterator();
+        int hits = 0;
+
+        for (String key : remoteKeys) {
+            boolean exists = Boolean.TRUE.equals(iterator.next());
+            result.put(key, exists);
+            hits += exists ? 1 : 0;
+        }
+
+        cacheMetrics.recordL2(hits, remoteKeys.size() - hits);
+        return result;
+    }
+
+    /**
+     * Returns the cached value or loads it, protecting the origin from a stampede when a hot key is missing:
+     * concurrent callers in this JVM share one load, a Redis lease lets only one node load at a time while the
+     * others wait for its result, and values are refreshed early with a probability that grows towards expiry.
+     * Values written by {@link #save} carry no load timing, so they are served as they are and never refreshed
+     * early. Null results are not cached.
+     */
+    public <T> T getOrLoad(String key, Class<T> targetClass, Duration timeToLive, Supplier<T> loader) {
+        Optional<byte[]> cached = read(cacheRedisTemplate, key);
+
+        if (cached.isPresent()) {
+            Optional<LoadedValue> loaded = LoadedValue.unwrap(cached.get());
+            if (loaded.isEmpty()) {
+                return codecRegistry.forKey(key).decode(cached.get(), targetClass);
+            }
+
+            LoadedValue value = loaded.get();
+            double beta = properties.getLoading().getEarlyRefreshBeta();
+
+            if (value.shouldRefreshEarly(System.currentTimeMillis(), beta, ThreadLocalRandom.current())
+                    && !loads.containsKey(key)) {
+                return singleFlight(key, () -> refreshEarly(key, targetClass, value, timeToLive, loader));
+            }
+
+            return codecRegistry.forKey(key).decode(value.payload(), targetClass);
+        }
+
+        return singleFlight(key, () -> loadWithLease(key, targetClass, timeToLive, loader));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(String key, Supplier<T> supplier) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loads.putIfAbsent(key, load);
+
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T value = supplier.get();
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Falls back to the cached value when another node holds the lease, so callers that joined this flight on a
+     * miss never receive a skipped refresh as a result.
+     */
+    private <T> T refreshEarly(String key, Class<T> targetClass, LoadedValue cached, Duration timeToLive, Supplier<T> loader) {
+        Optional<byte[]> lease = distributedLease.tryAcquire(key);
+
+        if (lease.isEmpty()) {
+            return codecRegistry.forKey(key).decode(cached.payload(), targetClass);
+        }
+
+        try {
+            log.info("Refreshing cached value with key {} before expiry", key);
+            T refreshed = loadAndStore(key, timeToLive, loader);
+            return refreshed != null ? refreshed : codecRegistry.forKey(key).decode(cached.payload(), targetClass);
+        } finally {
+            distributedLease.release(key, lease.get());
+        }
+    }
+
+    private <T> T loadWithLease(String key, Class<T> targetClass, Duration timeToLive, Supplier<T> loader) {
+        Optional<byte[]> lease = distributedLease.tryAcquire(key);
+
+        if (lease.isPresent()) {
+            try {
+                Optional<byte[]> loadedMeanwhile = read(cacheRedisTemplate, key);
+                return loadedMeanwhile.isPresent()
+                        ? decode(key, loadedMeanwhile.get(), targetClass)
+                        : loadAndStore(key, timeToLive, loader);
+            } finally {
+                distributedLease.release(key, lease.get());
+            }
+        }
+
+        RedisCacheProperties.Loading loading = properties.getLoading();
+        long deadline = System.nanoTime() + loading.getLeaseWait().toNanos();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(loading.getPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            Optional<byte[]> loadedByOtherNode = read(cacheRedisTemplate, key);
+            if (loadedByOtherNode.isPresent()) {
+                return decode(key, loadedByOtherNode.get(), targetClass);
+            }
+        }
+
+        log.warn("Lease holder did not load key {} in {}, loading it locally", key, loading.getLeaseWait());
+        return loadAndStore(key, timeToLive, loader);
+    }
+
+    private <T> T loadAndStore(String key, Duration timeToLive, Supplier<T> loader) {
+        long startedAt = System.currentTimeMillis();
+        T value = loader.get();
+
+        if (value != null) {
+            long now = System.currentTimeMillis();
+            LoadedValue loadedValue = new LoadedValue(
+                    now - startedAt,
+                    now + timeToLive.toMillis(),
+                    codecRegistry.forKey(key).encode(value)
+            );
+
+            write(key, loadedValue.wrap(), timeToLive);
+        }
+
+        return value;
+    }
+
+    private <T> T decode(String key, byte[] value, Class<T> targetClass) {
+        return codecRegistry.forKey(key).decode(LoadedValue.payloadOf(value), targetClass);
+    }
+
+    private void write(String key, byte[] value, Duration timeToLive) {
+        cacheRedisTemplate.opsForValue().set(key, value, timeToLive);
+
+        if (nearCache.isEnabled(key)) {
+            nearCache.write(key, value, timeToLive);
+            nearCache.publish(List.of(key));
+        }
+    }
+
+    private Optional<byte[]> read(RedisTemplate<String, byte[]> redisTemplate, String key) {
+        if (!nearCache.isEnabled(key)) {
+            byte[] value = redisTemplate.opsForValue().get(key);
+            cacheMetrics.recordL2(value != null);
+            return Optional.ofNullable(value);
+        }
+
+        Optional<byte[]> local = nearCache.get(key);
+        if (local.isPresent()) {
+            return local;
+        }
+
+        long readToken = nearCache.readToken();
+        byte[] value = cacheRedisTemplate.opsForValue().get(key);
+        cacheMetrics.recordL2(value != null);
+
+        if (value != null) {
+            nearCache.putIfNotInvalidated(key, value, readToken);
+        }
+
+        return Optional.ofNullable(value);
+    }
+
+    private EncodedEntry encode(CacheEntry entry) {
+        Object value = entry.value() == null ? "" : entry.value();
+        return new EncodedEntry(entry.key(), codecRegistry.forKey(entry.key()).encode(value), entry.timeToLive());
+    }
+
+    private static byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record EncodedEntry(String key, byte[] value, Duration timeToLive) {
+    }
 }
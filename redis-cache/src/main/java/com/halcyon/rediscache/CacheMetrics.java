@@ -0,0 +1,51 @@
+package com.halcyon.rediscache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheMetrics {
+    public static final String L1 = "l1";
+    public static final String L2 = "l2";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public CacheMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.l1Hits = counter(L1, "hit");
+        this.l1Misses = counter(L1, "miss");
+        this.l2Hits = counter(L2, "hit");
+        this.l2Misses = counter(L2, "miss");
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public void recordL1(boolean hit) {
+        (hit ? l1Hits : l1Misses).increment();
+    }
+
+    public void recordL2(boolean hit) {
+        (hit ? l2Hits : l2Misses).increment();
+    }
+
+    public void recordL2(int hits, int misses) {
+        l2Hits.increment(hits);
+        l2Misses.increment(misses);
+    }
+
+    private Counter counter(String tier, String result) {
+        return Counter.builder("cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,142 @@
+package com.halcyon.rediscache;
+
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.load.LoadedValue;
+import com.halcyon.rediscache.near.NearCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking counterpart of {@link CacheManager} on the same connection factory, codecs and near cache. Every
+ * operation is available as a {@link Mono} and, for servlet code, as a {@link CompletionStage} that is already
+ * running when returned, so the Redis round trip overlaps with whatever the caller does before joining it.
+ * Reads follow {@code cache.topology.read-from} like those of {@link CacheManager}, except near cache refills.
+ */
+@Slf4j
+@Component
+public class ReactiveCacheManager {
+    private final ReactiveRedisTemplate<String, byte[]> cacheReactiveRedisTemplate;
+    private final ReactiveRedisTemplate<String, byte[]> cacheReadReactiveRedisTemplate;
+    private final CacheCodecRegistry codecRegistry;
+    private final NearCache nearCache;
+    private final CacheMetrics cacheMetrics;
+
+    public ReactiveCacheManager(
+            ReactiveRedisTemplate<String, byte[]> cacheReactiveRedisTemplate,
+            @Qualifier("cacheReadReactiveRedisTemplate") ReactiveRedisTemplate<String, byte[]> cacheReadReactiveRedisTemplate,
+            CacheCodecRegistry codecRegistry,
+            NearCache nearCache,
+            CacheMetrics cacheMetrics
+    ) {
+        this.cacheReactiveRedisTemplate = cacheReactiveRedisTemplate;
+        this.cacheReadReactiveRedisTemplate = cacheReadReactiveRedisTemplate;
+        this.codecRegistry = codecRegistry;
+        this.nearCache = nearCache;
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    public Mono<Void> save(String key, Object value, Duration timeToLive) {
+        return Mono.fromCallable(() -> codecRegistry.forKey(key).encode(value))
+                .flatMap(encodedValue -> write(key, encodedValue, timeToLive))
+                .doOnSuccess(ignored -> log.info("Cached value with key '{}' for {} seconds", key, timeToLive));
+    }
+
+    public Mono<Void> save(String key, Duration timeToLive) {
+        return save(key, "", timeToLive);
+    }
+
+    public Mono<Void> delete(String key) {
+        return cacheReactiveRedisTemplate.delete(key)
+                .then(nearCache.isEnabled(key) ? invalidate(key) : Mono.empty());
+    }
+
+    public Mono<Boolean> isPresent(String key) {
+        if (nearCache.isEnabled(key) && nearCache.get(key).isPresent()) {
+            return Mono.just(true);
+        }
+
+        return cacheReadReactiveRedisTemplate.hasKey(key)
+                .map(Boolean.TRUE::equals)
+                .doOnNext(cacheMetrics::recordL2);
+    }
+
+    public <T> Mono<T> fetch(String key, Class<T> targetClass) {
+        return read(key)
+                .map(value -> codecRegistry.forKey(key).decode(LoadedValue.payloadOf(value), targetClass));
+    }
+
+    public CompletionStage<Void> saveAsync(String key, Object value, Duration timeToLive) {
+        return save(key, value, timeToLive).toFuture();
+    }
+
+    public CompletionStage<Void> saveAsync(String key, Duration timeToLive) {
+        return save(key, timeToLive).toFuture();
+    }
+
+    public CompletionStage<Void> deleteAsync(String key) {
+        return delete(key).toFuture();
+    }
+
+    public CompletionStage<Boolean> isPresentAsync(String key) {
+        return isPresent(key).toFuture();
+    }
+
+    public <T> CompletionStage<Optional<T>> fetchAsync(String key, Class<T> targetClass) {
+        return fetch(key, targetClass)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    private Mono<Void> write(String key, byte[] value, Duration timeToLive) {
+        Mono<Void> write = cacheReactiveRedisTemplate.opsForValue().set(key, value, timeToLive).then();
+
+        if (!nearCache.isEnabled(key)) {
+            return write;
+        }
+
+        return write
+                .doOnSuccess(ignored -> nearCache.write(key, value, timeToLive))
+                .then(publish(key));
+    }
+
+    private Mono<byte[]> read(String key) {
+        if (!nearCache.isEnabled(key)) {
+            return cacheReadReactiveRedisTemplate.opsForValue().get(key)
+                    .doOnNext(value -> cacheMetrics.recordL2(true))
+                    .switchIfEmpty(Mono.fromRunnable(() -> cacheMetrics.recordL2(false)));
+        }
+
+        Optional<byte[]> local = nearCache.get(key);
+        if (local.isPresent()) {
+            return Mono.just(local.get());
+        }
+
+        long readToken = nearCache.readToken();
+        return cacheReactiveRedisTemplate.opsForValue().get(key)
+                .doOnNext(value -> {
+                    cacheMetrics.recordL2(true);
+                    nearCache.putIfNotInvalidated(key, value, readToken);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> cacheMetrics.recordL2(false)));
+    }
+
+    private Mono<Void> invalidate(String key) {
+        return Mono.fromRunnable(() -> nearCache.invalidateLocally(List.of(key)))
+                .then(publish(key));
+    }
+
+    private Mono<Void> publish(String key) {
+        return cacheReactiveRedisTemplate
+                .convertAndSend(nearCache.getInvalidationChannel(), nearCache.invalidationMessage(List.of(key)))
+                .then();
+    }
+}
@@ -0,0 +1,139 @@
+package com.halcyon.rediscache;
+
+import com.halcyon.rediscache.codec.JsonCacheCodec;
+import com.halcyon.rediscache.codec.PolymorphicJsonCacheCodec;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class RedisCacheProperties {
+    private Topology topology = new Topology();
+    private Codec codec = new Codec();
+    private Near near = new Near();
+    private Loading loading = new Loading();
+    private SpringCache springCache = new SpringCache();
+
+    /**
+     * Cluster and sentinel topologies are selected through the standard {@code spring.data.redis.cluster.*} and
+     * {@code spring.data.redis.sentinel.*} properties; these settings tune how Lettuce uses them.
+     */
+    @Getter
+    @Setter
+    public static class Topology {
+        /**
+         * Lettuce {@code ReadFrom} policy for plain cache reads, e.g. upstream, upstreamPreferred, replicaPreferred,
+         * nearest. Writes, pub/sub and {@code getOrLoad} always use the primary.
+         */
+        private String readFrom = "upstream";
+
+        /**
+         * Replica endpoints (host:port) of a static primary/replica setup without sentinels.
+         */
+        private List<String> replicas = new ArrayList<>();
+
+        /**
+         * Lettuce I/O event-loop threads, 0 keeps the Lettuce default (number of CPUs).
+         */
+        private int ioThreads;
+
+        /**
+         * Lettuce computation threads, 0 keeps the Lettuce default (number of CPUs).
+         */
+        private int computationThreads;
+
+        private Duration clusterRefreshPeriod = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Codec {
+        /**
+         * Codec used for keys whose namespace has no explicit mapping.
+         */
+        private String defaultCodec = JsonCacheCodec.NAME;
+
+        /**
+         * Codec per key namespace, where the namespace is the part of the key before the first ':'.
+         */
+        private Map<String, String> namespaces = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Near {
+        /**
+         * Key namespaces served from the in-process L1 cache. Empty disables the near cache.
+         */
+        private Set<String> namespaces = new HashSet<>();
+
+        private long maximumSize = 10_000;
+
+        /**
+         * Upper bound for how long a value stays in L1. Values never outlive their Redis TTL.
+         */
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        private String invalidationChannel = "cache:invalidation";
+    }
+
+    @Getter
+    @Setter
+    public static class Loading {
+        /**
+         * How long a node may hold the cross-node lease while it loads a missing key.
+         */
+        private Duration leaseTime = Duration.ofSeconds(10);
+
+        /**
+         * How long other nodes wait for the lease holder's value before loading it themselves.
+         */
+        private Duration leaseWait = Duration.ofSeconds(3);
+
+        private Duration pollInterval = Duration.ofMillis(25);
+
+        /**
+         * XFetch beta. Values above 1 refresh earlier, 0 disables early refresh.
+         */
+        private double earlyRefreshBeta = 1.0;
+    }
+
+    /**
+     * Caches exposed through the Spring cache abstraction. Each cache owns the key namespace named after it, so
+     * near-cache namespaces apply to Spring caches as well.
+     */
+    @Getter
+    @Setter
+    public static class SpringCache {
+        private Duration defaultTimeToLive = Duration.ofMinutes(10);
+
+        /**
+         * Must be a polymorphic codec, because Spring caches decode values without knowing their class.
+         */
+        private String defaultCodec = PolymorphicJsonCacheCodec.NAME;
+
+        /**
+         * Whether caches that are not listed below are created on first use with the defaults.
+         */
+        private boolean dynamic = true;
+
+        private Map<String, CacheSpec> caches = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        private Duration timeToLive;
+        private String codec;
+    }
+}
@@ -1,21 +1,96 @@
 package com.halcyon.rediscache;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.time.Duration;
+
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(RedisCacheProperties.class)
 public class RedisConfig {
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources(RedisCacheProperties cacheProperties) {
+        RedisCacheProperties.Topology topology = cacheProperties.getTopology();
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+
+        if (topology.getIoThreads() > 0) {
+            builder.ioThreadPoolSize(topology.getIoThreads());
+        }
+
+        if (topology.getComputationThreads() > 0) {
+            builder.computationThreadPoolSize(topology.getComputationThreads());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Connection to the primary for writes, leases and pub/sub. It never routes through Lettuce's master/replica
+     * provider, which cannot open pub/sub connections, so a static primary/replica setup connects to the primary
+     * alone and no {@code ReadFrom} is set.
+     */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory(RedisProperties redisProperties) {
-        RedisStandaloneConfiguration standaloneConfiguration = new RedisStandaloneConfiguration(redisProperties.getHost(), redisProperties.getPort());
-        standaloneConfiguration.setPassword(redisProperties.getPassword());
-        return new LettuceConnectionFactory(standaloneConfiguration);
+    @Primary
+    public LettuceConnectionFactory redisConnectionFactory(
+            RedisProperties redisProperties,
+            RedisCacheProperties cacheProperties,
+            ClientResources lettuceClientResources
+    ) {
+        RedisConfiguration configuration = primaryConfiguration(redisProperties, cacheProperties.getTopology());
+        LettuceClientConfiguration clientConfiguration = clientConfiguration(
+                redisProperties, cacheProperties.getTopology(), lettuceClientResources,
+                configuration instanceof RedisClusterConfiguration, null);
+
+        log.info("Using Redis {} topology", configuration.getClass().getSimpleName());
+        return new LettuceConnectionFactory(configuration, clientConfiguration);
+    }
+
+    /**
+     * Connection for the read-heavy cache calls, reading according to {@code cache.topology.read-from}.
+     */
+    @Bean
+    public LettuceConnectionFactory cacheReadConnectionFactory(
+            RedisProperties redisProperties,
+            RedisCacheProperties cacheProperties,
+            ClientResources lettuceClientResources
+    ) {
+        RedisCacheProperties.Topology topology = cacheProperties.getTopology();
+        RedisConfiguration configuration = redisConfiguration(redisProperties, topology);
+        LettuceClientConfiguration clientConfiguration = clientConfiguration(
+                redisProperties, topology, lettuceClientResources,
+                configuration instanceof RedisClusterConfiguration, ReadFrom.valueOf(topology.getReadFrom()));
+
+        log.info("Serving cache reads from {} topology, reading from {}",
+                configuration.getClass().getSimpleName(), topology.getReadFrom());
+        return new LettuceConnectionFactory(configuration, clientConfiguration);
     }
 
     @Bean
@@ -25,4 +100,156 @@ public class RedisConfig {
         redisTemplate.setDefaultSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
         return redisTemplate;
     }
+
+    @Bean
+    @Primary
+    public RedisTemplate<String, byte[]> cacheRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        return bytesTemplate(redisConnectionFactory);
+    }
+
+    @Bean
+    public RedisTemplate<String, byte[]> cacheReadRedisTemplate(
+            @Qualifier("cacheReadConnectionFactory") RedisConnectionFactory cacheReadConnectionFactory
+    ) {
+        return bytesTemplate(cacheReadConnectionFactory);
+    }
+
+    @Bean
+    @Primary
+    public ReactiveRedisTemplate<String, byte[]> cacheReactiveRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+        return reactiveBytesTemplate(redisConnectionFactory);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> cacheReadReactiveRedisTemplate(
+            @Qualifier("cacheReadConnectionFactory") LettuceConnectionFactory cacheReadConnectionFactory
+    ) {
+        return reactiveBytesTemplate(cacheReadConnectionFactory);
+    }
+
+    static RedisTemplate<String, byte[]> bytesTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setEnableDefaultSerializer(false);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        return redisTemplate;
+    }
+
+    private static ReactiveRedisTemplate<String, byte[]> reactiveBytesTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, byte[]> serializationContext = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.byteArray())
+                .key(RedisSerializer.string())
+                .hashKey(RedisSerializer.string())
+                .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    static RedisConfiguration primaryConfiguration(RedisProperties redisProperties, RedisCacheProperties.Topology topology) {
+        RedisConfiguration configuration = redisConfiguration(redisProperties, topology);
+        return configuration instanceof RedisStaticMasterReplicaConfiguration
+                ? standaloneConfiguration(redisProperties)
+                : configuration;
+    }
+
+    static RedisConfiguration redisConfiguration(RedisProperties redisProperties, RedisCacheProperties.Topology topology) {
+        RedisProperties.Cluster cluster = redisProperties.getCluster();
+        if (cluster != null && cluster.getNodes() != null && !cluster.getNodes().isEmpty()) {
+            RedisClusterConfiguration clusterConfiguration = new RedisClusterConfiguration(cluster.getNodes());
+            if (cluster.getMaxRedirects() != null) {
+                clusterConfiguration.setMaxRedirects(cluster.getMaxRedirects());
+            }
+
+            clusterConfiguration.setUsername(redisProperties.getUsername());
+            clusterConfiguration.setPassword(redisProperties.getPassword());
+            return clusterConfiguration;
+        }
+
+        RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+        if (sentinel != null && sentinel.getMaster() != null) {
+            RedisSentinelConfiguration sentinelConfiguration = new RedisSentinelConfiguration();
+            sentinelConfiguration.master(sentinel.getMaster());
+            sentinel.getNodes().forEach(node -> sentinelConfiguration.sentinel(RedisNode.fromString(node)));
+            sentinelConfiguration.setSentinelUsername(sentinel.getUsername());
+            sentinelConfiguration.setSentinelPassword(sentinel.getPassword());
+            sentinelConfiguration.setUsername(redisProperties.getUsername());
+            sentinelConfiguration.setPassword(redisProperties.getPassword());
+            sentinelConfiguration.setDatabase(redisProperties.getDatabase());
+            return sentinelConfiguration;
+        }
+
+        if (!topology.getReplicas().isEmpty()) {
+            RedisStaticMasterReplicaConfiguration replicaConfiguration =
+                    new RedisStaticMasterReplicaConfiguration(redisProperties.getHost(), redisProperties.getPort());
+            topology.getReplicas().stream()
+                    .map(RedisNode::fromString)
+                    .forEach(node -> replicaConfiguration.node(node.getHost(), node.getPort()));
+            replicaConfiguration.setUsername(redisProperties.getUsername());
+            replicaConfiguration.setPassword(redisProperties.getPassword());
+            replicaConfiguration.setDatabase(redisProperties.getDatabase());
+            return replicaConfiguration;
+        }
+
+        return standaloneConfiguration(redisProperties);
+    }
+
+    private static RedisStandaloneConfiguration standaloneConfiguration(RedisProperties redisProperties) {
+        RedisStandaloneConfiguration standaloneConfiguration = new RedisStandaloneConfiguration(redisProperties.getHost(), redisProperties.getPort());
+        standaloneConfiguration.setUsername(redisProperties.getUsername());
+        standaloneConfiguration.setPassword(redisProperties.getPassword());
+        standaloneConfiguration.setDatabase(redisProperties.getDatabase());
+        return standaloneConfiguration;
+    }
+
+    static LettuceClientConfiguration clientConfiguration(
+            RedisProperties redisProperties,
+            RedisCacheProperties.Topology topology,
+            ClientResources clientResources,
+            boolean isCluster,
+            ReadFrom readFrom
+    ) {
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder;
+
+        if (Boolean.TRUE.equals(pool.getEnabled())) {
+            GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(pool.getMaxActive());
+            poolConfig.setMaxIdle(pool.getMaxIdle());
+            poolConfig.setMinIdle(pool.getMinIdle());
+            if (pool.getMaxWait() != null) {
+                poolConfig.setMaxWait(pool.getMaxWait());
+            }
+
+            builder = LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+        } else {
+            builder = LettuceClientConfiguration.builder();
+        }
+
+        if (redisProperties.getTimeout() != null) {
+            builder.commandTimeout(redisProperties.getTimeout());
+        }
+
+        if (redisProperties.getSsl().isEnabled()) {
+            builder.useSsl();
+        }
+
+        if (readFrom != null) {
+            builder.readFrom(readFrom);
+        }
+
+        builder.clientResources(clientResources)
+                .clientOptions(isCluster ? clusterClientOptions(topology.getClusterRefreshPeriod()) : ClientOptions.create());
+
+        return builder.build();
+    }
+
+    private static ClusterClientOptions clusterClientOptions(Duration refreshPeriod) {
+        return ClusterClientOptions.builder()
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                        .enablePeriodicRefresh(refreshPeriod)
+                        .enableAllAdaptiveRefreshTriggers()
+                        .build())
+                .build();
+    }
 }
@@ -0,0 +1,29 @@
+package com.halcyon.rediscache.codec;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+
+/**
+ * Reads entity annotations for caching rather than for API responses. {@code @JsonIgnore} hides fields from
+ * clients, but a cached entity must keep them, so it is not honoured here. Back references are dropped instead
+ * of being linked, because the parent side is often a lazy collection and reference linking fails on
+ * deserialization when only one side is present. Properties marked {@link CacheIgnore} are never written.
+ */
+public class CacheAnnotationIntrospector extends JacksonAnnotationIntrospector {
+
+    @Override
+    public boolean hasIgnoreMarker(AnnotatedMember member) {
+        if (member.hasAnnotation(JsonBackReference.class) || member.hasAnnotation(CacheIgnore.class)) {
+            return true;
+        }
+
+        return !member.hasAnnotation(JsonIgnore.class) && super.hasIgnoreMarker(member);
+    }
+
+    @Override
+    public ReferenceProperty findReferenceType(AnnotatedMember member) {
+        return null;
+    }
+}
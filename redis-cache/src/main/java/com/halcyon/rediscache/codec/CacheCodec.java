@@ -0,0 +1,9 @@
+package com.halcyon.rediscache.codec;
+
+public interface CacheCodec {
+    String name();
+
+    byte[] encode(Object value);
+
+    <T> T decode(byte[] bytes, Class<T> targetClass);
+}
@@ -0,0 +1,7 @@
+package com.halcyon.rediscache.codec;
+
+public class CacheCodecException extends RuntimeException {
+    public CacheCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,68 @@
+package com.halcyon.rediscache.codec;
+
+import com.halcyon.rediscache.RedisCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CacheCodecRegistry {
+    private static final char NAMESPACE_SEPARATOR = ':';
+
+    private final Map<String, CacheCodec> codecs = new HashMap<>();
+    private final Map<String, CacheCodec> namespaces = new ConcurrentHashMap<>();
+    private final CacheCodec defaultCodec;
+
+    public CacheCodecRegistry(
+            ObjectProvider<CacheCodec> customCodecs,
+            RedisCacheProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+
+        register(new JsonCacheCodec(), registry);
+        register(new SmileCacheCodec(), registry);
+        register(new PolymorphicJsonCacheCodec(), registry);
+        register(new PolymorphicSmileCacheCodec(), registry);
+        customCodecs.orderedStream().forEach(codec -> register(codec, registry));
+
+        RedisCacheProperties.Codec codecProperties = properties.getCodec();
+        this.defaultCodec = get(codecProperties.getDefaultCodec());
+        codecProperties.getNamespaces().forEach((namespace, codec) -> namespaces.put(namespace, get(codec)));
+    }
+
+    public CacheCodec forKey(String key) {
+        int separator = key.indexOf(NAMESPACE_SEPARATOR);
+        return separator < 0 ? defaultCodec : forNamespace(key.substring(0, separator));
+    }
+
+    public CacheCodec forNamespace(String namespace) {
+        return namespaces.getOrDefault(namespace, defaultCodec);
+    }
+
+    /**
+     * Binds a namespace to a codec at runtime, for components that own a namespace, such as Spring caches.
+     */
+    public void useForNamespace(String namespace, String codecName) {
+        namespaces.put(namespace, get(codecName));
+    }
+
+    public CacheCodec get(String name) {
+        CacheCodec codec = codecs.get(name);
+
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown cache codec '" + name + "', available: " + codecs.keySet());
+        }
+
+        return codec;
+    }
+
+    private void register(CacheCodec codec, MeterRegistry meterRegistry) {
+        codecs.put(codec.name(), new MeteredCacheCodec(codec, meterRegistry));
+    }
+}
@@ -0,0 +1,16 @@
+package com.halcyon.rediscache.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps a property out of cache entries written by the polymorphic codecs, while API responses still see
+ * it. Meant for secrets such as password hashes: a value read from the cache has the property unset, so it
+ * must be read from the database wherever it is needed.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheIgnore {
+}
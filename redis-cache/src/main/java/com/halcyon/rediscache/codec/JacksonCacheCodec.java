@@ -0,0 +1,49 @@
+package com.halcyon.rediscache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base for Jackson-backed codecs. The mapper is built once and readers are cached per target class,
+ * so encoding and decoding never rebuild serializers.
+ */
+public abstract class JacksonCacheCodec implements CacheCodec {
+    private final String name;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    protected JacksonCacheCodec(String name, ObjectMapper objectMapper) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new CacheCodecException("Failed to encode value with codec '" + name + "'", e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> targetClass) {
+        try {
+            return readers.computeIfAbsent(targetClass, objectMapper::readerFor).readValue(bytes);
+        } catch (IOException e) {
+            throw new CacheCodecException("Failed to decode value with codec '" + name + "'", e);
+        }
+    }
+}
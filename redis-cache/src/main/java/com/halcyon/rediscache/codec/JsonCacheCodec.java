@@ -0,0 +1,25 @@
+package com.halcyon.rediscache.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+public class JsonCacheCodec extends JacksonCacheCodec {
+    public static final String NAME = "json";
+
+    public JsonCacheCodec() {
+        this(new ObjectMapper());
+    }
+
+    protected JsonCacheCodec(ObjectMapper objectMapper) {
+        super(NAME, configure(objectMapper));
+    }
+
+    static ObjectMapper configure(ObjectMapper objectMapper) {
+        return objectMapper
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
@@ -0,0 +1,52 @@
+package com.halcyon.rediscache.codec;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+public class MeteredCacheCodec implements CacheCodec {
+    private final CacheCodec delegate;
+    private final Timer encodeTimer;
+    private final Timer decodeTimer;
+    private final DistributionSummary encodedSize;
+
+    public MeteredCacheCodec(CacheCodec delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("cache.codec.encode")
+                .tag("codec", delegate.name())
+                .register(meterRegistry);
+        this.decodeTimer = Timer.builder("cache.codec.decode")
+                .tag("codec", delegate.name())
+                .register(meterRegistry);
+        this.encodedSize = DistributionSummary.builder("cache.codec.size")
+                .baseUnit("bytes")
+                .tag("codec", delegate.name())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        long startedAt = System.nanoTime();
+        byte[] bytes = delegate.encode(value);
+
+        encodeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        encodedSize.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> targetClass) {
+        long startedAt = System.nanoTime();
+        T value = delegate.decode(bytes, targetClass);
+
+        decodeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return value;
+    }
+}
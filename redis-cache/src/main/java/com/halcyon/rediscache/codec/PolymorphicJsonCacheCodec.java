@@ -0,0 +1,34 @@
+package com.halcyon.rediscache.codec;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+
+/**
+ * JSON codec that records the concrete type of every non-final value, so values can be decoded without knowing
+ * their class up front, as the Spring cache abstraction requires. Only application and JDK types are accepted
+ * on decode. Final types such as {@link Long} carry no type id, so outside a typed field they come back as the
+ * natural JSON type; cache entities, collections of them or {@link Integer} lists rather than bare longs.
+ */
+public class PolymorphicJsonCacheCodec extends JacksonCacheCodec {
+    public static final String NAME = "json-typed";
+
+    private static final PolymorphicTypeValidator TYPE_VALIDATOR = BasicPolymorphicTypeValidator.builder()
+            .allowIfSubTypeIsArray()
+            .allowIfSubType("com.halcyon.")
+            .allowIfSubType("java.lang.")
+            .allowIfSubType("java.util.")
+            .allowIfSubType("java.time.")
+            .build();
+
+    public PolymorphicJsonCacheCodec() {
+        super(NAME, configure(new ObjectMapper()));
+    }
+
+    static ObjectMapper configure(ObjectMapper objectMapper) {
+        return JsonCacheCodec.configure(objectMapper)
+                .setAnnotationIntrospector(new CacheAnnotationIntrospector())
+                .activateDefaultTyping(TYPE_VALIDATOR, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+}
@@ -0,0 +1,12 @@
+package com.halcyon.rediscache.codec;
+
+/**
+ * Smile counterpart of {@link PolymorphicJsonCacheCodec}.
+ */
+public class PolymorphicSmileCacheCodec extends SmileCacheCodec {
+    public static final String NAME = "smile-typed";
+
+    public PolymorphicSmileCacheCodec() {
+        super(NAME, PolymorphicJsonCacheCodec::configure, new PolymorphicJsonCacheCodec());
+    }
+}
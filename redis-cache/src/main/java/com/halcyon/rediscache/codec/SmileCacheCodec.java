@@ -0,0 +1,44 @@
+package com.halcyon.rediscache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Binary JSON (Smile) codec. Values without the Smile header were written by the JSON codec
+ * before a namespace was switched over, so they are decoded as JSON instead of failing.
+ */
+public class SmileCacheCodec extends JacksonCacheCodec {
+    public static final String NAME = "smile";
+
+    private static final byte[] HEADER = {':', ')', '\n'};
+
+    private final CacheCodec fallback;
+
+    public SmileCacheCodec() {
+        this(NAME, JsonCacheCodec::configure, new JsonCacheCodec());
+    }
+
+    protected SmileCacheCodec(String name, UnaryOperator<ObjectMapper> configurer, CacheCodec fallback) {
+        super(name, configurer.apply(new ObjectMapper(
+                SmileFactory.builder()
+                        .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                        .build()
+        )));
+        this.fallback = fallback;
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> targetClass) {
+        return hasHeader(bytes) ? super.decode(bytes, targetClass) : fallback.decode(bytes, targetClass);
+    }
+
+    private static boolean hasHeader(byte[] bytes) {
+        return bytes.length >= HEADER.length
+                && bytes[0] == HEADER[0]
+                && bytes[1] == HEADER[1]
+                && bytes[2] == HEADER[2];
+    }
+}
@@ -0,0 +1,50 @@
+package com.halcyon.rediscache.load;
+
+import com.halcyon.rediscache.RedisCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Short-lived Redis lease ({@code SET NX PX}) that lets one node at a time load a key. Only the holder's token can
+ * release it, so a lease that expired and was taken over is never deleted by the previous holder.
+ */
+@Slf4j
+@Component
+public class DistributedLease {
+    private static final String LEASE_SUFFIX = ":lease";
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final Duration leaseTime;
+
+    public DistributedLease(RedisTemplate<String, byte[]> cacheRedisTemplate, RedisCacheProperties properties) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.leaseTime = properties.getLoading().getLeaseTime();
+    }
+
+    public Optional<byte[]> tryAcquire(String key) {
+        byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        Boolean acquired = cacheRedisTemplate.opsForValue().setIfAbsent(key + LEASE_SUFFIX, token, leaseTime);
+
+        return Boolean.TRUE.equals(acquired) ? Optional.of(token) : Optional.empty();
+    }
+
+    public void release(String key, byte[] token) {
+        try {
+            cacheRedisTemplate.execute(RELEASE_SCRIPT, List.of(key + LEASE_SUFFIX), (Object) token);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release lease for key {}, it will expire in {}", key, leaseTime, e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.halcyon.rediscache.load;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+
+/**
+ * Value written by {@code getOrLoad}: the encoded payload prefixed with how long it took to compute and when it
+ * expires, which is what probabilistic early refresh (XFetch) needs. The leading zero byte never starts a JSON or
+ * Smile document, so envelopes are told apart from plain values.
+ */
+public record LoadedValue(long computeMillis, long expiresAtMillis, byte[] payload) {
+    private static final byte MAGIC = 0;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 2 + Long.BYTES * 2;
+
+    public static boolean isWrapped(byte[] bytes) {
+        return bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC && bytes[1] == VERSION;
+    }
+
+    public static Optional<LoadedValue> unwrap(byte[] bytes) {
+        if (!isWrapped(bytes)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        long computeMillis = buffer.getLong();
+        long expiresAtMillis = buffer.getLong();
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+
+        return Optional.of(new LoadedValue(computeMillis, expiresAtMillis, payload));
+    }
+
+    public static byte[] payloadOf(byte[] bytes) {
+        return isWrapped(bytes) ? unwrap(bytes).orElseThrow().payload() : bytes;
+    }
+
+    public byte[] wrap() {
+        return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+                .put(MAGIC)
+                .put(VERSION)
+                .putLong(computeMillis)
+                .putLong(expiresAtMillis)
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * XFetch: refresh when {@code now - computeTime * beta * ln(random) >= expiry}. The closer to expiry and the more
+     * expensive the value, the more likely a single caller refreshes it before everyone misses at once.
+     */
+    public boolean shouldRefreshEarly(long nowMillis, double beta, RandomGenerator random) {
+        if (beta <= 0) {
+            return false;
+        }
+
+        double gap = computeMillis * beta * Math.log(1 - random.nextDouble());
+        return nowMillis - gap >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,198 @@
+package com.halcyon.rediscache.near;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.halcyon.rediscache.CacheMetrics;
+import com.halcyon.rediscache.RedisCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process L1 in front of Redis for opted-in key namespaces. Values are kept encoded, so the L1 holds exactly
+ * what Redis holds. Writes and deletes publish the affected keys on a pub/sub channel and every other node evicts
+ * its copy; a node ignores its own messages.
+ */
+@Slf4j
+@Component
+public class NearCache implements InitializingBean, DisposableBean {
+    private static final char NAMESPACE_SEPARATOR = ':';
+    private static final String MESSAGE_SEPARATOR = "\n";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<String> namespaces;
+    private final long timeToLiveNanos;
+    private final String channel;
+    private final Cache<String, Entry> cache;
+    private final CacheMetrics cacheMetrics;
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final RedisConnectionFactory redisConnectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public NearCache(
+            RedisCacheProperties properties,
+            CacheMetrics cacheMetrics,
+            RedisConnectionFactory redisConnectionFactory,
+            RedisTemplate<String, byte[]> cacheRedisTemplate
+    ) {
+        RedisCacheProperties.Near near = properties.getNear();
+
+        this.namespaces = Set.copyOf(near.getNamespaces());
+        this.timeToLiveNanos = near.getTimeToLive().toNanos();
+        this.channel = near.getInvalidationChannel();
+        this.cacheMetrics = cacheMetrics;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(near.getMaximumSize())
+                .expireAfter(new EntryExpiry())
+                .build();
+
+        Gauge.builder("cache.near.size", cache, Cache::estimatedSize)
+                .register(cacheMetrics.getMeterRegistry());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!namespaces.isEmpty()) {
+            listenerContainer = subscribe();
+        }
+    }
+
+    public boolean isEnabled(String key) {
+        if (namespaces.isEmpty()) {
+            return false;
+        }
+
+        int separator = key.indexOf(NAMESPACE_SEPARATOR);
+        return separator > 0 && namespaces.contains(key.substring(0, separator));
+    }
+
+    public Optional<byte[]> get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        cacheMetrics.recordL1(entry != null);
+        return Optional.ofNullable(entry).map(Entry::value);
+    }
+
+    /**
+     * Returns a token to pass to {@link #putIfNotInvalidated} after reading a value from Redis, so a value read
+     * before a concurrent invalidation is not cached.
+     */
+    public long readToken() {
+        return invalidations.get();
+    }
+
+    public void putIfNotInvalidated(String key, byte[] value, long readToken) {
+        if (invalidations.get() == readToken) {
+            cache.put(key, new Entry(value, timeToLiveNanos));
+        }
+    }
+
+    /**
+     * Stores a value this node has just written to Redis and tells other nodes to drop their copies.
+     */
+    public void write(String key, byte[] value, Duration timeToLive) {
+        invalidations.incrementAndGet();
+        cache.put(key, new Entry(value, Math.min(timeToLiveNanos, timeToLive.toNanos())));
+    }
+
+    public void invalidate(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        invalidateLocally(keys);
+        publish(keys);
+    }
+
+    public void publish(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        cacheRedisTemplate.convertAndSend(channel, invalidationMessage(keys));
+    }
+
+    public String getInvalidationChannel() {
+        return channel;
+    }
+
+    /**
+     * Builds the message {@link #publish} sends, for callers that publish it on a non-blocking connection.
+     */
+    public byte[] invalidationMessage(Collection<String> keys) {
+        String message = nodeId + MESSAGE_SEPARATOR + String.join(MESSAGE_SEPARATOR, keys);
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    public void invalidateLocally(Collection<String> keys) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(keys);
+    }
+
+    void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(MESSAGE_SEPARATOR);
+
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        invalidateLocally(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    private RedisMessageListenerContainer subscribe() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(this::onMessage, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+
+        log.info("Near cache enabled for namespaces {}", namespaces);
+        return container;
+    }
+
+    private record Entry(byte[] value, long timeToLiveNanos) {
+    }
+
+    private static class EntryExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.timeToLiveNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.timeToLiveNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.halcyon.rediscache.spring;
+
+/**
+ * Hook for components that keep derived state next to a Spring cache and must drop it together with the cache
+ * entry. Listeners run after the entry is removed from Redis, on the thread that evicted it.
+ */
+public interface CacheEvictionListener {
+    void onEvict(String cacheName, Object key);
+
+    default void onClear(String cacheName) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.halcyon.rediscache.spring;
+
+import com.halcyon.rediscache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} stored through {@link CacheManager}, so entries share the
+ * codecs, near cache, metrics and stampede protection of the rest of the cache. Keys are
+ * {@code <cache name>:<key>}. Null values are not cached.
+ */
+public class RedisCodecCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Duration timeToLive;
+    private final CacheManager cacheManager;
+    private final List<CacheEvictionListener> evictionListeners;
+
+    public RedisCodecCache(
+            String name,
+            Duration timeToLive,
+            CacheManager cacheManager,
+            List<CacheEvictionListener> evictionListeners
+    ) {
+        super(false);
+        this.name = name;
+        this.timeToLive = timeToLive;
+        this.cacheManager = cacheManager;
+        this.evictionListeners = evictionListeners;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CacheManager getNativeCache() {
+        return cacheManager;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return cacheManager.fetch(cacheKey(key), Object.class).orElse(null);
+    }
+
+    /**
+     * Loads through {@link CacheManager#getOrLoad}, so {@code @Cacheable(sync = true)} coalesces loads across
+     * nodes, not only within this JVM.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) cacheManager.getOrLoad(cacheKey(key), Object.class, timeToLive, () -> load(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cacheManager.save(cacheKey(key), toStoreValue(value), timeToLive);
+    }
+
+    @Override
+    public void evict(Object key) {
+        cacheManager.delete(cacheKey(key));
+        evictionListeners.forEach(listener -> listener.onEvict(name, key));
+    }
+
+    @Override
+    public void clear() {
+        cacheManager.deleteNamespace(name);
+        evictionListeners.forEach(listener -> listener.onClear(name));
+    }
+
+    private String cacheKey(Object key) {
+        return name + ":" + key;
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+}
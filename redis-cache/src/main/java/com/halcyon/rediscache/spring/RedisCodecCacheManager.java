@@ -0,0 +1,65 @@
+package com.halcyon.rediscache.spring;
+
+import com.halcyon.rediscache.CacheManager;
+import com.halcyon.rediscache.RedisCacheProperties;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring {@link org.springframework.cache.CacheManager} backed by redis-cache. Caches are configured under
+ * {@code cache.spring-cache}: each one gets its own TTL and codec, and puts and evictions made inside a
+ * transaction are applied after it commits, so a concurrent reader cannot cache a row that is being rolled
+ * back or that is about to change.
+ */
+@Slf4j
+@Component
+public class RedisCodecCacheManager extends AbstractTransactionSupportingCacheManager {
+    private final CacheManager cacheManager;
+    private final CacheCodecRegistry codecRegistry;
+    private final RedisCacheProperties.SpringCache properties;
+    private final List<CacheEvictionListener> evictionListeners;
+
+    public RedisCodecCacheManager(
+            CacheManager cacheManager,
+            CacheCodecRegistry codecRegistry,
+            RedisCacheProperties properties,
+            ObjectProvider<CacheEvictionListener> evictionListeners
+    ) {
+        this.cacheManager = cacheManager;
+        this.codecRegistry = codecRegistry;
+        this.properties = properties.getSpringCache();
+        this.evictionListeners = evictionListeners.orderedStream().toList();
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.getCaches().keySet().stream()
+                .map(this::createCache)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return properties.isDynamic() ? createCache(name) : null;
+    }
+
+    private RedisCodecCache createCache(String name) {
+        RedisCacheProperties.CacheSpec spec = properties.getCaches().getOrDefault(name, new RedisCacheProperties.CacheSpec());
+        Duration timeToLive = spec.getTimeToLive() != null ? spec.getTimeToLive() : properties.getDefaultTimeToLive();
+        String codec = spec.getCodec() != null ? spec.getCodec() : properties.getDefaultCodec();
+
+        codecRegistry.useForNamespace(name, codec);
+        log.info("Spring cache '{}' uses codec {} with a TTL of {}", name, codec, timeToLive);
+
+        return new RedisCodecCache(name, timeToLive, cacheManager, evictionListeners);
+    }
+}
@@ -0,0 +1,361 @@
+package com.halcyon.rediscache;
+
+import com.halcyon.rediscache.codec.CacheCodec;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.codec.JsonCacheCodec;
+import com.halcyon.rediscache.load.DistributedLease;
+import com.halcyon.rediscache.load.LoadedValue;
+import com.halcyon.rediscache.near.NearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheManagerTests {
+    private final CacheCodec json = new JsonCacheCodec();
+
+    @Mock
+    private RedisTemplate<String, byte[]> cacheRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private DistributedLease distributedLease;
+
+    @Mock
+    private RedisTemplate<String, byte[]> cacheReadRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> readValueOperations;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CacheManager cacheManager;
+
+    private CacheManager replicaReadingCacheManager;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getNear().setNamespaces(Set.of("hot"));
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        CacheMetrics cacheMetrics = new CacheMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+        CacheCodecRegistry codecRegistry = new CacheCodecRegistry(
+                beanFactory.getBeanProvider(CacheCodec.class),
+                properties,
+                beanFactory.getBeanProvider(MeterRegistry.class)
+        );
+        NearCache nearCache = new NearCache(properties, cacheMetrics, null, cacheRedisTemplate);
+        properties.getLoading().setLeaseWait(Duration.ofMillis(200));
+        properties.getLoading().setPollInterval(Duration.ofMillis(10));
+
+        cacheManager = new CacheManager(
+                cacheRedisTemplate, cacheRedisTemplate, codecRegistry, nearCache, cacheMetrics, distributedLease, properties);
+        replicaReadingCacheManager = new CacheManager(
+                cacheRedisTemplate, cacheReadRedisTemplate, codecRegistry, nearCache, cacheMetrics, distributedLease, properties);
+    }
+
+    @Test
+    void fetchAll() {
+        List<String> keys = List.of("first", "second", "third");
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList(json.encode(1), null, json.encode(3)));
+
+        CacheEntries<Integer> entries = cacheManager.fetchAll(keys, Integer.class);
+
+        assertEquals(Map.of("first", 1, "third", 3), entries.asMap());
+        assertEquals(List.of("second"), entries.getMissingKeys());
+        assertTrue(entries.get("second").isEmpty());
+        verify(valueOperations).multiGet(keys);
+    }
+
+    @Test
+    void saveAll() {
+        cacheManager.saveAll(List.of(
+                new CacheEntry("first", 1, Duration.ofMinutes(1)),
+                new CacheEntry("second", "value", Duration.ofHours(1))
+        ));
+
+        verify(cacheRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void existsAll() {
+        when(cacheRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(true, false));
+
+        Map<String, Boolean> result = cacheManager.existsAll(List.of("first", "second"));
+
+        assertEquals(Map.of("first", true, "second", false), result);
+    }
+
+    @Test
+    void deleteAll() {
+        List<String> keys = List.of("first", "second");
+        when(cacheRedisTemplate.delete(keys)).thenReturn(2L);
+
+        assertEquals(2, cacheManager.deleteAll(keys));
+    }
+
+    @Test
+    void fetch_NearNamespace_ServesRepeatedReadsFromL1() {
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("hot:post")).thenReturn(json.encode("value"));
+
+        assertEquals(Optional.of("value"), cacheManager.fetch("hot:post", String.class));
+        assertEquals(Optional.of("value"), cacheManager.fetch("hot:post", String.class));
+        assertTrue(cacheManager.isPresent("hot:post"));
+
+        verify(valueOperations, times(1)).get("hot:post");
+        verify(cacheRedisTemplate, never()).hasKey(any());
+        assertEquals(2, meterRegistry.get("cache.requests").tags("tier", "l1", "result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("cache.requests").tags("tier", "l2", "result", "hit").counter().count());
+    }
+
+    @Test
+    void fetch_OtherNamespace_AlwaysReadsRedis() {
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("cold:post")).thenReturn(json.encode("value"));
+
+        cacheManager.fetch("cold:post", String.class);
+        cacheManager.fetch("cold:post", String.class);
+
+        verify(valueOperations, times(2)).get("cold:post");
+    }
+
+    @Test
+    void save_NearNamespace_PublishesInvalidationAndServesFromL1() {
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        cacheManager.save("hot:post", "value", Duration.ofMinutes(1));
+
+        assertEquals(Optional.of("value"), cacheManager.fetch("hot:post", String.class));
+        verify(cacheRedisTemplate).convertAndSend(eq("cache:invalidation"), any(byte[].class));
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    void delete_NearNamespace_EvictsLocalCopy() {
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        cacheManager.save("hot:post", "value", Duration.ofMinutes(1));
+
+        cacheManager.delete("hot:post");
+
+        assertTrue(cacheManager.fetch("hot:post", String.class).isEmpty());
+        verify(valueOperations).get("hot:post");
+    }
+
+    @Test
+    void getOrLoad_Miss_LoadsUnderLeaseAndStoresEnvelope() {
+        byte[] token = {1};
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(distributedLease.tryAcquire("posts:1")).thenReturn(Optional.of(token));
+
+        String value = cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> "loaded");
+
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOperations).set(eq("posts:1"), stored.capture(), eq(Duration.ofMinutes(5)));
+        verify(distributedLease).release("posts:1", token);
+        assertEquals("loaded", value);
+        assertTrue(LoadedValue.isWrapped(stored.getValue()));
+
+        when(valueOperations.get("posts:1")).thenReturn(stored.getValue());
+        assertEquals(Optional.of("loaded"), cacheManager.fetch("posts:1", String.class));
+    }
+
+    @Test
+    void getOrLoad_ConcurrentMisses_LoadOnce() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        CyclicBarrier barrier = new CyclicBarrier(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenAnswer(invocation -> stored.get());
+        doAnswer(invocation -> {
+            stored.set(invocation.getArgument(1));
+            return null;
+        }).when(valueOperations).set(eq("posts:1"), any(byte[].class), any(Duration.class));
+        when(distributedLease.tryAcquire("posts:1")).thenReturn(Optional.of(new byte[]{1}));
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> {
+                        loads.incrementAndGet();
+                        sleep(300);
+                        return "loaded";
+                    });
+                }));
+            }
+
+            for (Future<String> result : results) {
+                assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getOrLoad_LeaseHeldByOtherNode_WaitsForItsValue() {
+        byte[] loadedByOtherNode = new LoadedValue(10, System.currentTimeMillis() + 60_000, json.encode("remote")).wrap();
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenReturn(null, null, loadedByOtherNode);
+        when(distributedLease.tryAcquire("posts:1")).thenReturn(Optional.empty());
+
+        String value = cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> fail("must not load"));
+
+        assertEquals("remote", value);
+        verify(valueOperations, never()).set(anyString(), any(byte[].class), any(Duration.class));
+    }
+
+    @Test
+    void getOrLoad_CloseToExpiry_RefreshesEarly() {
+        byte[] expiring = new LoadedValue(60_000, System.currentTimeMillis(), json.encode("stale")).wrap();
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenReturn(expiring);
+        when(distributedLease.tryAcquire("posts:1")).thenReturn(Optional.of(new byte[]{1}));
+
+        String value = cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> "fresh");
+
+        assertEquals("fresh", value);
+        verify(valueOperations).set(eq("posts:1"), any(byte[].class), eq(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void getOrLoad_FarFromExpiry_ServesCachedValue() {
+        byte[] fresh = new LoadedValue(1, System.currentTimeMillis() + 3_600_000, json.encode("cached")).wrap();
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenReturn(fresh);
+
+        String value = cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> fail("must not load"));
+
+        assertEquals("cached", value);
+        verifyNoInteractions(distributedLease);
+    }
+
+    @Test
+    void getOrLoad_EarlyRefreshLeaseHeldByOtherNode_JoinedMissGetsCachedValue() throws Exception {
+        byte[] expiring = new LoadedValue(60_000, System.currentTimeMillis(), json.encode("stale")).wrap();
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch leaseAnswered = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenReturn(expiring, (byte[]) null);
+        when(distributedLease.tryAcquire("posts:1")).thenAnswer(invocation -> {
+            refreshing.countDown();
+            leaseAnswered.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        try {
+            Future<String> refresh = executor.submit(() ->
+                    cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> fail("must not load")));
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+
+            Future<String> miss = executor.submit(() ->
+                    cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> fail("must not load")));
+            sleep(200);
+            leaseAnswered.countDown();
+
+            assertEquals("stale", refresh.get(5, TimeUnit.SECONDS));
+            assertEquals("stale", miss.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(valueOperations, never()).set(anyString(), any(byte[].class), any(Duration.class));
+    }
+
+    @Test
+    void getOrLoad_ValueWrittenBySave_ServedWithoutLease() {
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenReturn(json.encode("saved"));
+
+        String value = cacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> fail("must not load"));
+
+        assertEquals("saved", value);
+        verifyNoInteractions(distributedLease);
+        verify(valueOperations, never()).set(anyString(), any(byte[].class), any(Duration.class));
+    }
+
+    @Test
+    void fetch_SeparateReadConnection_ReadsThroughIt() {
+        when(cacheReadRedisTemplate.opsForValue()).thenReturn(readValueOperations);
+        when(readValueOperations.get("posts:1")).thenReturn(json.encode("replica"));
+        when(cacheReadRedisTemplate.hasKey("posts:1")).thenReturn(true);
+
+        assertEquals(Optional.of("replica"), replicaReadingCacheManager.fetch("posts:1", String.class));
+        assertTrue(replicaReadingCacheManager.isPresent("posts:1"));
+        verifyNoInteractions(cacheRedisTemplate);
+    }
+
+    @Test
+    void getOrLoad_SeparateReadConnection_StaysOnPrimary() {
+        when(cacheRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("posts:1")).thenReturn(json.encode("primary"));
+
+        String value = replicaReadingCacheManager.getOrLoad("posts:1", String.class, Duration.ofMinutes(5), () -> fail("must not load"));
+
+        assertEquals("primary", value);
+        verifyNoInteractions(cacheReadRedisTemplate);
+    }
+
+    @Test
+    void batchOperations_EmptyKeys_SkipRedis() {
+        assertEquals(0, cacheManager.fetchAll(List.of(), String.class).size());
+        assertTrue(cacheManager.existsAll(List.of()).isEmpty());
+        assertEquals(0, cacheManager.deleteAll(List.of()));
+        cacheManager.saveAll(List.of());
+
+        verifyNoInteractions(cacheRedisTemplate);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.halcyon.rediscache;
+
+import com.halcyon.rediscache.codec.CacheCodec;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.codec.JsonCacheCodec;
+import com.halcyon.rediscache.load.LoadedValue;
+import com.halcyon.rediscache.near.NearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCacheManagerTests {
+    private final CacheCodec json = new JsonCacheCodec();
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> cacheReactiveRedisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, byte[]> valueOperations;
+
+    @Mock
+    private RedisTemplate<String, byte[]> cacheRedisTemplate;
+
+    private ReactiveCacheManager reactiveCacheManager;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getNear().setNamespaces(Set.of("hot"));
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        CacheMetrics cacheMetrics = new CacheMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+        CacheCodecRegistry codecRegistry = new CacheCodecRegistry(
+                beanFactory.getBeanProvider(CacheCodec.class),
+                properties,
+                beanFactory.getBeanProvider(MeterRegistry.class)
+        );
+        NearCache nearCache = new NearCache(properties, cacheMetrics, null, cacheRedisTemplate);
+
+        reactiveCacheManager = new ReactiveCacheManager(cacheReactiveRedisTemplate, cacheReactiveRedisTemplate, codecRegistry, nearCache, cacheMetrics);
+    }
+
+    @Test
+    void saveAsync() {
+        when(cacheReactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(eq("key"), any(byte[].class), eq(Duration.ofMinutes(1)))).thenReturn(Mono.just(true));
+
+        reactiveCacheManager.saveAsync("key", "value", Duration.ofMinutes(1)).toCompletableFuture().join();
+
+        verify(valueOperations).set("key", json.encode("value"), Duration.ofMinutes(1));
+        verify(cacheReactiveRedisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void saveAsync_NearCacheNamespace_PublishesInvalidationWithoutBlockingTemplate() {
+        when(cacheReactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(eq("hot:key"), any(byte[].class), any(Duration.class))).thenReturn(Mono.just(true));
+        when(cacheReactiveRedisTemplate.convertAndSend(anyString(), any())).thenReturn(Mono.just(1L));
+
+        reactiveCacheManager.saveAsync("hot:key", "value", Duration.ofMinutes(1)).toCompletableFuture().join();
+
+        assertTrue(reactiveCacheManager.isPresentAsync("hot:key").toCompletableFuture().join());
+        verify(cacheReactiveRedisTemplate).convertAndSend(eq(new RedisCacheProperties().getNear().getInvalidationChannel()), any());
+        verify(cacheReactiveRedisTemplate, never()).hasKey(anyString());
+        verifyNoInteractions(cacheRedisTemplate);
+    }
+
+    @Test
+    void fetchAsync() {
+        LoadedValue loadedValue = new LoadedValue(5, System.currentTimeMillis() + 60_000, json.encode(42));
+        when(cacheReactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("plain")).thenReturn(Mono.just(json.encode("value")));
+        when(valueOperations.get("loaded")).thenReturn(Mono.just(loadedValue.wrap()));
+        when(valueOperations.get("missing")).thenReturn(Mono.empty());
+
+        assertEquals(Optional.of("value"), reactiveCacheManager.fetchAsync("plain", String.class).toCompletableFuture().join());
+        assertEquals(Optional.of(42), reactiveCacheManager.fetchAsync("loaded", Integer.class).toCompletableFuture().join());
+        assertEquals(Optional.empty(), reactiveCacheManager.fetchAsync("missing", String.class).toCompletableFuture().join());
+    }
+
+    @Test
+    void isPresentAsync() {
+        when(cacheReactiveRedisTemplate.hasKey("jti")).thenReturn(Mono.just(true));
+        when(cacheReactiveRedisTemplate.hasKey("other")).thenReturn(Mono.just(false));
+
+        assertTrue(reactiveCacheManager.isPresentAsync("jti").toCompletableFuture().join());
+        assertFalse(reactiveCacheManager.isPresentAsync("other").toCompletableFuture().join());
+    }
+
+    @Test
+    void deleteAsync() {
+        when(cacheReactiveRedisTemplate.delete("key")).thenReturn(Mono.just(1L));
+
+        reactiveCacheManager.deleteAsync("key").toCompletableFuture().join();
+
+        verify(cacheReactiveRedisTemplate).delete("key");
+    }
+}
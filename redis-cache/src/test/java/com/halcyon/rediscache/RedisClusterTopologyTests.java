@@ -0,0 +1,123 @@
+package com.halcyon.rediscache;
+
+import io.lettuce.core.internal.HostAndPort;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.lettuce.core.resource.DnsResolvers;
+import io.lettuce.core.resource.MappingSocketAddressResolver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs CacheManager against a cluster of three primaries with one replica each, reading from replicas. The nodes
+ * announce their container ports, which Lettuce maps to the ports published on the host.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisClusterTopologyTests {
+    private static final int FIRST_PORT = 7000;
+    private static final int NODES = 6;
+
+    @Container
+    private static final GenericContainer<?> CLUSTER = new GenericContainer<>("grokzen/redis-cluster:7.0.10")
+            .withEnv("IP", "0.0.0.0")
+            .withEnv("INITIAL_PORT", String.valueOf(FIRST_PORT))
+            .withEnv("MASTERS", "3")
+            .withEnv("SLAVES_PER_MASTER", "1")
+            .withExposedPorts(IntStream.range(FIRST_PORT, FIRST_PORT + NODES).boxed().toArray(Integer[]::new));
+
+    private static ClientResources clientResources;
+    private static TopologyFixture first;
+    private static TopologyFixture second;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        awaitClusterState();
+
+        clientResources = DefaultClientResources.builder()
+                .socketAddressResolver(MappingSocketAddressResolver.create(DnsResolvers.JVM_DEFAULT, RedisClusterTopologyTests::published))
+                .build();
+
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Cluster cluster = new RedisProperties.Cluster();
+        cluster.setNodes(IntStream.range(FIRST_PORT, FIRST_PORT + 3).mapToObj(port -> "127.0.0.1:" + port).toList());
+        redisProperties.setCluster(cluster);
+
+        first = new TopologyFixture(redisProperties, properties(), clientResources);
+        second = new TopologyFixture(redisProperties, properties(), clientResources);
+    }
+
+    private static RedisCacheProperties properties() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getTopology().setReadFrom("replicaPreferred");
+        return properties;
+    }
+
+    private static HostAndPort published(HostAndPort announced) {
+        int port = announced.getPort();
+        if (port < FIRST_PORT || port >= FIRST_PORT + NODES) {
+            return announced;
+        }
+
+        return HostAndPort.of(CLUSTER.getHost(), CLUSTER.getMappedPort(port));
+    }
+
+    private static void awaitClusterState() throws Exception {
+        for (int attempt = 0; attempt < 60; attempt++) {
+            String info = CLUSTER.execInContainer("redis-cli", "-p", String.valueOf(FIRST_PORT), "cluster", "info").getStdout();
+            if (info.contains("cluster_state:ok")) {
+                return;
+            }
+
+            Thread.sleep(500);
+        }
+
+        fail("Redis cluster did not become ready");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        first.close();
+        second.close();
+        clientResources.shutdown();
+    }
+
+    @Test
+    void keysSpreadOverSlotsAreWrittenAndReadInBatches() throws Exception {
+        CacheManager cacheManager = first.cacheManager();
+        Map<String, Integer> values = Map.of("cluster:a", 1, "cluster:b", 2, "cluster:c", 3, "cluster:d", 4);
+
+        cacheManager.saveAll(values, Duration.ofMinutes(1));
+        cacheManager.save("cluster:token", "value", Duration.ofMinutes(1));
+
+        assertEquals(Optional.of("value"), TopologyFixture.awaitPresent(() -> cacheManager.fetch("cluster:token", String.class)));
+        assertEquals(values, cacheManager.fetchAll(List.copyOf(values.keySet()), Integer.class).asMap());
+        assertTrue(cacheManager.existsAll(values.keySet()).values().stream().allMatch(Boolean::booleanValue));
+        assertEquals(values.size(), cacheManager.deleteAll(values.keySet()));
+    }
+
+    @Test
+    void nearCacheInvalidationWorksInCluster() throws Exception {
+        TopologyFixture.assertNearCacheInvalidation(first, second);
+    }
+
+    @Test
+    void getOrLoadTakesLeaseOnOwningPrimary() {
+        String loaded = first.cacheManager().getOrLoad("cluster:loaded", String.class, Duration.ofMinutes(1), () -> "loaded");
+
+        assertEquals("loaded", loaded);
+        assertEquals("loaded", second.cacheManager().getOrLoad("cluster:loaded", String.class, Duration.ofMinutes(1), () -> fail("must not load")));
+    }
+}
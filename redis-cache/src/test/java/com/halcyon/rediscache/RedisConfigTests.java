@@ -0,0 +1,72 @@
+package com.halcyon.rediscache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisConfigTests {
+
+    @Test
+    void redisConfiguration_ClusterNodesConfigured_UsesCluster() {
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Cluster cluster = new RedisProperties.Cluster();
+        cluster.setNodes(List.of("node-1:7000", "node-2:7001"));
+        redisProperties.setCluster(cluster);
+
+        RedisClusterConfiguration configuration = assertInstanceOf(RedisClusterConfiguration.class,
+                RedisConfig.redisConfiguration(redisProperties, new RedisCacheProperties.Topology()));
+
+        assertEquals(2, configuration.getClusterNodes().size());
+    }
+
+    @Test
+    void redisConfiguration_SentinelConfigured_UsesSentinel() {
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Sentinel sentinel = new RedisProperties.Sentinel();
+        sentinel.setMaster("mymaster");
+        sentinel.setNodes(List.of("sentinel-1:26379"));
+        redisProperties.setSentinel(sentinel);
+
+        RedisSentinelConfiguration configuration = assertInstanceOf(RedisSentinelConfiguration.class,
+                RedisConfig.redisConfiguration(redisProperties, new RedisCacheProperties.Topology()));
+
+        assertEquals("mymaster", configuration.getMaster().getName());
+    }
+
+    @Test
+    void redisConfiguration_ReplicasConfigured_UsesStaticPrimaryReplica() {
+        RedisCacheProperties.Topology topology = new RedisCacheProperties.Topology();
+        topology.setReplicas(List.of("replica:6380"));
+
+        RedisStaticMasterReplicaConfiguration configuration = assertInstanceOf(RedisStaticMasterReplicaConfiguration.class,
+                RedisConfig.redisConfiguration(new RedisProperties(), topology));
+
+        assertEquals(2, configuration.getNodes().size());
+    }
+
+    @Test
+    void primaryConfiguration_ReplicasConfigured_ConnectsToPrimaryOnly() {
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setHost("primary");
+        RedisCacheProperties.Topology topology = new RedisCacheProperties.Topology();
+        topology.setReplicas(List.of("replica:6380"));
+
+        RedisStandaloneConfiguration configuration = assertInstanceOf(RedisStandaloneConfiguration.class,
+                RedisConfig.primaryConfiguration(redisProperties, topology));
+
+        assertEquals("primary", configuration.getHostName());
+    }
+
+    @Test
+    void redisConfiguration_NothingConfigured_UsesStandalone() {
+        assertInstanceOf(RedisStandaloneConfiguration.class,
+                RedisConfig.redisConfiguration(new RedisProperties(), new RedisCacheProperties.Topology()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.halcyon.rediscache;
+
+import io.lettuce.core.internal.HostAndPort;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.lettuce.core.resource.DnsResolvers;
+import io.lettuce.core.resource.MappingSocketAddressResolver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs CacheManager against a primary and a replica monitored by one sentinel, reading from the replica. Sentinel
+ * hands out the addresses the nodes have inside the network, which Lettuce maps to the ports published on the host.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisSentinelTopologyTests {
+    private static final String IMAGE = "redis:7.4.0-alpine";
+    private static final int PRIMARY_PORT = 6379;
+    private static final int REPLICA_PORT = 6380;
+    private static final int SENTINEL_PORT = 26379;
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    private static final GenericContainer<?> PRIMARY = new GenericContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withNetworkAliases("redis-primary")
+            .withExposedPorts(PRIMARY_PORT);
+
+    @Container
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withNetworkAliases("redis-replica")
+            .withCommand("redis-server", "--port", String.valueOf(REPLICA_PORT),
+                    "--replicaof", "redis-primary", String.valueOf(PRIMARY_PORT),
+                    "--replica-announce-ip", "redis-replica")
+            .withExposedPorts(REPLICA_PORT)
+            .dependsOn(PRIMARY);
+
+    @Container
+    private static final GenericContainer<?> SENTINEL = new GenericContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withCommand("sh", "-c", "printf '"
+                    + "port " + SENTINEL_PORT + "\\n"
+                    + "sentinel resolve-hostnames yes\\n"
+                    + "sentinel announce-hostnames yes\\n"
+                    + "sentinel monitor mymaster redis-primary " + PRIMARY_PORT + " 1\\n"
+                    + "' > /tmp/sentinel.conf && redis-sentinel /tmp/sentinel.conf")
+            .withExposedPorts(SENTINEL_PORT)
+            .waitingFor(Wait.forLogMessage(".*\\+monitor master mymaster.*", 1))
+            .dependsOn(PRIMARY, REPLICA);
+
+    private static ClientResources clientResources;
+    private static TopologyFixture first;
+    private static TopologyFixture second;
+
+    @BeforeAll
+    static void setUp() {
+        clientResources = DefaultClientResources.builder()
+                .socketAddressResolver(MappingSocketAddressResolver.create(DnsResolvers.JVM_DEFAULT, RedisSentinelTopologyTests::published))
+                .build();
+
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Sentinel sentinel = new RedisProperties.Sentinel();
+        sentinel.setMaster("mymaster");
+        sentinel.setNodes(List.of("redis-sentinel:" + SENTINEL_PORT));
+        redisProperties.setSentinel(sentinel);
+
+        first = new TopologyFixture(redisProperties, properties(), clientResources);
+        second = new TopologyFixture(redisProperties, properties(), clientResources);
+    }
+
+    private static RedisCacheProperties properties() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getTopology().setReadFrom("replicaPreferred");
+        return properties;
+    }
+
+    private static HostAndPort published(HostAndPort announced) {
+        return switch (announced.getPort()) {
+            case PRIMARY_PORT -> HostAndPort.of(PRIMARY.getHost(), PRIMARY.getMappedPort(PRIMARY_PORT));
+            case REPLICA_PORT -> HostAndPort.of(REPLICA.getHost(), REPLICA.getMappedPort(REPLICA_PORT));
+            case SENTINEL_PORT -> HostAndPort.of(SENTINEL.getHost(), SENTINEL.getMappedPort(SENTINEL_PORT));
+            default -> announced;
+        };
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        first.close();
+        second.close();
+        clientResources.shutdown();
+    }
+
+    @Test
+    void primaryIsDiscoveredThroughSentinel() throws Exception {
+        CacheManager cacheManager = first.cacheManager();
+        cacheManager.save("sentinel:token", "value", Duration.ofMinutes(1));
+
+        assertEquals(Optional.of("value"), TopologyFixture.awaitPresent(() -> cacheManager.fetch("sentinel:token", String.class)));
+        assertTrue(cacheManager.isPresent("sentinel:token"));
+        assertEquals("1", PRIMARY.execInContainer("redis-cli", "exists", "sentinel:token").getStdout().trim());
+    }
+
+    @Test
+    void nearCacheInvalidationWorksWithSentinel() throws Exception {
+        TopologyFixture.assertNearCacheInvalidation(first, second);
+    }
+}
@@ -0,0 +1,98 @@
+package com.halcyon.rediscache;
+
+import io.lettuce.core.resource.ClientResources;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs CacheManager against a primary with one replica, reading from the replica.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisTopologyTests {
+    private static final String IMAGE = "redis:7.4.0-alpine";
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    private static final GenericContainer<?> PRIMARY = new GenericContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withNetworkAliases("redis-primary")
+            .withExposedPorts(6379);
+
+    @Container
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>(IMAGE)
+            .withNetwork(NETWORK)
+            .withCommand("redis-server", "--replicaof", "redis-primary", "6379")
+            .withExposedPorts(6379)
+            .dependsOn(PRIMARY);
+
+    private static ClientResources clientResources;
+    private static TopologyFixture first;
+    private static TopologyFixture second;
+
+    @BeforeAll
+    static void setUp() {
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setHost(PRIMARY.getHost());
+        redisProperties.setPort(PRIMARY.getMappedPort(6379));
+        redisProperties.getLettuce().getPool().setEnabled(true);
+
+        clientResources = new RedisConfig().lettuceClientResources(properties());
+        first = new TopologyFixture(redisProperties, properties(), clientResources);
+        second = new TopologyFixture(redisProperties, properties(), clientResources);
+    }
+
+    private static RedisCacheProperties properties() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getTopology().setReadFrom("replicaPreferred");
+        properties.getTopology().setReplicas(List.of(REPLICA.getHost() + ":" + REPLICA.getMappedPort(6379)));
+        properties.getTopology().setIoThreads(2);
+        properties.getTopology().setComputationThreads(2);
+        return properties;
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        first.close();
+        second.close();
+        clientResources.shutdown();
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadsAreServedAfterReplication() throws Exception {
+        CacheManager cacheManager = first.cacheManager();
+        cacheManager.save("topology:token", "value", Duration.ofMinutes(1));
+        cacheManager.saveAll(Map.of("topology:first", 1, "topology:second", 2), Duration.ofMinutes(1));
+
+        assertEquals(Optional.of("value"), TopologyFixture.awaitPresent(() -> cacheManager.fetch("topology:token", String.class)));
+        assertTrue(cacheManager.isPresent("topology:token"));
+        assertEquals(Map.of("topology:first", 1, "topology:second", 2),
+                cacheManager.fetchAll(List.of("topology:first", "topology:second"), Integer.class).asMap());
+        assertEquals(Integer.valueOf(1), Integer.valueOf(REPLICA.execInContainer("redis-cli", "exists", "topology:token").getStdout().trim()));
+    }
+
+    @Test
+    void nearCacheInvalidationWorksWithReplicas() throws Exception {
+        TopologyFixture.assertNearCacheInvalidation(first, second);
+    }
+
+    @Test
+    void getOrLoadSeesItsOwnWrite() {
+        String loaded = first.cacheManager().getOrLoad("topology:loaded", String.class, Duration.ofMinutes(1), () -> "loaded");
+
+        assertEquals("loaded", loaded);
+        assertEquals("loaded", first.cacheManager().getOrLoad("topology:loaded", String.class, Duration.ofMinutes(1), () -> fail("must not load")));
+    }
+}
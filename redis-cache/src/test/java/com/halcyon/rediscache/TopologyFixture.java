@@ -0,0 +1,113 @@
+package com.halcyon.rediscache;
+
+import com.halcyon.rediscache.codec.CacheCodec;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.load.DistributedLease;
+import com.halcyon.rediscache.near.NearCache;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One application node wired the way {@link RedisConfig} wires it: a primary connection for writes and pub/sub, a
+ * read connection following {@code cache.topology.read-from}, and a near cache for the {@code hot} namespace.
+ */
+final class TopologyFixture implements AutoCloseable {
+    static final String NEAR_NAMESPACE = "hot";
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final LettuceConnectionFactory readConnectionFactory;
+    private final NearCache nearCache;
+    private final CacheManager cacheManager;
+
+    TopologyFixture(RedisProperties redisProperties, RedisCacheProperties properties, ClientResources clientResources) {
+        RedisConfig redisConfig = new RedisConfig();
+        properties.getNear().getNamespaces().add(NEAR_NAMESPACE);
+
+        connectionFactory = start(redisConfig.redisConnectionFactory(redisProperties, properties, clientResources));
+        readConnectionFactory = start(redisConfig.cacheReadConnectionFactory(redisProperties, properties, clientResources));
+
+        RedisTemplate<String, byte[]> redisTemplate = redisConfig.cacheRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        RedisTemplate<String, byte[]> readRedisTemplate = redisConfig.cacheReadRedisTemplate(readConnectionFactory);
+        readRedisTemplate.afterPropertiesSet();
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        CacheMetrics cacheMetrics = new CacheMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+
+        nearCache = new NearCache(properties, cacheMetrics, connectionFactory, redisTemplate);
+        nearCache.afterPropertiesSet();
+
+        cacheManager = new CacheManager(
+                redisTemplate,
+                readRedisTemplate,
+                new CacheCodecRegistry(beanFactory.getBeanProvider(CacheCodec.class), properties, beanFactory.getBeanProvider(MeterRegistry.class)),
+                nearCache,
+                cacheMetrics,
+                new DistributedLease(redisTemplate, properties),
+                properties
+        );
+    }
+
+    CacheManager cacheManager() {
+        return cacheManager;
+    }
+
+    /**
+     * Checks that a write on one node evicts the near-cached copy on another, which needs a working pub/sub
+     * subscription on the primary connection.
+     */
+    static void assertNearCacheInvalidation(TopologyFixture writer, TopologyFixture reader) throws InterruptedException {
+        String key = NEAR_NAMESPACE + ":invalidation";
+        writer.cacheManager.save(key, "first", Duration.ofMinutes(1));
+        assertEquals(Optional.of("first"), await(() -> reader.cacheManager.fetch(key, String.class), "first"::equals));
+
+        writer.cacheManager.save(key, "second", Duration.ofMinutes(1));
+        assertEquals(Optional.of("second"), await(() -> reader.cacheManager.fetch(key, String.class), "second"::equals));
+    }
+
+    static <T> Optional<T> awaitPresent(Supplier<Optional<T>> read) throws InterruptedException {
+        return await(read, value -> true);
+    }
+
+    private static <T> Optional<T> await(Supplier<Optional<T>> read, Predicate<T> expected)
+            throws InterruptedException {
+        Optional<T> value = Optional.empty();
+
+        for (int attempt = 0; attempt < 50; attempt++) {
+            value = read.get();
+            if (value.isPresent() && expected.test(value.get())) {
+                return value;
+            }
+
+            Thread.sleep(100);
+        }
+
+        return value;
+    }
+
+    private static LettuceConnectionFactory start(LettuceConnectionFactory connectionFactory) {
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        return connectionFactory;
+    }
+
+    @Override
+    public void close() throws Exception {
+        nearCache.destroy();
+        readConnectionFactory.destroy();
+        connectionFactory.destroy();
+    }
+}
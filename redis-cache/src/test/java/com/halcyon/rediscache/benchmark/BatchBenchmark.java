@@ -0,0 +1,129 @@
+package com.halcyon.rediscache.benchmark;
+
+import com.halcyon.rediscache.CacheEntry;
+import com.halcyon.rediscache.CacheManager;
+import com.halcyon.rediscache.CacheMetrics;
+import com.halcyon.rediscache.RedisCacheProperties;
+import com.halcyon.rediscache.RedisConfig;
+import com.halcyon.rediscache.codec.CacheCodec;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.load.DistributedLease;
+import com.halcyon.rediscache.near.NearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Single-key round trips versus pipelined/MGET batch calls against a running Redis
+ * ({@code -Dredis.host}, {@code -Dredis.port}, {@code -Dredis.password}; defaults match docker-compose).
+ * Run with {@code mvn -pl redis-cache -am test -Pbenchmark -Dbenchmark.include=BatchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    private LettuceConnectionFactory connectionFactory;
+    private CacheManager cacheManager;
+    private List<String> keys;
+    private List<CacheEntry> entries;
+
+    @Setup
+    public void setUp() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379)
+        );
+        configuration.setPassword(System.getProperty("redis.password", "password"));
+
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        var redisTemplate = new RedisConfig().cacheRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        RedisCacheProperties properties = new RedisCacheProperties();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        CacheMetrics cacheMetrics = new CacheMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+        cacheManager = new CacheManager(
+                redisTemplate,
+                redisTemplate,
+                new CacheCodecRegistry(
+                        beanFactory.getBeanProvider(CacheCodec.class),
+                        properties,
+                        beanFactory.getBeanProvider(MeterRegistry.class)
+                ),
+                new NearCache(properties, cacheMetrics, connectionFactory, redisTemplate),
+                cacheMetrics,
+                new DistributedLease(redisTemplate, properties),
+                properties
+        );
+
+        keys = IntStream.range(0, batchSize).mapToObj(i -> "benchmark:" + i).toList();
+        entries = keys.stream().map(key -> new CacheEntry(key, "value-" + key, TIME_TO_LIVE)).toList();
+        cacheManager.saveAll(entries);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheManager.deleteAll(keys);
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public int fetchOneByOne() {
+        int found = 0;
+        for (String key : keys) {
+            found += cacheManager.fetch(key, String.class).isPresent() ? 1 : 0;
+        }
+
+        return found;
+    }
+
+    @Benchmark
+    public int fetchAll() {
+        return cacheManager.fetchAll(keys, String.class).size();
+    }
+
+    @Benchmark
+    public int existsOneByOne() {
+        int found = 0;
+        for (String key : keys) {
+            found += cacheManager.isPresent(key) ? 1 : 0;
+        }
+
+        return found;
+    }
+
+    @Benchmark
+    public int existsAll() {
+        return cacheManager.existsAll(keys).size();
+    }
+
+    @Benchmark
+    public void saveOneByOne() {
+        for (CacheEntry entry : entries) {
+            cacheManager.save(entry.key(), entry.value(), entry.timeToLive());
+        }
+    }
+
+    @Benchmark
+    public void saveAll() {
+        cacheManager.saveAll(entries);
+    }
+}
@@ -0,0 +1,82 @@
+package com.halcyon.rediscache.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.halcyon.rediscache.codec.CacheCodec;
+import com.halcyon.rediscache.codec.JsonCacheCodec;
+import com.halcyon.rediscache.codec.SmileCacheCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous Jackson2JsonRedisSerializer + per-call ObjectMapper path with the cached JSON and Smile codecs.
+ * Run with {@code mvn -pl redis-cache -am test -Pbenchmark -Dbenchmark.include=CodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    private final Jackson2JsonRedisSerializer<Object> legacySerializer = new Jackson2JsonRedisSerializer<>(Object.class);
+    private final CacheCodec json = new JsonCacheCodec();
+    private final CacheCodec smile = new SmileCacheCodec();
+
+    private Session session;
+    private byte[] legacyBytes;
+    private byte[] jsonBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setUp() {
+        session = new Session(
+                "0b3f5e2a9d7c4e1f8a6b2c3d4e5f6a7b",
+                "user1234@example.com",
+                1234L,
+                Instant.parse("2024-05-01T10:15:30Z"),
+                List.of("ROLE_USER", "ROLE_VERIFIED"),
+                false
+        );
+
+        legacyBytes = json.encode(session);
+        jsonBytes = json.encode(session);
+        smileBytes = smile.encode(session);
+
+        System.out.printf("%nEncoded size: json=%d bytes, smile=%d bytes%n", jsonBytes.length, smileBytes.length);
+    }
+
+    @Benchmark
+    public Session legacyDecode() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper.convertValue(legacySerializer.deserialize(legacyBytes), Session.class);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return json.encode(session);
+    }
+
+    @Benchmark
+    public Session jsonDecode() {
+        return json.decode(jsonBytes, Session.class);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() {
+        return smile.encode(session);
+    }
+
+    @Benchmark
+    public Session smileDecode() {
+        return smile.decode(smileBytes, Session.class);
+    }
+
+    public record Session(String token, String email, Long userId, Instant issuedAt, List<String> roles, boolean twoFactor) {
+    }
+}
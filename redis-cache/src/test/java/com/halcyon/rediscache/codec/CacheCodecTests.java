@@ -0,0 +1,153 @@
+package com.halcyon.rediscache.codec;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.halcyon.rediscache.RedisCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheCodecTests {
+    private static final Sample SAMPLE = new Sample(7L, "test@example.com", Instant.parse("2024-05-01T10:15:30Z"), List.of(1, 2, 3));
+
+    @Test
+    void jsonCodec_RoundTripsJavaTimeValues() {
+        CacheCodec codec = new JsonCacheCodec();
+
+        assertEquals(SAMPLE, codec.decode(codec.encode(SAMPLE), Sample.class));
+    }
+
+    @Test
+    void smileCodec_RoundTripsAndIsSmallerThanJson() {
+        CacheCodec json = new JsonCacheCodec();
+        CacheCodec smile = new SmileCacheCodec();
+
+        byte[] encoded = smile.encode(SAMPLE);
+
+        assertEquals(SAMPLE, smile.decode(encoded, Sample.class));
+        assertTrue(encoded.length < json.encode(SAMPLE).length);
+    }
+
+    @Test
+    void smileCodec_DecodesValuesWrittenAsJson() {
+        byte[] legacy = new Jackson2JsonRedisSerializer<>(Object.class).serialize(42);
+
+        assertEquals(42, new SmileCacheCodec().decode(legacy, Integer.class));
+        assertEquals("", new SmileCacheCodec().decode(new JsonCacheCodec().encode(""), String.class));
+    }
+
+    @Test
+    void forKey_UsesNamespaceMappingAndFallsBackToDefault() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getCodec().getNamespaces().put("2fa", SmileCacheCodec.NAME);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+
+        CacheCodecRegistry registry = new CacheCodecRegistry(
+                beanFactory.getBeanProvider(CacheCodec.class), properties, beanFactory.getBeanProvider(MeterRegistry.class));
+        registry.forKey("2fa:test@example.com").encode(SAMPLE);
+
+        assertEquals(SmileCacheCodec.NAME, registry.forKey("2fa:test@example.com").name());
+        assertEquals(JsonCacheCodec.NAME, registry.forKey("refresh-token").name());
+        assertEquals(JsonCacheCodec.NAME, registry.forKey("other:key").name());
+        assertEquals(1, meterRegistry.get("cache.codec.size").tag("codec", SmileCacheCodec.NAME).summary().count());
+    }
+
+    @Test
+    void get_UnknownCodec_ThrowsIllegalArgumentException() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getCodec().setDefaultCodec("kryo");
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+        assertThrows(IllegalArgumentException.class, () -> new CacheCodecRegistry(
+                beanFactory.getBeanProvider(CacheCodec.class), properties, beanFactory.getBeanProvider(MeterRegistry.class)));
+    }
+
+    @Test
+    void polymorphicCodecs_DecodeWithoutTargetClassAndKeepIgnoredFields() {
+        Account owner = new Account(1L, "owner@example.com", "owner-hash", List.of());
+        Account target = new Account(2L, "target@example.com", "target-hash", List.of());
+        Follow follow = new Follow(3L, owner, target);
+        owner.setFollowing(List.of(follow));
+
+        for (CacheCodec codec : List.of(new PolymorphicJsonCacheCodec(), new PolymorphicSmileCacheCodec())) {
+            Object decodedAccount = codec.decode(codec.encode(owner), Object.class);
+            Object decodedFollow = codec.decode(codec.encode(follow), Object.class);
+            Object decodedIds = codec.decode(codec.encode(new ArrayList<>(List.of(4, 5))), Object.class);
+
+            Account account = assertInstanceOf(Account.class, decodedAccount);
+            assertEquals("owner@example.com", account.getEmail());
+            assertNull(account.getFollowing());
+            assertEquals("target@example.com", assertInstanceOf(Follow.class, decodedFollow).getTarget().getEmail());
+            assertEquals(List.of(4, 5), decodedIds);
+        }
+    }
+
+    @Test
+    void polymorphicCodecs_LeaveOutCacheIgnoredFields() {
+        Account account = new Account(1L, "owner@example.com", "owner-hash", List.of());
+
+        for (CacheCodec codec : List.of(new PolymorphicJsonCacheCodec(), new PolymorphicSmileCacheCodec())) {
+            byte[] encoded = codec.encode(account);
+
+            assertFalse(new String(encoded).contains("owner-hash"));
+            assertNull(assertInstanceOf(Account.class, codec.decode(encoded, Object.class)).getPassword());
+        }
+    }
+
+    @Test
+    void polymorphicCodec_RejectsTypesOutsideTrustedPackages() {
+        byte[] untrusted = "{\"@class\":\"javax.management.ObjectName\",\"value\":\"x\"}".getBytes();
+
+        assertThrows(CacheCodecException.class, () -> new PolymorphicJsonCacheCodec().decode(untrusted, Object.class));
+    }
+
+    record Sample(Long id, String email, Instant createdAt, List<Integer> values) {
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Account {
+        private Long id;
+
+        @JsonIgnore
+        private String email;
+
+        @CacheIgnore
+        private String password;
+
+        @JsonBackReference
+        private List<Follow> following;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Follow {
+        private Long id;
+
+        @JsonManagedReference
+        private Account owner;
+
+        @JsonManagedReference
+        private Account target;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.halcyon.rediscache.near;
+
+import com.halcyon.rediscache.CacheMetrics;
+import com.halcyon.rediscache.RedisCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class NearCacheTests {
+    private static final byte[] VALUE = "value".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RedisTemplate<String, byte[]> cacheRedisTemplate;
+
+    private NearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.getNear().setNamespaces(Set.of("hot"));
+        CacheMetrics cacheMetrics = new CacheMetrics(new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        nearCache = new NearCache(properties, cacheMetrics, null, cacheRedisTemplate);
+    }
+
+    @Test
+    void isEnabled() {
+        assertTrue(nearCache.isEnabled("hot:key"));
+        assertFalse(nearCache.isEnabled("cold:key"));
+        assertFalse(nearCache.isEnabled("hot"));
+    }
+
+    @Test
+    void onMessage_FromOtherNode_EvictsKeys() {
+        nearCache.write("hot:first", VALUE, Duration.ofMinutes(1));
+        nearCache.write("hot:second", VALUE, Duration.ofMinutes(1));
+
+        nearCache.onMessage(message("other-node\nhot:first"), null);
+
+        assertTrue(nearCache.get("hot:first").isEmpty());
+        assertTrue(nearCache.get("hot:second").isPresent());
+    }
+
+    @Test
+    void onMessage_FromSameNode_IsIgnored() {
+        nearCache.write("hot:first", VALUE, Duration.ofMinutes(1));
+        nearCache.publish(List.of("hot:first"));
+
+        ArgumentCaptor<byte[]> published = ArgumentCaptor.forClass(byte[].class);
+        verify(cacheRedisTemplate).convertAndSend(eq("cache:invalidation"), published.capture());
+        nearCache.onMessage(new DefaultMessage(new byte[0], published.getValue()), null);
+
+        assertTrue(nearCache.get("hot:first").isPresent());
+    }
+
+    @Test
+    void putIfNotInvalidated_InvalidatedSinceRead_DoesNotCache() {
+        long readToken = nearCache.readToken();
+        nearCache.onMessage(message("other-node\nhot:unrelated"), null);
+
+        nearCache.putIfNotInvalidated("hot:first", VALUE, readToken);
+
+        assertTrue(nearCache.get("hot:first").isEmpty());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(new byte[0], body.getBytes(StandardCharsets.UTF_8));
+    }
+}
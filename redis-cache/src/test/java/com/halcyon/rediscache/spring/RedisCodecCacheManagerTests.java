@@ -0,0 +1,111 @@
+package com.halcyon.rediscache.spring;
+
+import com.halcyon.rediscache.CacheManager;
+import com.halcyon.rediscache.RedisCacheProperties;
+import com.halcyon.rediscache.codec.CacheCodec;
+import com.halcyon.rediscache.codec.CacheCodecRegistry;
+import com.halcyon.rediscache.codec.PolymorphicSmileCacheCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisCodecCacheManagerTests {
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CacheEvictionListener evictionListener;
+
+    private CacheCodecRegistry codecRegistry;
+    private RedisCodecCacheManager redisCodecCacheManager;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheProperties properties = new RedisCacheProperties();
+        RedisCacheProperties.CacheSpec users = new RedisCacheProperties.CacheSpec();
+        users.setTimeToLive(Duration.ofMinutes(5));
+        users.setCodec(PolymorphicSmileCacheCodec.NAME);
+        properties.getSpringCache().getCaches().put("users", users);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("evictionListener", evictionListener);
+        codecRegistry = new CacheCodecRegistry(
+                beanFactory.getBeanProvider(CacheCodec.class), properties, beanFactory.getBeanProvider(MeterRegistry.class));
+
+        redisCodecCacheManager = new RedisCodecCacheManager(
+                cacheManager, codecRegistry, properties, beanFactory.getBeanProvider(CacheEvictionListener.class));
+        redisCodecCacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    void getCache_ConfiguredCache_UsesItsTtlAndCodec() {
+        Cache cache = redisCodecCacheManager.getCache("users");
+
+        RedisCodecCache redisCodecCache = assertInstanceOf(RedisCodecCache.class,
+                assertInstanceOf(TransactionAwareCacheDecorator.class, cache).getTargetCache());
+        assertEquals(Duration.ofMinutes(5), redisCodecCache.getTimeToLive());
+        assertEquals(PolymorphicSmileCacheCodec.NAME, codecRegistry.forKey("users:1").name());
+    }
+
+    @Test
+    void getCache_UnknownCache_CreatedWithDefaults() {
+        RedisCodecCache cache = (RedisCodecCache) ((TransactionAwareCacheDecorator) redisCodecCacheManager.getCache("posts")).getTargetCache();
+
+        assertEquals(Duration.ofMinutes(10), cache.getTimeToLive());
+        assertEquals("json-typed", codecRegistry.forKey("posts:1").name());
+    }
+
+    @Test
+    void getPutEvict_UseNamespacedKeys() {
+        Cache cache = redisCodecCacheManager.getCache("users");
+        when(cacheManager.fetch("users:1", Object.class)).thenReturn(Optional.of("cached"));
+        when(cacheManager.fetch("users:2", Object.class)).thenReturn(Optional.empty());
+
+        assertEquals("cached", cache.get(1L, String.class));
+        assertNull(cache.get(2L));
+
+        cache.put(3L, "value");
+        verify(cacheManager).save("users:3", "value", Duration.ofMinutes(5));
+
+        cache.evict(3L);
+        verify(cacheManager).delete("users:3");
+        verify(evictionListener).onEvict("users", 3L);
+
+        cache.clear();
+        verify(cacheManager).deleteNamespace("users");
+        verify(evictionListener).onClear("users");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_WithLoader_LoadsThroughGetOrLoad() {
+        when(cacheManager.getOrLoad(eq("users:1"), eq(Object.class), eq(Duration.ofMinutes(5)), any()))
+                .thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(3)).get());
+
+        assertEquals("loaded", redisCodecCacheManager.getCache("users").get(1L, () -> "loaded"));
+    }
+
+    @Test
+    void put_NullValue_ThrowsIllegalArgumentException() {
+        Cache cache = redisCodecCacheManager.getCache("users");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.put(1L, null));
+        verifyNoInteractions(cacheManager);
+    }
+}
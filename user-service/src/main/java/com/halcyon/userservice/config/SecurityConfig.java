@@ -34,7 +34,10 @@ public class SecurityConfig {
                                         "/api/v1/users/exists",
                                         "/api/v1/users/{userId}",
                                         "/api/v1/users/private/**",
-                                        "/api/v1/subscriptions/subscribers/owner/{ownerId}"
+                                        "/api/v1/subscriptions/private/**",
+                                        "/api/v1/subscriptions/subscribers/owner/{ownerId}",
+                                        // Probed by the load balancers of the calling services
+                                        "/actuator/health"
                                 ).permitAll()
                                 .anyRequest().authenticated()
                 )
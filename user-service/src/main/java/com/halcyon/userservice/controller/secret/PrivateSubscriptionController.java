@@ -21,4 +21,13 @@ public class PrivateSubscriptionController {
         List<Integer> emails = subscriptionService.getIdOfUsersSubscribedByUser(ownerId, privateSecret);
         return ResponseEntity.ok(emails);
     }
+
+    @GetMapping("/owner")
+    public ResponseEntity<List<Integer>> getIdOfUsersSubscribedByEmail(
+            @RequestParam("email") String email,
+            @RequestHeader("PrivateSecret") String privateSecret
+    ) {
+        List<Integer> ids = subscriptionService.getIdOfUsersSubscribedByUser(email, privateSecret);
+        return ResponseEntity.ok(ids);
+    }
 }
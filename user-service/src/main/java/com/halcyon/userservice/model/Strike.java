@@ -13,7 +13,8 @@ import lombok.*;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Strike {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "strikes_id_seq")
+    @SequenceGenerator(name = "strikes_id_seq", sequenceName = "strikes_id_seq", allocationSize = 50)
     @Column(name = "id")
     @EqualsAndHashCode.Include
     private Long id;
@@ -2,6 +2,7 @@ package com.halcyon.userservice.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.halcyon.rediscache.codec.CacheIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -20,7 +21,8 @@ import java.util.List;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     @Column(name = "id")
     @EqualsAndHashCode.Include
     private Long id;
@@ -42,6 +44,7 @@ public class User {
     private boolean isVerified;
 
     @Column(name = "password")
+    @CacheIgnore
     private String password;
 
     @Column(name = "is_banned")
@@ -51,6 +54,7 @@ public class User {
     private boolean isUsing2FA;
 
     @Column(name = "secret")
+    @CacheIgnore
     private String secret;
 
     @Column(name = "auth_provider")
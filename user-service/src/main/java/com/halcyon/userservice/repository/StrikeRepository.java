@@ -12,4 +12,5 @@ public interface StrikeRepository extends JpaRepository<Strike, Long> {
     boolean existsByOwnerAndTarget(User owner, User target);
     List<Strike> findAllByOwner(User owner);
     List<Strike> findAllByTarget(User target);
+    long countByTarget(User target);
 }
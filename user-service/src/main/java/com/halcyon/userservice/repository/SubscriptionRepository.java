@@ -2,20 +2,33 @@ package com.halcyon.userservice.repository;
 
 import com.halcyon.userservice.model.Subscription;
 import com.halcyon.userservice.model.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    String SUBSCRIBED_USER_IDS_CACHE = "subscribedUserIds";
+
     boolean existsByOwnerAndTarget(User owner, User target);
     List<Subscription> findAllByOwner(User owner);
     List<Subscription> findAllByTarget(User target);
+
+    @CacheEvict(cacheNames = SUBSCRIBED_USER_IDS_CACHE, key = "#p0.id")
     void deleteByOwnerAndTarget(User owner, User target);
 
+    @Override
+    @NonNull
+    @CacheEvict(cacheNames = SUBSCRIBED_USER_IDS_CACHE, key = "#p0.owner.id")
+    <S extends Subscription> S save(@NonNull S subscription);
+
+    @Cacheable(cacheNames = SUBSCRIBED_USER_IDS_CACHE, key = "#p0.id")
     @Query("SELECT user.id FROM User user JOIN user.subscribers subscribers WHERE subscribers.owner = :owner")
     List<Integer> findIdOfUsersSubscribedByUser(@Param("owner") User owner);
 }
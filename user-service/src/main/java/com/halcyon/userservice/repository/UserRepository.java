@@ -1,13 +1,45 @@
 package com.halcyon.userservice.repository;
 
 import com.halcyon.userservice.model.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    String USERS_CACHE = "users";
+    String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
     boolean existsByEmail(String email);
+
+    /**
+     * Cached users have no password or 2FA secret, reads that need them or save the user back use this.
+     */
+    Optional<User> readByEmail(String email);
+
+    /**
+     * Cached users have no password or 2FA secret, reads that need them or save the user back use this.
+     */
+    Optional<User> readById(Long id);
+
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, key = "#p0", unless = "#result == null")
     Optional<User> findByEmail(String email);
+
+    @Override
+    @NonNull
+    @Cacheable(cacheNames = USERS_CACHE, key = "#p0", unless = "#result == null")
+    Optional<User> findById(@NonNull Long id);
+
+    @Override
+    @NonNull
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_CACHE, key = "#p0.id", condition = "#p0.id != null"),
+            @CacheEvict(cacheNames = USERS_BY_EMAIL_CACHE, key = "#p0.email", condition = "#p0.email != null")
+    })
+    <S extends User> S save(@NonNull S user);
 }
@@ -36,7 +36,7 @@ public class StrikeService {
             throw new StrikeAlreadyExistsException();
         }
 
-        if (target.getStrikes().size() == 19) {
+        if (strikeRepository.countByTarget(target) == 19) {
             target = userService.ban(target);
         }
 
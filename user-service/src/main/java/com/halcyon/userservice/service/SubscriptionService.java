@@ -110,6 +110,13 @@ public class SubscriptionService {
         return subscriptionRepository.findIdOfUsersSubscribedByUser(owner);
     }
 
+    public List<Integer> getIdOfUsersSubscribedByUser(String ownerEmail, String authSecretKey) {
+        isValidPrivateSecret(authSecretKey);
+
+        User owner = userService.findByEmail(ownerEmail);
+        return subscriptionRepository.findIdOfUsersSubscribedByUser(owner);
+    }
+
     private void isValidPrivateSecret(String authSecretKey) {
         if (StringUtils.isBlank(authSecretKey) || !authSecretKey.equals(privateSecret)) {
             throw new BadCredentialsException("Bad Request Header Credentials.");
@@ -13,6 +13,7 @@ import com.halcyon.userservice.repository.UserRepository;
 import io.micrometer.common.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -104,7 +105,7 @@ public class UserService {
     public User updateOAuth2User(UpdateOAuth2UserDto dto, String authSecretKey) {
         isValidPrivateSecret(authSecretKey);
 
-        User user = findByEmail(dto.getEmail());
+        User user = findByEmailWithCredentials(dto.getEmail());
         user.setUsername(dto.getUsername());
         user.setAvatarPath(dto.getAvatarUrl());
 
@@ -117,10 +118,11 @@ public class UserService {
      * It also sends a {@link UserIsBannedMessage} to notification-service
      * by calling {@link MailActionsProducer#executeSendUserIsBannedMessage(UserIsBannedMessage)}.
      *
-     * @param user the {@link User} entity to be banned
+     * @param user the {@link User} entity to be banned, read again with its credentials before saving
      * @return the updated and saved {@link User} entity with the banned status set to {@code true}
      */
     public User ban(User user) {
+        user = findByIdWithCredentials(user.getId());
         user.setBanned(true);
         user = save(user);
 
@@ -140,7 +142,7 @@ public class UserService {
 
     public User getByEmail(String email, String authSecretKey) {
         isValidPrivateSecret(authSecretKey);
-        return findByEmail(email);
+        return findByEmailWithCredentials(email);
     }
 
     public User findByEmail(String email) {
@@ -150,7 +152,7 @@ public class UserService {
 
     public User getById(long userId, String authSecretKey) {
         isValidPrivateSecret(authSecretKey);
-        return findById(userId);
+        return findByIdWithCredentials(userId);
     }
 
     public User findById(long userId) {
@@ -158,6 +160,20 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("User with this id not found."));
     }
 
+    /**
+     * Reads the {@link User} from the database rather than the cache, which leaves out the password and
+     * the 2FA secret. Used for the credentials themselves and before saving, so a save never clears them.
+     */
+    private User findByEmailWithCredentials(String email) {
+        return userRepository.readByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException("User with this email not found."));
+    }
+
+    private User findByIdWithCredentials(long userId) {
+        return userRepository.readById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with this id not found."));
+    }
+
     /**
      * Retrieves a {@link User} entity associated with the provided JWT token.
      *
@@ -177,7 +193,7 @@ public class UserService {
      * @param userPasswordResetMessage a message containing the user's email and the new encoded password
      */
     public void resetPassword(UserPasswordResetMessage userPasswordResetMessage) {
-        User user = findByEmail(userPasswordResetMessage.getEmail());
+        User user = findByEmailWithCredentials(userPasswordResetMessage.getEmail());
         user.setPassword(userPasswordResetMessage.getNewEncodedPassword());
 
         save(user);
@@ -190,7 +206,7 @@ public class UserService {
      * @param email the email address of the user to verify
      */
     public void verifyByEmail(String email) {
-        User user = findByEmail(email);
+        User user = findByEmailWithCredentials(email);
 
         user.setVerified(true);
         save(user);
@@ -199,11 +215,13 @@ public class UserService {
     /**
      * Changes the email address of the {@link User} based on the provided {@link ChangeEmailMessage}
      * Triggered when a message is received from the auth-service {@link UserActionsConsumer#listenChangeEmail(String)}.
+     * Saving evicts the user under the new email, so the entry cached under the current email is evicted here.
      *
      * @param changeEmailMessage the {@link ChangeEmailMessage} containing the user's current email and the new email to update to
      */
+    @CacheEvict(cacheNames = UserRepository.USERS_BY_EMAIL_CACHE, key = "#p0.currentEmail")
     public void changeEmail(ChangeEmailMessage changeEmailMessage) {
-        User user = findByEmail(changeEmailMessage.getCurrentEmail());
+        User user = findByEmailWithCredentials(changeEmailMessage.getCurrentEmail());
         user.setEmail(changeEmailMessage.getNewEmail());
 
         save(user);
@@ -219,7 +237,7 @@ public class UserService {
      * @throws com.halcyon.userservice.exception.UnverifiedUserException if the user is not verified
      */
     public User uploadAvatar(MultipartFile imageFile) {
-        User user = findByEmail(authProvider.getSubject());
+        User user = findByEmailWithCredentials(authProvider.getSubject());
         isUserBanned(user, BANNED_USER_MESSAGE);
         isUserVerified(user, UNVERIFIED_USER_MESSAGE);
 
@@ -260,7 +278,7 @@ public class UserService {
      * @throws com.halcyon.userservice.exception.UnverifiedUserException if user is not verified
      */
     public User updateUsername(String username) {
-        User user = findByEmail(authProvider.getSubject());
+        User user = findByEmailWithCredentials(authProvider.getSubject());
         isUserBanned(user, BANNED_USER_MESSAGE);
         isUserVerified(user, UNVERIFIED_USER_MESSAGE);
 
@@ -278,7 +296,7 @@ public class UserService {
      * @throws com.halcyon.userservice.exception.UnverifiedUserException if user is not verified
      */
     public User updateAbout(String about) {
-        User user = findByEmail(authProvider.getSubject());
+        User user = findByEmailWithCredentials(authProvider.getSubject());
         isUserBanned(user, BANNED_USER_MESSAGE);
         isUserVerified(user, UNVERIFIED_USER_MESSAGE);
 
@@ -294,7 +312,7 @@ public class UserService {
      * @param saveSecretMessage the {@link SaveSecretMessage} containing the user's email address and the 2fa-secret to save to
      */
     public void saveSecret(SaveSecretMessage saveSecretMessage) {
-        User user = findByEmail(saveSecretMessage.getEmail());
+        User user = findByEmailWithCredentials(saveSecretMessage.getEmail());
         user.setSecret(saveSecretMessage.getSecret());
         save(user);
     }
@@ -305,7 +323,7 @@ public class UserService {
      * @param email the email address of the user for whom 2FA should be enabled
      */
     public void use2FA(String email) {
-        User user = findByEmail(email);
+        User user = findByEmailWithCredentials(email);
         user.setUsing2FA(true);
         save(user);
     }
@@ -0,0 +1,14 @@
+-- =========================================
+-- Description: Allocate ids in blocks of 50 for Hibernate's pooled sequence optimizer
+-- Author: Halcyon
+-- Version: V1.0.2
+-- =========================================
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+
+ALTER SEQUENCE subscriptions_id_seq INCREMENT BY 50;
+SELECT setval('subscriptions_id_seq', COALESCE((SELECT MAX(id) FROM subscriptions), 0) + 50, false);
+
+ALTER SEQUENCE strikes_id_seq INCREMENT BY 50;
+SELECT setval('strikes_id_seq', COALESCE((SELECT MAX(id) FROM strikes), 0) + 50, false);
\ No newline at end of file
@@ -107,23 +107,11 @@ class StrikeServiceTests {
 
     @Test
     void create_banUser() {
-        setStrikesToTarget();
         mockCreating();
+        when(strikeRepository.countByTarget(target)).thenReturn(19L);
 
         strikeService.create(getCreateStrikeDto());
         verify(userService).ban(target);
-
-        target.setStrikes(new ArrayList<>());
-    }
-
-    private void setStrikesToTarget() {
-        List<Strike> strikes = new ArrayList<>();
-
-        for (int i = 0; i < 19; i++) {
-            strikes.add(getStrike());
-        }
-
-        target.setStrikes(strikes);
     }
 
     @Test
@@ -15,8 +15,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -236,4 +238,15 @@ class SubscriptionServiceTests {
 
         owner.setBanned(false);
     }
+
+    @Test
+    void getIdOfUsersSubscribedByUser_byEmail() {
+        ReflectionTestUtils.setField(subscriptionService, "privateSecret", "secret");
+        when(userService.findByEmail(owner.getEmail())).thenReturn(owner);
+        when(subscriptionRepository.findIdOfUsersSubscribedByUser(owner)).thenReturn(List.of(2, 3));
+
+        List<Integer> ids = subscriptionService.getIdOfUsersSubscribedByUser(owner.getEmail(), "secret");
+
+        assertThat(ids).containsExactly(2, 3);
+    }
 }
@@ -53,6 +53,7 @@ class UserServiceTests {
     @BeforeAll
     static void beforeAll() {
         user = User.builder()
+                .id(1L)
                 .username("test_username")
                 .email("test_user@gmail.com")
                 .avatarPath("test_avatar_path")
@@ -80,6 +81,7 @@ class UserServiceTests {
 
     @Test
     void ban() {
+        when(userRepository.readById(user.getId())).thenReturn(Optional.of(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         User returnedUser = userService.ban(user);
@@ -94,11 +96,11 @@ class UserServiceTests {
     void resetPassword() {
         UserPasswordResetMessage userPasswordResetMessage = getUserPasswordResetMessage();
 
-        when(userRepository.findByEmail(userPasswordResetMessage.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.readByEmail(userPasswordResetMessage.getEmail())).thenReturn(Optional.of(user));
 
         userService.resetPassword(userPasswordResetMessage);
 
-        verify(userRepository).findByEmail(userPasswordResetMessage.getEmail());
+        verify(userRepository).readByEmail(userPasswordResetMessage.getEmail());
         assertThat(user.getPassword()).isEqualTo(userPasswordResetMessage.getNewEncodedPassword());
         verify(userRepository).save(user);
     }
@@ -119,14 +121,14 @@ class UserServiceTests {
         User returnedUser = userService.uploadAvatar(multipartFile);
         assertThat(returnedUser.getAvatarPath()).isEqualTo(newImagePath);
 
-        verify(userRepository).findByEmail(user.getEmail());
+        verify(userRepository).readByEmail(user.getEmail());
         verify(fileStorageService).upload(multipartFile);
         verify(userRepository).save(user);
     }
 
     private void mockGettingUser() {
         when(authProvider.getSubject()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.readByEmail(user.getEmail())).thenReturn(Optional.of(user));
     }
 
     @Test
@@ -167,7 +169,7 @@ class UserServiceTests {
         User returnedUser = userService.updateUsername(newUsername);
         assertThat(returnedUser.getUsername()).isEqualTo(newUsername);
 
-        verify(userRepository).findByEmail(user.getEmail());
+        verify(userRepository).readByEmail(user.getEmail());
         verify(userRepository).save(user);
     }
 
@@ -215,12 +217,12 @@ class UserServiceTests {
     void saveSecret() {
         SaveSecretMessage saveSecretMessage = getSaveSecretMessage();
 
-        when(userRepository.findByEmail(saveSecretMessage.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.readByEmail(saveSecretMessage.getEmail())).thenReturn(Optional.of(user));
 
         userService.saveSecret(saveSecretMessage);
         assertThat(user.getSecret()).isEqualTo(saveSecretMessage.getSecret());
 
-        verify(userRepository).findByEmail(saveSecretMessage.getEmail());
+        verify(userRepository).readByEmail(saveSecretMessage.getEmail());
         verify(userRepository).save(user);
     }
 
@@ -230,12 +232,12 @@ class UserServiceTests {
 
     @Test
     void use2FA() {
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.readByEmail(user.getEmail())).thenReturn(Optional.of(user));
 
         userService.use2FA(user.getEmail());
         assertThat(user.isUsing2FA()).isTrue();
 
-        verify(userRepository).findByEmail(user.getEmail());
+        verify(userRepository).readByEmail(user.getEmail());
         verify(userRepository).save(user);
     }
 }